@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.RamlValidationService;
+
+/**
+ * Builds, validates and emits the RAML documents bundled with the parser tests.
+ * <p/>
+ * Throughput and sample time modes report operations per second and latency
+ * percentiles; run with <tt>-prof gc</tt> to report the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorpusBenchmark
+{
+
+    @Param({
+            "org/raml/validation/github-api-v3.raml",
+            "org/raml/validation/instagram-api.raml",
+            "org/raml/integration/sales-enablement-api.yaml",
+            "org/raml/full-config.yaml"
+    })
+    public String corpus;
+
+    private Raml raml;
+
+    @Setup
+    public void setUp()
+    {
+        raml = new RamlDocumentBuilder().build(corpus);
+    }
+
+    @Benchmark
+    public Raml build()
+    {
+        return new RamlDocumentBuilder().build(corpus);
+    }
+
+    @Benchmark
+    public List<ValidationResult> validate()
+    {
+        return RamlValidationService.createDefault().validate(corpus);
+    }
+
+    @Benchmark
+    public String dump()
+    {
+        return new RamlEmitter().dump(raml);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Raml buildConcurrently()
+    {
+        return build();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<ValidationResult> validateConcurrently()
+    {
+        return validate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String dumpConcurrently()
+    {
+        return dump();
+    }
+}
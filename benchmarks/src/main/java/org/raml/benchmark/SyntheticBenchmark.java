@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.RamlValidationService;
+
+/**
+ * Builds, validates and emits generated RAML documents scaled by the number of
+ * resources, the number of traits applied to each resource and the number of
+ * files included by the resources.
+ *
+ * @see SyntheticRaml
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyntheticBenchmark
+{
+
+    @Param({"10", "100", "1000"})
+    public int resources;
+
+    @Param({"0", "10"})
+    public int traits;
+
+    @Param({"0", "10", "100"})
+    public int includes;
+
+    private SyntheticRaml syntheticRaml;
+    private Raml raml;
+
+    @Setup
+    public void setUp()
+    {
+        syntheticRaml = new SyntheticRaml(resources, traits, includes);
+        raml = build();
+    }
+
+    @Benchmark
+    public Raml build()
+    {
+        return new RamlDocumentBuilder(syntheticRaml).build(SyntheticRaml.LOCATION);
+    }
+
+    @Benchmark
+    public List<ValidationResult> validate()
+    {
+        return RamlValidationService.createDefault(syntheticRaml).validate(SyntheticRaml.LOCATION);
+    }
+
+    @Benchmark
+    public String dump()
+    {
+        return new RamlEmitter().dump(raml);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Raml buildConcurrently()
+    {
+        return build();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<ValidationResult> validateConcurrently()
+    {
+        return validate();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.raml.parser.loader.ResourceLoader;
+
+/**
+ * Generates a RAML document and the files it includes, kept in memory and served
+ * by its resource loader.
+ * <p/>
+ * Every resource has the <tt>collection</tt> resource type, a nested member resource
+ * whose <tt>get</tt> action uses all the traits, and a response example included from
+ * one of <tt>includes</tt> files, or declared inline when there are none.
+ */
+public class SyntheticRaml implements ResourceLoader
+{
+
+    public static final String LOCATION = "api.raml";
+
+    private final Map<String, byte[]> files = new HashMap<String, byte[]>();
+
+    public SyntheticRaml(int resources, int traits, int includes)
+    {
+        put(LOCATION, root(resources, traits, includes));
+        for (int i = 0; i < includes; i++)
+        {
+            put(include(i), example(i));
+        }
+    }
+
+    private static String root(int resources, int traits, int includes)
+    {
+        StringBuilder raml = new StringBuilder();
+        raml.append("#%RAML 0.8\n");
+        raml.append("---\n");
+        raml.append("title: Synthetic API\n");
+        raml.append("baseUri: http://localhost/{version}\n");
+        raml.append("version: v1\n");
+        raml.append("mediaType: application/json\n");
+        raml.append("resourceTypes:\n");
+        raml.append("  - collection:\n");
+        raml.append("      description: Collection of <<resourcePathName>>\n");
+        raml.append("      get:\n");
+        raml.append("        description: Get all <<resourcePathName>>\n");
+        raml.append("      post:\n");
+        raml.append("        description: Create a new <<resourcePathName | !singularize>>\n");
+        raml.append("        body:\n");
+        raml.append("          schema: <<resourcePathName>>\n");
+        if (traits > 0)
+        {
+            raml.append("traits:\n");
+            for (int i = 0; i < traits; i++)
+            {
+                raml.append("  - trait").append(i).append(":\n");
+                raml.append("      queryParameters:\n");
+                raml.append("        param").append(i).append(":\n");
+                raml.append("          description: Parameter ").append(i).append(" of <<methodName>>\n");
+                raml.append("          type: string\n");
+            }
+        }
+        raml.append("schemas:\n");
+        for (int i = 0; i < resources; i++)
+        {
+            raml.append("  - items").append(i).append(": '{\"type\": \"object\"}'\n");
+        }
+        for (int i = 0; i < resources; i++)
+        {
+            raml.append("/items").append(i).append(":\n");
+            raml.append("  type: collection\n");
+            raml.append("  /{id}:\n");
+            raml.append("    get:\n");
+            if (traits > 0)
+            {
+                raml.append("      is: [");
+                for (int j = 0; j < traits; j++)
+                {
+                    raml.append(j > 0 ? ", " : "").append("trait").append(j);
+                }
+                raml.append("]\n");
+            }
+            raml.append("      responses:\n");
+            raml.append("        200:\n");
+            raml.append("          body:\n");
+            raml.append("            application/json:\n");
+            if (includes > 0)
+            {
+                raml.append("              example: !include ").append(include(i % includes)).append("\n");
+            }
+            else
+            {
+                raml.append("              example: '").append(example(i)).append("'\n");
+            }
+        }
+        return raml.toString();
+    }
+
+    private static String include(int index)
+    {
+        return "examples/example" + index + ".json";
+    }
+
+    private static String example(int index)
+    {
+        return "{\"id\": " + index + ", \"name\": \"item " + index + "\"}";
+    }
+
+    private void put(String name, String content)
+    {
+        try
+        {
+            files.put(name, content.getBytes("UTF-8"));
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public InputStream fetchResource(String resourceName)
+    {
+        byte[] content = files.get(resourceName);
+        return content == null ? null : new ByteArrayInputStream(content);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.raml.model.Raml;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.TemplateFunction;
+import org.raml.parser.visitor.TemplateFunctionRegistry;
+
+/**
+ * Applies the default template parameter functions directly and through a document
+ * whose resource type uses them on every resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateFunctionBenchmark
+{
+
+    @Param({"users", "octopi", "analyses", "status"})
+    public String word;
+
+    private TemplateFunction singularize;
+    private TemplateFunction pluralize;
+    private TemplateFunction camelize;
+    private SyntheticRaml syntheticRaml;
+
+    @Setup
+    public void setUp()
+    {
+        TemplateFunctionRegistry functions = TemplateFunctionRegistry.createDefault();
+        singularize = functions.get("singularize");
+        pluralize = functions.get("pluralize");
+        camelize = functions.get("camelize");
+        syntheticRaml = new SyntheticRaml(100, 0, 0);
+    }
+
+    @Benchmark
+    public String singularize()
+    {
+        return singularize.apply(word);
+    }
+
+    @Benchmark
+    public String pluralize()
+    {
+        return pluralize.apply(word);
+    }
+
+    @Benchmark
+    public String camelize()
+    {
+        return camelize.apply(word);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Raml buildWithFunctions()
+    {
+        return new RamlDocumentBuilder(syntheticRaml).build(SyntheticRaml.LOCATION);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.raml.model.Raml;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+
+/**
+ * Builds a document whose single resource merges a resource type declaring as many
+ * query parameters as the resource itself, half of them through optional keys, so the
+ * time per key shows how the template merge scales with the number of keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateMergeBenchmark
+{
+
+    @Param({"100", "1000", "10000"})
+    public int keys;
+
+    private String content;
+
+    @Setup
+    public void setUp()
+    {
+        StringBuilder raml = new StringBuilder();
+        raml.append("#%RAML 0.8\n");
+        raml.append("title: merge\n");
+        raml.append("resourceTypes:\n");
+        raml.append("  - wide:\n");
+        raml.append("      get?:\n");
+        raml.append("        queryParameters:\n");
+        for (int i = 0; i < keys; i++)
+        {
+            raml.append("          p").append(i).append(i % 2 == 0 ? "?" : "").append(":\n");
+            raml.append("            description: from type\n");
+        }
+        raml.append("/items:\n");
+        raml.append("  type: wide\n");
+        raml.append("  get:\n");
+        raml.append("    queryParameters:\n");
+        for (int i = keys - 1; i >= 0; i--)
+        {
+            raml.append("      p").append(i).append(":\n");
+            raml.append("        type: integer\n");
+        }
+        content = raml.toString();
+    }
+
+    @Benchmark
+    public Raml merge()
+    {
+        return new RamlDocumentBuilder().build(content, "merge.raml");
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.raml.model.Raml;
+import org.raml.parser.ResolveResourceException;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.loader.ResourceNotFoundException;
+import org.raml.parser.tagresolver.TagResolver;
+import org.raml.parser.utils.StreamUtils;
+import org.raml.parser.visitor.ParseListener;
+import org.raml.parser.visitor.TemplateFunction;
+import org.raml.parser.visitor.TemplateFunctionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Document builder that keeps the models it builds in an on disk cache.
+ * <p/>
+ * Building a document for the first time records the content hash of every resource
+ * fetched while building it, the root document, includes and schema imports among
+ * them, and stores them in the cache directory together with the model written as a
+ * RAML artifact. Later builds of the same location, or of the same content, fetch and
+ * hash the recorded resources again, and load the model from the artifact if none of
+ * them changed, without composing the document, expanding templates or compiling
+ * schemas from scratch.
+ * <p/>
+ * Entries are keyed by the location, or the content, by the classes of the resource
+ * loader and tag resolvers and by the names and classes of the template functions.
+ * Builders of different configurations can share a cache directory, as an entry whose
+ * resources a loader resolves to a different content is built again, but they replace
+ * each other's entries. Custom tag resolvers must resolve the same content to the same
+ * nodes. The root node is not available after a cached build, and every top level
+ * resource is built before the model is stored, lazy resources included.
+ */
+public class CachingRamlDocumentBuilder extends RecordingRamlDocumentBuilder
+{
+
+    private static final int ENTRY_MAGIC = 0x52414d43;
+    private static final int ENTRY_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".raml.cache";
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final File cacheDirectory;
+    private final ResourceLoader resourceLoader;
+    private final String configuration;
+
+    public CachingRamlDocumentBuilder(File cacheDirectory)
+    {
+        this(cacheDirectory, new DefaultResourceLoader());
+    }
+
+    public CachingRamlDocumentBuilder(File cacheDirectory, ResourceLoader resourceLoader, TagResolver... tagResolvers)
+    {
+        super(resourceLoader, tagResolvers);
+        this.cacheDirectory = cacheDirectory;
+        this.resourceLoader = resourceLoader;
+        StringBuilder configuration = new StringBuilder(resourceLoader.getClass().getName());
+        for (TagResolver tagResolver : tagResolvers)
+        {
+            configuration.append(',').append(tagResolver.getClass().getName());
+        }
+        this.configuration = configuration.toString();
+    }
+
+    @Override
+    public Raml build(String resourceLocation)
+    {
+        return buildCached(null, resourceLocation);
+    }
+
+    @Override
+    public Raml build(Reader content, String resourceLocation)
+    {
+        if (content == null)
+        {
+            throw new ResourceNotFoundException(resourceLocation);
+        }
+        try
+        {
+            return buildCached(IOUtils.toString(content), resourceLocation);
+        }
+        catch (IOException e)
+        {
+            throw new ResolveResourceException(e);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(content);
+        }
+    }
+
+    /**
+     * @param content the document content or <tt>null</tt> to fetch it from the location
+     */
+    private Raml buildCached(String content, String resourceLocation)
+    {
+        File entry = getEntry(content, resourceLocation);
+        Raml raml = readEntry(entry);
+        if (getParseListener() != null)
+        {
+            getParseListener().onCacheAccess(ParseListener.Cache.DOCUMENT, raml != null);
+        }
+        if (raml != null)
+        {
+            return raml;
+        }
+        clearRecords();
+        if (content == null)
+        {
+            InputStream resourceStream = getResourceLoader().fetchResource(resourceLocation);
+            if (resourceStream == null)
+            {
+                throw new ResourceNotFoundException(resourceLocation);
+            }
+            raml = super.build(StreamUtils.reader(resourceStream), resourceLocation);
+        }
+        else
+        {
+            raml = super.build(new StringReader(content), resourceLocation);
+        }
+        writeEntry(entry, raml);
+        return raml;
+    }
+
+    private File getEntry(String content, String resourceLocation)
+    {
+        try
+        {
+            StringBuilder key = new StringBuilder(configuration);
+            TemplateFunctionRegistry templateFunctions = getTemplateFunctions();
+            for (String name : templateFunctions.getNames())
+            {
+                TemplateFunction function = templateFunctions.get(name);
+                if (function != null)
+                {
+                    key.append(',').append(name).append('=').append(function.getClass().getName());
+                }
+            }
+            key.append('\n').append(resourceLocation);
+            if (content != null)
+            {
+                key.append('\n').append(content);
+            }
+            return new File(cacheDirectory, RecordingResourceLoader.hash(key.toString().getBytes("UTF-8")) + ENTRY_SUFFIX);
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the cached model or <tt>null</tt> if there is no entry or any of the
+     *         recorded resources changed
+     */
+    private Raml readEntry(File entry)
+    {
+        if (!entry.isFile())
+        {
+            return null;
+        }
+        try
+        {
+            byte[] content = FileUtils.readFileToByteArray(entry);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+            if (input.readInt() != ENTRY_MAGIC || input.readInt() != ENTRY_VERSION)
+            {
+                return null;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                String resourceName = input.readUTF();
+                String hash = input.readBoolean() ? input.readUTF() : null;
+                byte[] resource = RecordingResourceLoader.fetchContent(resourceLoader, resourceName);
+                String currentHash = resource == null ? null : RecordingResourceLoader.hash(resource);
+                if (hash == null ? currentHash != null : !hash.equals(currentHash))
+                {
+                    logger.debug("cache entry {} is stale, {} changed", entry, resourceName);
+                    return null;
+                }
+            }
+            int offset = content.length - input.available();
+            return new RamlArtifactReader(resourceLoader).read(ByteBuffer.wrap(content, offset, content.length - offset));
+        }
+        catch (IOException e)
+        {
+            logger.warn("could not read cache entry " + entry, e);
+        }
+        catch (RamlArtifactException e)
+        {
+            logger.warn("invalid cache entry " + entry, e);
+        }
+        return null;
+    }
+
+    private void writeEntry(File entry, Raml raml)
+    {
+        try
+        {
+            //lazy resources are built first so the resources and schemas they use are recorded
+            raml.getResources().values().toArray();
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("not caching " + entry + ", a resource could not be built", e);
+            return;
+        }
+        File temporaryEntry = null;
+        DataOutputStream output = null;
+        try
+        {
+            if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs())
+            {
+                throw new IOException("could not create cache directory " + cacheDirectory);
+            }
+            temporaryEntry = File.createTempFile("raml", ".tmp", cacheDirectory);
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryEntry)));
+            Map<String, String> fetchedResources = getFetchedResources();
+            output.writeInt(ENTRY_MAGIC);
+            output.writeInt(ENTRY_VERSION);
+            output.writeInt(fetchedResources.size());
+            for (Map.Entry<String, String> fetchedResource : fetchedResources.entrySet())
+            {
+                output.writeUTF(fetchedResource.getKey());
+                output.writeBoolean(fetchedResource.getValue() != null);
+                if (fetchedResource.getValue() != null)
+                {
+                    output.writeUTF(fetchedResource.getValue());
+                }
+            }
+            new RamlArtifactWriter(getSchemaBasePaths()).write(raml, output);
+            output.close();
+            output = null;
+            if (!temporaryEntry.renameTo(entry) && !(entry.delete() && temporaryEntry.renameTo(entry)))
+            {
+                throw new IOException("could not move " + temporaryEntry + " to " + entry);
+            }
+            temporaryEntry = null;
+        }
+        catch (IOException e)
+        {
+            logger.warn("could not write cache entry " + entry, e);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(output);
+            if (temporaryEntry != null)
+            {
+                FileUtils.deleteQuietly(temporaryEntry);
+            }
+        }
+    }
+}
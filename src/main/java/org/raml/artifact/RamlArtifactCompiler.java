@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.raml.model.Raml;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.tagresolver.TagResolver;
+
+/**
+ * Builds a RAML document and writes it as a binary artifact that
+ * {@link RamlArtifactReader} loads without parsing the document again.
+ * <p/>
+ * Usage: <tt>RamlArtifactCompiler &lt;raml location&gt; &lt;artifact file&gt;</tt>
+ */
+public class RamlArtifactCompiler
+{
+
+    private final ResourceLoader resourceLoader;
+    private final TagResolver[] tagResolvers;
+
+    public RamlArtifactCompiler()
+    {
+        this(new DefaultResourceLoader());
+    }
+
+    public RamlArtifactCompiler(ResourceLoader resourceLoader, TagResolver... tagResolvers)
+    {
+        this.resourceLoader = resourceLoader;
+        this.tagResolvers = tagResolvers;
+    }
+
+    public Raml compile(String resourceLocation, File artifact) throws IOException
+    {
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(artifact));
+        try
+        {
+            return compile(resourceLocation, output);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(output);
+        }
+    }
+
+    /**
+     * @return the model written to the output
+     */
+    public Raml compile(String resourceLocation, OutputStream output) throws IOException
+    {
+        RecordingRamlDocumentBuilder builder = new RecordingRamlDocumentBuilder(resourceLoader, tagResolvers);
+        Raml raml = builder.build(resourceLocation);
+        new RamlArtifactWriter(builder.getSchemaBasePaths()).write(raml, output);
+        return raml;
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("Usage: RamlArtifactCompiler <raml location> <artifact file>");
+            System.exit(1);
+        }
+        new RamlArtifactCompiler().compile(args[0], new File(args[1]));
+    }
+}
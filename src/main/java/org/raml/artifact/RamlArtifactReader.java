@@ -0,0 +1,608 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import static org.raml.artifact.RamlArtifactWriter.FORMAT_VERSION;
+import static org.raml.artifact.RamlArtifactWriter.MAGIC;
+import static org.raml.artifact.RamlArtifactWriter.NO_SCHEMA;
+import static org.raml.artifact.RamlArtifactWriter.SCHEMA_PATH;
+import static org.raml.artifact.RamlArtifactWriter.XML_SCHEMA;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.raml.model.Action;
+import org.raml.model.ActionType;
+import org.raml.model.DocumentationItem;
+import org.raml.model.MimeType;
+import org.raml.model.ParamType;
+import org.raml.model.Protocol;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.raml.model.Response;
+import org.raml.model.SecurityReference;
+import org.raml.model.SecurityScheme;
+import org.raml.model.SecuritySchemeDescriptor;
+import org.raml.model.SecuritySettings;
+import org.raml.model.Template;
+import org.raml.model.parameter.AbstractParam;
+import org.raml.model.parameter.FormParameter;
+import org.raml.model.parameter.Header;
+import org.raml.model.parameter.QueryParameter;
+import org.raml.model.parameter.UriParameter;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.tagresolver.ContextPath;
+import org.raml.parser.visitor.SchemaCompiler;
+
+/**
+ * Loads a {@link Raml} model from an artifact written by {@link RamlArtifactWriter}.
+ * <p/>
+ * The model is rebuilt with plain constructors and setters, without YAML parsing,
+ * include fetching or reflection. XML schemas referenced by the artifact are compiled
+ * again, through the shared schema cache, using the resource loader to resolve their
+ * imports and includes.
+ */
+public class RamlArtifactReader
+{
+
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+    private static final ParamType[] PARAM_TYPES = ParamType.values();
+    private static final Protocol[] PROTOCOLS = Protocol.values();
+
+    private final ResourceLoader resourceLoader;
+    private ByteBuffer buffer;
+    private String[] strings;
+    private SchemaCompiler schemaCompiler;
+
+    public RamlArtifactReader()
+    {
+        this(new DefaultResourceLoader());
+    }
+
+    public RamlArtifactReader(ResourceLoader resourceLoader)
+    {
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Loads the artifact from a memory mapped file.
+     */
+    public Raml read(File artifact) throws IOException
+    {
+        RandomAccessFile file = new RandomAccessFile(artifact, "r");
+        try
+        {
+            FileChannel channel = file.getChannel();
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        finally
+        {
+            IOUtils.closeQuietly(file);
+        }
+    }
+
+    public Raml read(ByteBuffer artifact)
+    {
+        buffer = artifact.duplicate();
+        schemaCompiler = new SchemaCompiler(new ContextPath(), resourceLoader);
+        try
+        {
+            if (buffer.getInt() != MAGIC)
+            {
+                throw new RamlArtifactException("Not a RAML artifact");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION)
+            {
+                throw new RamlArtifactException("Unsupported RAML artifact format version " + version
+                                                + ", expected " + FORMAT_VERSION);
+            }
+            readStrings();
+            return readRaml();
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new RamlArtifactException("Truncated RAML artifact", e);
+        }
+        finally
+        {
+            buffer = null;
+            strings = null;
+        }
+    }
+
+    private void readStrings()
+    {
+        strings = new String[readVarInt() + 1];
+        for (int i = 1; i < strings.length; i++)
+        {
+            byte[] bytes = new byte[readVarInt()];
+            buffer.get(bytes);
+            try
+            {
+                strings[i] = new String(bytes, "UTF-8");
+            }
+            catch (UnsupportedEncodingException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private Raml readRaml()
+    {
+        Raml raml = new Raml();
+        raml.setTitle(readString());
+        raml.setVersion(readString());
+        raml.setBaseUri(readString());
+        raml.setProtocols(readProtocols());
+        raml.setBaseUriParameters(readUriParameters());
+        raml.setMediaType(readString());
+        int size = readSize();
+        List<Map<String, String>> schemas = size < 0 ? null : new ArrayList<Map<String, String>>(size);
+        for (int i = 0; i < size; i++)
+        {
+            schemas.add(readStringMap());
+        }
+        raml.setSchemas(schemas);
+        raml.setCompiledSchemas(readCompiledSchemas());
+        raml.setResourceTypes(readTemplates());
+        raml.setTraits(readTemplates());
+        raml.setSecuritySchemes(readSecuritySchemes());
+        raml.setSecuredBy(readSecurityReferences());
+        raml.setResources(readResources(null));
+        size = readSize();
+        List<DocumentationItem> documentation = size < 0 ? null : new ArrayList<DocumentationItem>(size);
+        for (int i = 0; i < size; i++)
+        {
+            DocumentationItem item = new DocumentationItem();
+            item.setTitle(readString());
+            item.setContent(readString());
+            documentation.add(item);
+        }
+        raml.setDocumentation(documentation);
+        return raml;
+    }
+
+    private Map<String, Object> readCompiledSchemas()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, Object> compiledSchemas = new HashMap<String, Object>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            Object compiledSchema = readSchemaReference();
+            if (compiledSchema != null)
+            {
+                compiledSchemas.put(key, compiledSchema);
+            }
+        }
+        return compiledSchemas;
+    }
+
+    private Object readSchemaReference()
+    {
+        int kind = readVarInt();
+        if (kind == NO_SCHEMA)
+        {
+            return null;
+        }
+        if (kind == SCHEMA_PATH)
+        {
+            return readString();
+        }
+        if (kind == XML_SCHEMA)
+        {
+            String schema = readString();
+            String basePath = readString();
+            return schemaCompiler.compile(schema, basePath);
+        }
+        throw new RamlArtifactException("Invalid schema reference " + kind);
+    }
+
+    private List<Map<String, Template>> readTemplates()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        List<Map<String, Template>> templates = new ArrayList<Map<String, Template>>(size);
+        for (int i = 0; i < size; i++)
+        {
+            int mapSize = readSize();
+            Map<String, Template> templateMap = new LinkedHashMap<String, Template>();
+            for (int j = 0; j < mapSize; j++)
+            {
+                String key = readString();
+                Template template = new Template();
+                template.setDisplayName(readString());
+                templateMap.put(key, template);
+            }
+            templates.add(templateMap);
+        }
+        return templates;
+    }
+
+    private List<Map<String, SecurityScheme>> readSecuritySchemes()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        List<Map<String, SecurityScheme>> securitySchemes = new ArrayList<Map<String, SecurityScheme>>(size);
+        for (int i = 0; i < size; i++)
+        {
+            int mapSize = readSize();
+            Map<String, SecurityScheme> schemeMap = new LinkedHashMap<String, SecurityScheme>();
+            for (int j = 0; j < mapSize; j++)
+            {
+                String key = readString();
+                SecurityScheme scheme = new SecurityScheme();
+                scheme.setDescription(readString());
+                scheme.setType(readString());
+                if (readBoolean())
+                {
+                    SecuritySchemeDescriptor describedBy = new SecuritySchemeDescriptor();
+                    describedBy.setHeaders(readParameters(new Header[0]));
+                    describedBy.setQueryParameters(readParameters(new QueryParameter[0]));
+                    describedBy.setResponses(readResponses());
+                    scheme.setDescribedBy(describedBy);
+                }
+                if (readBoolean())
+                {
+                    SecuritySettings settings = new SecuritySettings();
+                    settings.setRequestTokenUri(readString());
+                    settings.setAuthorizationUri(readString());
+                    settings.setTokenCredentialsUri(readString());
+                    settings.setAccessTokenUri(readString());
+                    settings.setAuthorizationGrants(readStringList());
+                    settings.setScopes(readStringList());
+                    scheme.setSettings(settings);
+                }
+                schemeMap.put(key, scheme);
+            }
+            securitySchemes.add(schemeMap);
+        }
+        return securitySchemes;
+    }
+
+    private List<SecurityReference> readSecurityReferences()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        List<SecurityReference> securityReferences = new ArrayList<SecurityReference>(size);
+        for (int i = 0; i < size; i++)
+        {
+            SecurityReference reference = new SecurityReference(readString());
+            int mapSize = readSize();
+            Map<String, List<String>> parameters = mapSize < 0 ? null : new LinkedHashMap<String, List<String>>();
+            for (int j = 0; j < mapSize; j++)
+            {
+                String key = readString();
+                parameters.put(key, readStringList());
+            }
+            reference.setParameters(parameters);
+            securityReferences.add(reference);
+        }
+        return securityReferences;
+    }
+
+    private Map<String, Resource> readResources(Resource parentResource)
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, Resource> resources = new LinkedHashMap<String, Resource>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            resources.put(key, readResource(parentResource));
+        }
+        return resources;
+    }
+
+    private Resource readResource(Resource parentResource)
+    {
+        Resource resource = new Resource();
+        resource.setParentResource(parentResource);
+        resource.setDisplayName(readString());
+        resource.setDescription(readString());
+        resource.setParentUri(readString());
+        resource.setRelativeUri(readString());
+        resource.setUriParameters(readUriParameters());
+        resource.setType(readString());
+        resource.setIs(readStringList());
+        resource.setSecuredBy(readSecurityReferences());
+        resource.setBaseUriParameters(readParameterLists(new UriParameter[0]));
+        int size = readSize();
+        Map<ActionType, Action> actions = size < 0 ? null : new LinkedHashMap<ActionType, Action>();
+        for (int i = 0; i < size; i++)
+        {
+            ActionType key = readEnum(ACTION_TYPES);
+            actions.put(key, readAction(resource));
+        }
+        resource.setActions(actions);
+        resource.setResources(readResources(resource));
+        return resource;
+    }
+
+    private Action readAction(Resource resource)
+    {
+        Action action = new Action();
+        action.setResource(resource);
+        action.setType(readEnum(ACTION_TYPES));
+        action.setDescription(readString());
+        action.setDisplayName(readString());
+        action.setHeaders(readParameters(new Header[0]));
+        action.setQueryParameters(readParameters(new QueryParameter[0]));
+        action.setBody(readBody());
+        action.setResponses(readResponses());
+        action.setIs(readStringList());
+        action.setProtocols(readProtocols());
+        action.setSecuredBy(readSecurityReferences());
+        action.setBaseUriParameters(readParameterLists(new UriParameter[0]));
+        return action;
+    }
+
+    private Map<String, Response> readResponses()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, Response> responses = new LinkedHashMap<String, Response>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            Response response = new Response();
+            response.setDescription(readString());
+            response.setBody(readBody());
+            response.setHeaders(readParameters(new Header[0]));
+            responses.put(key, response);
+        }
+        return responses;
+    }
+
+    private Map<String, MimeType> readBody()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, MimeType> body = new LinkedHashMap<String, MimeType>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            MimeType mimeType = new MimeType();
+            mimeType.setType(readString());
+            mimeType.setSchema(readString());
+            mimeType.setCompiledSchema(readSchemaReference());
+            mimeType.setExample(readString());
+            mimeType.setFormParameters(readParameterLists(new FormParameter[0]));
+            body.put(key, mimeType);
+        }
+        return body;
+    }
+
+    private Map<String, UriParameter> readUriParameters()
+    {
+        return readParameters(new UriParameter[0]);
+    }
+
+    /**
+     * @param type empty array used to pick the parameter class without reflection
+     */
+    private <P extends AbstractParam> Map<String, P> readParameters(P[] type)
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, P> parameters = new LinkedHashMap<String, P>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            parameters.put(key, readParameter(type));
+        }
+        return parameters;
+    }
+
+    private <P extends AbstractParam> Map<String, List<P>> readParameterLists(P[] type)
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, List<P>> parameters = new LinkedHashMap<String, List<P>>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            int listSize = readSize();
+            List<P> list = listSize < 0 ? null : new ArrayList<P>(listSize);
+            for (int j = 0; j < listSize; j++)
+            {
+                list.add(readParameter(type));
+            }
+            parameters.put(key, list);
+        }
+        return parameters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P extends AbstractParam> P readParameter(P[] type)
+    {
+        AbstractParam parameter;
+        if (type instanceof UriParameter[])
+        {
+            parameter = new UriParameter();
+        }
+        else if (type instanceof Header[])
+        {
+            parameter = new Header();
+        }
+        else if (type instanceof QueryParameter[])
+        {
+            parameter = new QueryParameter();
+        }
+        else
+        {
+            parameter = new FormParameter();
+        }
+        parameter.setDisplayName(readString());
+        parameter.setDescription(readString());
+        parameter.setType(readEnum(PARAM_TYPES));
+        parameter.setRequired(readBoolean());
+        parameter.setRepeat(readBoolean());
+        parameter.setEnumeration(readStringList());
+        parameter.setPattern(readString());
+        parameter.setMinLength(readInteger());
+        parameter.setMaxLength(readInteger());
+        String minimum = readString();
+        parameter.setMinimum(minimum != null ? new BigDecimal(minimum) : null);
+        String maximum = readString();
+        parameter.setMaximum(maximum != null ? new BigDecimal(maximum) : null);
+        parameter.setDefaultValue(readString());
+        parameter.setExample(readString());
+        return (P) parameter;
+    }
+
+    private List<Protocol> readProtocols()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        List<Protocol> protocols = new ArrayList<Protocol>(size);
+        for (int i = 0; i < size; i++)
+        {
+            protocols.add(readEnum(PROTOCOLS));
+        }
+        return protocols;
+    }
+
+    private Map<String, String> readStringMap()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        for (int i = 0; i < size; i++)
+        {
+            String key = readString();
+            map.put(key, readString());
+        }
+        return map;
+    }
+
+    private List<String> readStringList()
+    {
+        int size = readSize();
+        if (size < 0)
+        {
+            return null;
+        }
+        List<String> list = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++)
+        {
+            list.add(readString());
+        }
+        return list;
+    }
+
+    /**
+     * @return the number of elements or -1 for null collections
+     */
+    private int readSize()
+    {
+        return readVarInt() - 1;
+    }
+
+    private <E extends Enum<E>> E readEnum(E[] values)
+    {
+        int ordinal = readVarInt();
+        if (ordinal > values.length)
+        {
+            throw new RamlArtifactException("Invalid " + values.getClass().getComponentType().getSimpleName() + " ordinal " + ordinal);
+        }
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+
+    private Integer readInteger()
+    {
+        return readBoolean() ? buffer.getInt() : null;
+    }
+
+    private boolean readBoolean()
+    {
+        return buffer.get() != 0;
+    }
+
+    private String readString()
+    {
+        int index = readVarInt();
+        if (index >= strings.length)
+        {
+            throw new RamlArtifactException("Invalid string index " + index);
+        }
+        return strings[index];
+    }
+
+    private int readVarInt()
+    {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.validation.Schema;
+
+import org.raml.model.Action;
+import org.raml.model.ActionType;
+import org.raml.model.DocumentationItem;
+import org.raml.model.MimeType;
+import org.raml.model.Protocol;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.raml.model.Response;
+import org.raml.model.SecurityReference;
+import org.raml.model.SecurityScheme;
+import org.raml.model.SecuritySchemeDescriptor;
+import org.raml.model.SecuritySettings;
+import org.raml.model.Template;
+import org.raml.model.parameter.AbstractParam;
+
+/**
+ * Writes a built {@link Raml} model as a binary artifact that {@link RamlArtifactReader}
+ * loads without parsing YAML, fetching includes or expanding templates.
+ * <p/>
+ * The artifact starts with a magic number and the format version, followed by a table
+ * with every distinct string of the model and by the model itself, where strings are
+ * written as indexes into the table. Compiled XML schemas are written as references made
+ * of the schema and the base path used to resolve its imports, so they can be compiled
+ * again when loading; the base paths are taken from the map given to the writer.
+ */
+public class RamlArtifactWriter
+{
+
+    public static final int MAGIC = 0x52414d4c;
+    public static final int FORMAT_VERSION = 1;
+
+    static final int NO_SCHEMA = 0;
+    static final int SCHEMA_PATH = 1;
+    static final int XML_SCHEMA = 2;
+
+    private final Map<Schema, String> schemaBasePaths;
+    private final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+    private DataOutputStream body;
+
+    public RamlArtifactWriter()
+    {
+        this(Collections.<Schema, String>emptyMap());
+    }
+
+    /**
+     * @param schemaBasePaths the base path each compiled XML schema was compiled with,
+     *                        schemas not found are written with an empty base path
+     */
+    public RamlArtifactWriter(Map<Schema, String> schemaBasePaths)
+    {
+        this.schemaBasePaths = new IdentityHashMap<Schema, String>(schemaBasePaths);
+    }
+
+    public void write(Raml raml, OutputStream output) throws IOException
+    {
+        strings.clear();
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        body = new DataOutputStream(bodyBytes);
+        writeRaml(raml);
+        body.flush();
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeVarInt(out, strings.size());
+        for (String string : strings.keySet())
+        {
+            byte[] bytes = string.getBytes("UTF-8");
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        bodyBytes.writeTo(out);
+        out.flush();
+    }
+
+    private void writeRaml(Raml raml) throws IOException
+    {
+        writeString(raml.getTitle());
+        writeString(raml.getVersion());
+        writeString(raml.getBaseUri());
+        writeProtocols(raml.getProtocols());
+        writeParameters(raml.getBaseUriParameters());
+        writeString(raml.getMediaType());
+        writeSize(raml.getSchemas());
+        if (raml.getSchemas() != null)
+        {
+            for (Map<String, String> schemas : raml.getSchemas())
+            {
+                writeStringMap(schemas);
+            }
+        }
+        writeCompiledSchemas(raml);
+        writeTemplates(raml.getResourceTypes());
+        writeTemplates(raml.getTraits());
+        writeSecuritySchemes(raml.getSecuritySchemes());
+        writeSecurityReferences(raml.getSecuredBy());
+        writeResources(raml.getResources());
+        writeSize(raml.getDocumentation());
+        if (raml.getDocumentation() != null)
+        {
+            for (DocumentationItem item : raml.getDocumentation())
+            {
+                writeString(item.getTitle());
+                writeString(item.getContent());
+            }
+        }
+    }
+
+    private void writeCompiledSchemas(Raml raml) throws IOException
+    {
+        Map<String, Object> compiledSchemas = raml.getCompiledSchemas();
+        writeSize(compiledSchemas);
+        if (compiledSchemas == null)
+        {
+            return;
+        }
+        Map<String, String> schemas = raml.getConsolidatedSchemas();
+        for (Map.Entry<String, Object> entry : compiledSchemas.entrySet())
+        {
+            writeString(entry.getKey());
+            writeSchemaReference(entry.getValue(), schemas.get(entry.getKey()));
+        }
+    }
+
+    private void writeSchemaReference(Object compiledSchema, String schema) throws IOException
+    {
+        if (compiledSchema == null)
+        {
+            writeVarInt(body, NO_SCHEMA);
+        }
+        else if (compiledSchema instanceof String)
+        {
+            writeVarInt(body, SCHEMA_PATH);
+            writeString((String) compiledSchema);
+        }
+        else if (compiledSchema instanceof Schema)
+        {
+            String basePath = schemaBasePaths.get(compiledSchema);
+            writeVarInt(body, XML_SCHEMA);
+            writeString(schema);
+            writeString(basePath != null ? basePath : "");
+        }
+        else
+        {
+            throw new RamlArtifactException("Unsupported compiled schema: " + compiledSchema.getClass().getName());
+        }
+    }
+
+    private void writeTemplates(List<Map<String, Template>> templates) throws IOException
+    {
+        writeSize(templates);
+        if (templates == null)
+        {
+            return;
+        }
+        for (Map<String, Template> templateMap : templates)
+        {
+            writeSize(templateMap);
+            for (Map.Entry<String, Template> entry : templateMap.entrySet())
+            {
+                writeString(entry.getKey());
+                writeString(entry.getValue().getDisplayName());
+            }
+        }
+    }
+
+    private void writeSecuritySchemes(List<Map<String, SecurityScheme>> securitySchemes) throws IOException
+    {
+        writeSize(securitySchemes);
+        if (securitySchemes == null)
+        {
+            return;
+        }
+        for (Map<String, SecurityScheme> schemeMap : securitySchemes)
+        {
+            writeSize(schemeMap);
+            for (Map.Entry<String, SecurityScheme> entry : schemeMap.entrySet())
+            {
+                SecurityScheme scheme = entry.getValue();
+                writeString(entry.getKey());
+                writeString(scheme.getDescription());
+                writeString(scheme.getType());
+                SecuritySchemeDescriptor describedBy = scheme.getDescribedBy();
+                body.writeBoolean(describedBy != null);
+                if (describedBy != null)
+                {
+                    writeParameters(describedBy.getHeaders());
+                    writeParameters(describedBy.getQueryParameters());
+                    writeResponses(describedBy.getResponses());
+                }
+                SecuritySettings settings = scheme.getSettings();
+                body.writeBoolean(settings != null);
+                if (settings != null)
+                {
+                    writeString(settings.getRequestTokenUri());
+                    writeString(settings.getAuthorizationUri());
+                    writeString(settings.getTokenCredentialsUri());
+                    writeString(settings.getAccessTokenUri());
+                    writeStringList(settings.getAuthorizationGrants());
+                    writeStringList(settings.getScopes());
+                }
+            }
+        }
+    }
+
+    private void writeSecurityReferences(List<SecurityReference> securityReferences) throws IOException
+    {
+        writeSize(securityReferences);
+        if (securityReferences == null)
+        {
+            return;
+        }
+        for (SecurityReference reference : securityReferences)
+        {
+            writeString(reference.getName());
+            writeSize(reference.getParameters());
+            if (reference.getParameters() != null)
+            {
+                for (Map.Entry<String, List<String>> entry : reference.getParameters().entrySet())
+                {
+                    writeString(entry.getKey());
+                    writeStringList(entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void writeResources(Map<String, Resource> resources) throws IOException
+    {
+        writeSize(resources);
+        if (resources == null)
+        {
+            return;
+        }
+        for (Map.Entry<String, Resource> entry : resources.entrySet())
+        {
+            writeString(entry.getKey());
+            writeResource(entry.getValue());
+        }
+    }
+
+    private void writeResource(Resource resource) throws IOException
+    {
+        writeString(resource.getDisplayName());
+        writeString(resource.getDescription());
+        writeString(resource.getParentUri());
+        writeString(resource.getRelativeUri());
+        writeParameters(resource.getUriParameters());
+        writeString(resource.getType());
+        writeStringList(resource.getIs());
+        writeSecurityReferences(resource.getSecuredBy());
+        writeParameterLists(resource.getBaseUriParameters());
+        writeSize(resource.getActions());
+        if (resource.getActions() != null)
+        {
+            for (Map.Entry<ActionType, Action> entry : resource.getActions().entrySet())
+            {
+                writeEnum(entry.getKey());
+                writeAction(entry.getValue());
+            }
+        }
+        writeResources(resource.getResources());
+    }
+
+    private void writeAction(Action action) throws IOException
+    {
+        writeEnum(action.getType());
+        writeString(action.getDescription());
+        writeString(action.getDisplayName());
+        writeParameters(action.getHeaders());
+        writeParameters(action.getQueryParameters());
+        writeBody(action.getBody());
+        writeResponses(action.getResponses());
+        writeStringList(action.getIs());
+        writeProtocols(action.getProtocols());
+        writeSecurityReferences(action.getSecuredBy());
+        writeParameterLists(action.getBaseUriParameters());
+    }
+
+    private void writeResponses(Map<String, Response> responses) throws IOException
+    {
+        writeSize(responses);
+        if (responses == null)
+        {
+            return;
+        }
+        for (Map.Entry<String, Response> entry : responses.entrySet())
+        {
+            Response response = entry.getValue();
+            writeString(entry.getKey());
+            writeString(response.getDescription());
+            writeBody(response.getBody());
+            writeParameters(response.getHeaders());
+        }
+    }
+
+    private void writeBody(Map<String, MimeType> body) throws IOException
+    {
+        writeSize(body);
+        if (body == null)
+        {
+            return;
+        }
+        for (Map.Entry<String, MimeType> entry : body.entrySet())
+        {
+            MimeType mimeType = entry.getValue();
+            writeString(entry.getKey());
+            writeString(mimeType.getType());
+            writeString(mimeType.getSchema());
+            writeSchemaReference(mimeType.getCompiledSchema(), mimeType.getSchema());
+            writeString(mimeType.getExample());
+            writeParameterLists(mimeType.getFormParameters());
+        }
+    }
+
+    private void writeParameterLists(Map<String, ? extends List<? extends AbstractParam>> parameters) throws IOException
+    {
+        writeSize(parameters);
+        if (parameters == null)
+        {
+            return;
+        }
+        for (Map.Entry<String, ? extends List<? extends AbstractParam>> entry : parameters.entrySet())
+        {
+            writeString(entry.getKey());
+            writeSize(entry.getValue());
+            if (entry.getValue() != null)
+            {
+                for (AbstractParam parameter : entry.getValue())
+                {
+                    writeParameter(parameter);
+                }
+            }
+        }
+    }
+
+    private void writeParameters(Map<String, ? extends AbstractParam> parameters) throws IOException
+    {
+        writeSize(parameters);
+        if (parameters == null)
+        {
+            return;
+        }
+        for (Map.Entry<String, ? extends AbstractParam> entry : parameters.entrySet())
+        {
+            writeString(entry.getKey());
+            writeParameter(entry.getValue());
+        }
+    }
+
+    private void writeParameter(AbstractParam parameter) throws IOException
+    {
+        writeString(parameter.getDisplayName());
+        writeString(parameter.getDescription());
+        writeEnum(parameter.getType());
+        body.writeBoolean(parameter.isRequired());
+        body.writeBoolean(parameter.isRepeat());
+        writeStringList(parameter.getEnumeration());
+        writeString(parameter.getPattern());
+        writeInteger(parameter.getMinLength());
+        writeInteger(parameter.getMaxLength());
+        writeString(parameter.getMinimum() != null ? parameter.getMinimum().toString() : null);
+        writeString(parameter.getMaximum() != null ? parameter.getMaximum().toString() : null);
+        writeString(parameter.getDefaultValue());
+        writeString(parameter.getExample());
+    }
+
+    private void writeProtocols(List<Protocol> protocols) throws IOException
+    {
+        writeSize(protocols);
+        if (protocols != null)
+        {
+            for (Protocol protocol : protocols)
+            {
+                writeEnum(protocol);
+            }
+        }
+    }
+
+    private void writeStringMap(Map<String, String> map) throws IOException
+    {
+        writeSize(map);
+        if (map != null)
+        {
+            for (Map.Entry<String, String> entry : map.entrySet())
+            {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+        }
+    }
+
+    private void writeStringList(List<String> list) throws IOException
+    {
+        writeSize(list);
+        if (list != null)
+        {
+            for (String string : list)
+            {
+                writeString(string);
+            }
+        }
+    }
+
+    private void writeSize(Map<?, ?> map) throws IOException
+    {
+        writeVarInt(body, map == null ? 0 : map.size() + 1);
+    }
+
+    private void writeSize(List<?> list) throws IOException
+    {
+        writeVarInt(body, list == null ? 0 : list.size() + 1);
+    }
+
+    private void writeEnum(Enum<?> value) throws IOException
+    {
+        writeVarInt(body, value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private void writeInteger(Integer value) throws IOException
+    {
+        body.writeBoolean(value != null);
+        if (value != null)
+        {
+            body.writeInt(value);
+        }
+    }
+
+    private void writeString(String string) throws IOException
+    {
+        if (string == null)
+        {
+            writeVarInt(body, 0);
+            return;
+        }
+        Integer index = strings.get(string);
+        if (index == null)
+        {
+            index = strings.size() + 1;
+            strings.put(string, index);
+        }
+        writeVarInt(body, index);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException
+    {
+        while ((value & ~0x7f) != 0)
+        {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.xml.validation.Schema;
+
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.tagresolver.TagResolver;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.SchemaCache;
+
+/**
+ * Document builder that records what an artifact needs besides the model: the
+ * resources fetched while building, with their content hashes, and the base path
+ * each XML schema was compiled against. Records are kept until {@link #clearRecords()}.
+ * <p/>
+ * Schemas are always compiled from scratch, without looking them up in the shared
+ * schema cache, so the resources they import are fetched and recorded too.
+ */
+class RecordingRamlDocumentBuilder extends RamlDocumentBuilder
+{
+
+    private final SchemaBasePaths schemaBasePaths = new SchemaBasePaths();
+
+    RecordingRamlDocumentBuilder(ResourceLoader resourceLoader, TagResolver... tagResolvers)
+    {
+        super(new RecordingResourceLoader(resourceLoader), tagResolvers);
+    }
+
+    @Override
+    protected SchemaCache getSchemaCache()
+    {
+        return schemaBasePaths;
+    }
+
+    Map<String, String> getFetchedResources()
+    {
+        return ((RecordingResourceLoader) getResourceLoader()).getFetchedResources();
+    }
+
+    Map<Schema, String> getSchemaBasePaths()
+    {
+        synchronized (schemaBasePaths.basePaths)
+        {
+            return new IdentityHashMap<Schema, String>(schemaBasePaths.basePaths);
+        }
+    }
+
+    /**
+     * Forgets the resources and schemas recorded by the previous builds.
+     */
+    void clearRecords()
+    {
+        ((RecordingResourceLoader) getResourceLoader()).clear();
+        synchronized (schemaBasePaths.basePaths)
+        {
+            schemaBasePaths.basePaths.clear();
+        }
+    }
+
+    /**
+     * Records the base path of the compiled schemas and stores them in the default cache.
+     */
+    private static class SchemaBasePaths extends SchemaCache
+    {
+
+        private final Map<Schema, String> basePaths = new IdentityHashMap<Schema, String>();
+
+        SchemaBasePaths()
+        {
+            super(1);
+        }
+
+        @Override
+        public Schema get(String schema, String basePath, ResourceLoader resourceLoader)
+        {
+            return null;
+        }
+
+        @Override
+        public void put(String schema, String basePath, Schema compiledSchema, Map<String, String> resources)
+        {
+            getDefault().put(schema, basePath, compiledSchema, resources);
+            synchronized (basePaths)
+            {
+                basePaths.put(compiledSchema, basePath);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.raml.parser.ResolveResourceException;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.visitor.SchemaCache;
+
+/**
+ * Resource loader that records the content hash of every resource it fetches,
+ * or <tt>null</tt> for the resources that are not found. Resources can be fetched
+ * concurrently, as the top level resources of a build may be built in parallel.
+ */
+class RecordingResourceLoader implements ResourceLoader
+{
+
+    private final ResourceLoader resourceLoader;
+    private final Map<String, String> fetchedResources = new LinkedHashMap<String, String>();
+
+    RecordingResourceLoader(ResourceLoader resourceLoader)
+    {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public InputStream fetchResource(String resourceName)
+    {
+        byte[] content = fetchContent(resourceLoader, resourceName);
+        synchronized (fetchedResources)
+        {
+            if (!fetchedResources.containsKey(resourceName))
+            {
+                fetchedResources.put(resourceName, content == null ? null : hash(content));
+            }
+        }
+        return content == null ? null : new ByteArrayInputStream(content);
+    }
+
+    /**
+     * @return the fetched resource names in fetch order with their content hashes
+     */
+    Map<String, String> getFetchedResources()
+    {
+        synchronized (fetchedResources)
+        {
+            return new LinkedHashMap<String, String>(fetchedResources);
+        }
+    }
+
+    /**
+     * Forgets the resources fetched so far.
+     */
+    void clear()
+    {
+        synchronized (fetchedResources)
+        {
+            fetchedResources.clear();
+        }
+    }
+
+    static byte[] fetchContent(ResourceLoader resourceLoader, String resourceName)
+    {
+        InputStream content = resourceLoader.fetchResource(resourceName);
+        if (content == null)
+        {
+            return null;
+        }
+        try
+        {
+            return IOUtils.toByteArray(content);
+        }
+        catch (IOException e)
+        {
+            throw new ResolveResourceException(e);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(content);
+        }
+    }
+
+    static String hash(byte[] content)
+    {
+        return SchemaCache.hash(content);
+    }
+}
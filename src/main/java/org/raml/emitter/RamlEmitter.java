@@ -15,11 +15,9 @@
  */
 package org.raml.emitter;
 
-import static org.apache.commons.lang.StringUtils.isNotEmpty;
 import static org.raml.parser.utils.ReflectionUtils.isEnum;
 import static org.raml.parser.utils.ReflectionUtils.isPojo;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
@@ -33,10 +31,8 @@ import org.raml.model.Protocol;
 import org.raml.model.Raml;
 import org.raml.model.SecurityReference;
 import org.raml.model.parameter.AbstractParam;
-import org.raml.parser.annotation.Mapping;
-import org.raml.parser.annotation.Scalar;
-import org.raml.parser.annotation.Sequence;
-import org.raml.parser.utils.ReflectionUtils;
+import org.raml.parser.utils.FieldMetadata;
+import org.raml.parser.utils.PojoMetadata;
 
 public class RamlEmitter
 {
@@ -63,35 +59,28 @@ public class RamlEmitter
 
     private void dumpPojo(StringBuilder dump, int depth, Object pojo)
     {
-        final List<Field> declaredFields = ReflectionUtils.getInheritedFields(pojo.getClass());
-        pojo.getClass();
-        for (Field declaredField : declaredFields)
+        for (FieldMetadata field : PojoMetadata.of(pojo.getClass()).getFields())
         {
-            declaredField.setAccessible(true);
-            Scalar scalar = declaredField.getAnnotation(Scalar.class);
-            Mapping mapping = declaredField.getAnnotation(Mapping.class);
-            Sequence sequence = declaredField.getAnnotation(Sequence.class);
-
-            if (scalar != null)
+            if (field.getScalar() != null)
             {
-                dumpScalarField(dump, depth, declaredField, pojo);
+                dumpScalarField(dump, depth, field, pojo);
             }
-            else if (mapping != null)
+            else if (field.getMapping() != null)
             {
-                dumpMappingField(dump, depth, declaredField, mapping.implicit(), pojo);
+                dumpMappingField(dump, depth, field, field.getMapping().implicit(), pojo);
             }
-            else if (sequence != null)
+            else if (field.getSequence() != null)
             {
-                dumpSequenceField(dump, depth, declaredField, pojo);
+                dumpSequenceField(dump, depth, field, pojo);
             }
         }
     }
 
-    private Object getFieldValue(Field field, Object pojo)
+    private Object getFieldValue(FieldMetadata field, Object pojo)
     {
         try
         {
-            return field.get(pojo);
+            return field.getField().get(pojo);
         }
         catch (IllegalAccessException e)
         {
@@ -99,7 +88,7 @@ public class RamlEmitter
         }
     }
 
-    private void dumpSequenceField(StringBuilder dump, int depth, Field field, Object pojo)
+    private void dumpSequenceField(StringBuilder dump, int depth, FieldMetadata field, Object pojo)
     {
         if (!List.class.isAssignableFrom(field.getType()))
         {
@@ -112,12 +101,10 @@ public class RamlEmitter
             return;
         }
 
-        Type type = field.getGenericType();
-        if (type instanceof ParameterizedType)
+        Type itemType = field.getValueType();
+        if (itemType != null)
         {
-            ParameterizedType pType = (ParameterizedType) type;
-            Type itemType = pType.getActualTypeArguments()[0];
-            dump.append(indent(depth)).append(alias(field)).append(YAML_MAP_SEP);
+            dump.append(indent(depth)).append(field.getSerializedName()).append(YAML_MAP_SEP);
             dumpSequenceItems(dump, depth, seq, itemType);
         }
     }
@@ -223,7 +210,7 @@ public class RamlEmitter
         dump.append(YAML_SEQ_END).append("\n");
     }
 
-    private void dumpMappingField(StringBuilder dump, int depth, Field field, boolean implicit, Object pojo)
+    private void dumpMappingField(StringBuilder dump, int depth, FieldMetadata field, boolean implicit, Object pojo)
     {
         if (!Map.class.isAssignableFrom(field.getType()))
         {
@@ -239,13 +226,11 @@ public class RamlEmitter
 
         if (!implicit)
         {
-            dump.append(indent(depth)).append(alias(field)).append(YAML_MAP_SEP).append("\n");
+            dump.append(indent(depth)).append(field.getSerializedName()).append(YAML_MAP_SEP).append("\n");
             depth++;
         }
 
-        ParameterizedType pType = (ParameterizedType) field.getGenericType();
-        Type valueType = pType.getActualTypeArguments()[1];
-        dumpMap(dump, depth, valueType, value);
+        dumpMap(dump, depth, field.getValueType(), value);
     }
 
     private void dumpMap(StringBuilder dump, int depth, Type valueType, Map value)
@@ -283,16 +268,16 @@ public class RamlEmitter
 
     }
 
-    private void dumpScalarField(StringBuilder dump, int depth, Field field, Object pojo)
+    private void dumpScalarField(StringBuilder dump, int depth, FieldMetadata field, Object pojo)
     {
         try
         {
-            Object value = field.get(pojo);
+            Object value = field.getField().get(pojo);
             if (value == null)
             {
                 return;
             }
-            dump.append(indent(depth)).append(alias(field)).append(YAML_MAP_SEP);
+            dump.append(indent(depth)).append(field.getSerializedName()).append(YAML_MAP_SEP);
             if (isPojo(value.getClass()))
             {
                 dump.append("\n");
@@ -309,27 +294,6 @@ public class RamlEmitter
         }
     }
 
-    private String alias(Field field)
-    {
-        Scalar scalar = field.getAnnotation(Scalar.class);
-        Mapping mapping = field.getAnnotation(Mapping.class);
-        Sequence sequence = field.getAnnotation(Sequence.class);
-
-        if (scalar != null && isNotEmpty(scalar.alias()))
-        {
-            return scalar.alias();
-        }
-        else if (mapping != null && isNotEmpty(mapping.alias()))
-        {
-            return mapping.alias();
-        }
-        else if (sequence != null && isNotEmpty(sequence.alias()))
-        {
-            return sequence.alias();
-        }
-        return field.getName();
-    }
-
     private String sanitizeScalarValue(int depth, Object value)
     {
         Class<?> type = value.getClass();
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.annotation.processing;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import org.raml.parser.annotation.Key;
+import org.raml.parser.annotation.Mapping;
+import org.raml.parser.annotation.Parent;
+import org.raml.parser.annotation.Scalar;
+import org.raml.parser.annotation.Sequence;
+import org.raml.parser.annotation.Value;
+import org.raml.parser.utils.PojoAccessor;
+
+/**
+ * Generates a {@link PojoAccessor} for every public top level class with fields, declared or
+ * inherited, annotated with <tt>@Scalar</tt>, <tt>@Mapping</tt>, <tt>@Sequence</tt>,
+ * <tt>@Key</tt> or <tt>@Parent</tt>.
+ * <p/>
+ * Accessors call the public bean getters and setters of those fields and the constructor the
+ * parser picks for the class. Fields without a matching getter or setter are left to reflection.
+ * The processor is not registered as a service, it has to be enabled explicitly with
+ * <tt>-processor org.raml.parser.annotation.processing.PojoAccessorProcessor</tt>.
+ */
+@SupportedAnnotationTypes("*")
+public class PojoAccessorProcessor extends AbstractProcessor
+{
+
+    private static final String[] PROPERTY_ANNOTATIONS = {
+            Scalar.class.getName(), Mapping.class.getName(), Sequence.class.getName(),
+            Key.class.getName(), Parent.class.getName()
+    };
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        for (Element element : roundEnv.getRootElements())
+        {
+            if (element.getKind() == ElementKind.CLASS)
+            {
+                TypeElement type = (TypeElement) element;
+                if (type.getNestingKind() == NestingKind.TOP_LEVEL && type.getModifiers().contains(Modifier.PUBLIC))
+                {
+                    List<Property> properties = getProperties(type);
+                    if (!properties.isEmpty())
+                    {
+                        writeAccessor(type, properties);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<Property> getProperties(TypeElement type)
+    {
+        Map<String, Property> properties = new LinkedHashMap<String, Property>();
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        for (TypeElement current = type; current != null; current = getSuperclass(current))
+        {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements()))
+            {
+                String name = field.getSimpleName().toString();
+                if (isPropertyField(field) && !properties.containsKey(name))
+                {
+                    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                    if (Introspector.decapitalize(capitalized).equals(name))
+                    {
+                        TypeMirror fieldType = field.asType();
+                        ExecutableElement getter = findMethod(methods, "get" + capitalized, fieldType, false);
+                        if (fieldType.getKind() == TypeKind.BOOLEAN)
+                        {
+                            ExecutableElement isGetter = findMethod(methods, "is" + capitalized, fieldType, false);
+                            getter = isGetter != null ? isGetter : getter;
+                        }
+                        ExecutableElement setter = findMethod(methods, "set" + capitalized, fieldType, true);
+                        if (getter != null || setter != null)
+                        {
+                            properties.put(name, new Property(name, fieldType, getter, setter));
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<Property>(properties.values());
+    }
+
+    private TypeElement getSuperclass(TypeElement type)
+    {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED)
+        {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private boolean isPropertyField(VariableElement field)
+    {
+        if (field.getModifiers().contains(Modifier.STATIC))
+        {
+            return false;
+        }
+        for (AnnotationMirror annotation : field.getAnnotationMirrors())
+        {
+            String annotationName = getName(annotation);
+            for (String propertyAnnotation : PROPERTY_ANNOTATIONS)
+            {
+                if (propertyAnnotation.equals(annotationName))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String getName(AnnotationMirror annotation)
+    {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private ExecutableElement findMethod(List<ExecutableElement> methods, String name, TypeMirror type, boolean setter)
+    {
+        for (ExecutableElement method : methods)
+        {
+            if (method.getSimpleName().contentEquals(name)
+                && method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && method.getParameters().size() == (setter ? 1 : 0))
+            {
+                TypeMirror methodType = setter ? method.getParameters().get(0).asType() : method.getReturnType();
+                if (isSameErasure(methodType, type))
+                {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isSameErasure(TypeMirror type, TypeMirror otherType)
+    {
+        return processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(type),
+                                                       processingEnv.getTypeUtils().erasure(otherType));
+    }
+
+    /**
+     * @return the first constructor whose parameters are all annotated with
+     *         <tt>@Key</tt> or <tt>@Value</tt>, or <tt>null</tt>
+     */
+    private ExecutableElement getConstructor(TypeElement type)
+    {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+        {
+            boolean annotated = true;
+            for (VariableElement parameter : constructor.getParameters())
+            {
+                List<? extends AnnotationMirror> parameterAnnotations = parameter.getAnnotationMirrors();
+                if (parameterAnnotations.isEmpty() || !isConstructorAnnotation(getName(parameterAnnotations.get(0))))
+                {
+                    annotated = false;
+                    break;
+                }
+            }
+            if (annotated)
+            {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    private boolean isConstructorAnnotation(String annotationName)
+    {
+        return Key.class.getName().equals(annotationName) || Value.class.getName().equals(annotationName);
+    }
+
+    private void writeAccessor(TypeElement type, List<Property> properties)
+    {
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        String pojoName = type.getQualifiedName().toString();
+        String accessorName = type.getSimpleName() + PojoAccessor.SUFFIX;
+        try
+        {
+            String sourceName = packageName.isEmpty() ? accessorName : packageName + "." + accessorName;
+            PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile(sourceName, type).openWriter());
+            try
+            {
+                new AccessorWriter(writer, packageName, pojoName, accessorName, properties).write(getNewInstance(type));
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + accessorName + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * @return the expression creating an instance of the type, or <tt>null</tt> if
+     *         the accessor cannot create it
+     */
+    private String getNewInstance(TypeElement type)
+    {
+        if (type.getModifiers().contains(Modifier.ABSTRACT))
+        {
+            return null;
+        }
+        ExecutableElement constructor = getConstructor(type);
+        if (constructor == null || !constructor.getModifiers().contains(Modifier.PUBLIC))
+        {
+            return null;
+        }
+        StringBuilder expression = new StringBuilder("new ").append(type.getQualifiedName()).append("(");
+        for (int i = 0; i < constructor.getParameters().size(); i++)
+        {
+            VariableElement parameter = constructor.getParameters().get(i);
+            boolean key = Key.class.getName().equals(getName(parameter.getAnnotationMirrors().get(0)));
+            expression.append(i > 0 ? ", " : "").append(cast(parameter.asType(), key ? "key" : "value"));
+        }
+        return expression.append(")").toString();
+    }
+
+    private String cast(TypeMirror type, String expression)
+    {
+        String typeName;
+        if (type.getKind().isPrimitive())
+        {
+            typeName = processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        else
+        {
+            typeName = processingEnv.getTypeUtils().erasure(type).toString();
+        }
+        return "(" + typeName + ") " + expression;
+    }
+
+    private class AccessorWriter
+    {
+
+        private final PrintWriter writer;
+        private final String packageName;
+        private final String pojoName;
+        private final String accessorName;
+        private final List<Property> properties;
+
+        AccessorWriter(PrintWriter writer, String packageName, String pojoName, String accessorName, List<Property> properties)
+        {
+            this.writer = writer;
+            this.packageName = packageName;
+            this.pojoName = pojoName;
+            this.accessorName = accessorName;
+            this.properties = properties;
+        }
+
+        void write(String newInstance)
+        {
+            writer.println("// Generated by " + PojoAccessorProcessor.class.getName() + ", do not edit");
+            if (!packageName.isEmpty())
+            {
+                writer.println("package " + packageName + ";");
+                writer.println();
+            }
+            writer.println("public final class " + accessorName + " implements " + PojoAccessor.class.getName());
+            writer.println("{");
+            writer.println();
+            writeFlags("WRITABLE", true);
+            writeFlags("READABLE", false);
+            writeIndexOf();
+            writer.println();
+            writer.println("    public boolean isWritable(String property)");
+            writer.println("    {");
+            writer.println("        int index = indexOf(property);");
+            writer.println("        return index >= 0 && WRITABLE[index];");
+            writer.println("    }");
+            writer.println();
+            writer.println("    public boolean isReadable(String property)");
+            writer.println("    {");
+            writer.println("        int index = indexOf(property);");
+            writer.println("        return index >= 0 && READABLE[index];");
+            writer.println("    }");
+            writer.println();
+            writeSetProperty();
+            writer.println();
+            writeGetProperty();
+            writer.println();
+            writer.println("    public Object newInstance(String key, Object value)");
+            writer.println("    {");
+            writer.println("        return " + (newInstance != null ? newInstance : "null") + ";");
+            writer.println("    }");
+            writer.println("}");
+        }
+
+        private void writeFlags(String name, boolean setter)
+        {
+            StringBuilder flags = new StringBuilder();
+            for (Property property : properties)
+            {
+                flags.append(flags.length() > 0 ? ", " : "").append((setter ? property.setter : property.getter) != null);
+            }
+            writer.println("    private static final boolean[] " + name + " = {" + flags + "};");
+            writer.println();
+        }
+
+        private void writeIndexOf()
+        {
+            Map<Integer, List<Integer>> indexesByHash = new LinkedHashMap<Integer, List<Integer>>();
+            for (int i = 0; i < properties.size(); i++)
+            {
+                Integer hash = properties.get(i).name.hashCode();
+                if (!indexesByHash.containsKey(hash))
+                {
+                    indexesByHash.put(hash, new ArrayList<Integer>());
+                }
+                indexesByHash.get(hash).add(i);
+            }
+            writer.println("    private static int indexOf(String property)");
+            writer.println("    {");
+            writer.println("        if (property == null)");
+            writer.println("        {");
+            writer.println("            return -1;");
+            writer.println("        }");
+            writer.println("        switch (property.hashCode())");
+            writer.println("        {");
+            for (Map.Entry<Integer, List<Integer>> entry : indexesByHash.entrySet())
+            {
+                writer.println("            case " + entry.getKey() + ":");
+                for (Integer index : entry.getValue())
+                {
+                    writer.println("                if (\"" + properties.get(index).name + "\".equals(property))");
+                    writer.println("                {");
+                    writer.println("                    return " + index + ";");
+                    writer.println("                }");
+                }
+                writer.println("                break;");
+            }
+            writer.println("            default:");
+            writer.println("                break;");
+            writer.println("        }");
+            writer.println("        return -1;");
+            writer.println("    }");
+        }
+
+        private void writeSetProperty()
+        {
+            writer.println("    @SuppressWarnings(\"unchecked\")");
+            writer.println("    public void setProperty(Object pojo, String property, Object value)");
+            writer.println("    {");
+            writer.println("        switch (indexOf(property))");
+            writer.println("        {");
+            for (int i = 0; i < properties.size(); i++)
+            {
+                Property property = properties.get(i);
+                if (property.setter != null)
+                {
+                    writer.println("            case " + i + ":");
+                    writer.println("                ((" + pojoName + ") pojo)." + property.setter.getSimpleName() + "(" + cast(property.type, "value") + ");");
+                    writer.println("                break;");
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"Property '\" + property + \"' has no setter method in class '" + pojoName + "'\");");
+            writer.println("        }");
+            writer.println("    }");
+        }
+
+        private void writeGetProperty()
+        {
+            writer.println("    public Object getProperty(Object pojo, String property)");
+            writer.println("    {");
+            writer.println("        switch (indexOf(property))");
+            writer.println("        {");
+            for (int i = 0; i < properties.size(); i++)
+            {
+                Property property = properties.get(i);
+                if (property.getter != null)
+                {
+                    writer.println("            case " + i + ":");
+                    writer.println("                return ((" + pojoName + ") pojo)." + property.getter.getSimpleName() + "();");
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"Property '\" + property + \"' has no getter method in class '" + pojoName + "'\");");
+            writer.println("        }");
+            writer.println("    }");
+        }
+    }
+
+    private static class Property
+    {
+
+        private final String name;
+        private final TypeMirror type;
+        private final ExecutableElement getter;
+        private final ExecutableElement setter;
+
+        Property(String name, TypeMirror type, ExecutableElement getter, ExecutableElement setter)
+        {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import org.raml.parser.visitor.SchemaCompiler;
+
+/**
+ * State of the build in progress, read by the builders instead of being kept in them, as
+ * the builders of a document class are shared by every build of that class.
+ */
+public interface BuildScope
+{
+
+    /**
+     * @return the key of the tuple being built, or <tt>null</tt> for the document and
+     *         the items of a sequence
+     */
+    String getKey();
+
+    /**
+     * @return the key of the tuple enclosing the one being built, or <tt>null</tt>
+     */
+    String getParentKey();
+
+    /**
+     * @return the compiler of the XML schemas of the build, or <tt>null</tt>
+     */
+    SchemaCompiler getSchemaCompiler();
+}
@@ -15,21 +15,15 @@
  */
 package org.raml.parser.builder;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.beanutils.PropertyUtils;
-import org.raml.parser.annotation.Key;
-import org.raml.parser.annotation.Mapping;
-import org.raml.parser.annotation.Parent;
-import org.raml.parser.annotation.Scalar;
-import org.raml.parser.annotation.Sequence;
 import org.raml.parser.resolver.DefaultTupleHandler;
+import org.raml.parser.resolver.TupleDispatcher;
 import org.raml.parser.resolver.TupleHandler;
+import org.raml.parser.utils.FieldMetadata;
+import org.raml.parser.utils.PojoMetadata;
 import org.raml.parser.utils.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +33,11 @@ import org.yaml.snakeyaml.nodes.NodeTuple;
 public class DefaultTupleBuilder<K extends Node, V extends Node> implements TupleBuilder<K, V>
 {
 
-    private Map<String, TupleBuilder<?, ?>> builders;
+    private volatile Map<String, TupleBuilder<?, ?>> builders;
+    private volatile boolean childrenAdded;
     private NodeBuilder<?> parent;
     private TupleHandler handler;
+    private volatile TupleDispatcher<TupleBuilder<?, ?>> dispatcher;
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -58,21 +54,66 @@ public class DefaultTupleBuilder<K extends Node, V extends Node> implements Tupl
         {
             return new DefaultTupleBuilder(new DefaultTupleHandler());
         }
-        for (TupleBuilder tupleBuilder : getBuilders().values())
+        TupleBuilder<?, ?> tupleBuilder = getDispatcher().dispatch(tuple);
+        if (tupleBuilder == null)
         {
-            if (tupleBuilder.getHandler().handles(tuple))
+            throw new RuntimeException("Builder not found for " + tuple);
+        }
+        return tupleBuilder;
+    }
+
+    /**
+     * @return the dispatcher of the current builders, created again after they change
+     */
+    private TupleDispatcher<TupleBuilder<?, ?>> getDispatcher()
+    {
+        TupleDispatcher<TupleBuilder<?, ?>> current = dispatcher;
+        if (current == null)
+        {
+            synchronized (this)
             {
-                return tupleBuilder;
+                current = dispatcher;
+                if (current == null)
+                {
+                    current = new TupleDispatcher<TupleBuilder<?, ?>>();
+                    for (TupleBuilder<?, ?> tupleBuilder : getBuilders().values())
+                    {
+                        current.add(tupleBuilder, tupleBuilder.getHandler());
+                    }
+                    dispatcher = current;
+                }
             }
         }
-        throw new RuntimeException("Builder not found for " + tuple);
+        return current;
     }
 
     protected Map<String, TupleBuilder<?, ?>> getBuilders()
     {
+        if (!childrenAdded)
+        {
+            synchronized (this)
+            {
+                if (!childrenAdded)
+                {
+                    if (builders.isEmpty())
+                    {
+                        addChildrenTupleBuilders();
+                    }
+                    childrenAdded = true;
+                }
+            }
+        }
         return builders;
     }
 
+    /**
+     * Adds the builders of the nested tuples the first time they are needed, if none were
+     * set. Called once, as the builders are shared by every build of the document class.
+     */
+    protected void addChildrenTupleBuilders()
+    {
+    }
+
     public Collection<TupleBuilder<?, ?>> getChildrenTupleBuilders()
     {
         return getBuilders().values();
@@ -111,7 +152,11 @@ public class DefaultTupleBuilder<K extends Node, V extends Node> implements Tupl
     @Override
     public void setChildrenTupleBuilders(Map<String, TupleBuilder<?, ?>> nestedBuilders)
     {
-        builders = nestedBuilders;
+        synchronized (this)
+        {
+            builders = nestedBuilders;
+            dispatcher = null;
+        }
     }
 
 
@@ -129,64 +174,31 @@ public class DefaultTupleBuilder<K extends Node, V extends Node> implements Tupl
     //TODO rethink location
     protected String unalias(Object pojo, String fieldName)
     {
-        List<Field> declaredFields = ReflectionUtils.getInheritedFields(pojo.getClass());
-        for (Field declaredField : declaredFields)
-        {
-            Scalar scalar = declaredField.getAnnotation(Scalar.class);
-            Mapping mapping = declaredField.getAnnotation(Mapping.class);
-            Sequence sequence = declaredField.getAnnotation(Sequence.class);
-            if ((scalar != null && scalar.alias() != null && scalar.alias().equals(fieldName)) ||
-                (mapping != null && mapping.alias() != null && mapping.alias().equals(fieldName)) ||
-                (sequence != null && sequence.alias() != null && sequence.alias().equals(fieldName)))
-            {
-                return declaredField.getName();
-            }
-        }
-        return fieldName;
+        return PojoMetadata.of(pojo.getClass()).unalias(fieldName);
     }
 
     protected void processPojoAnnotations(Object pojo, Object keyFieldName, Object parent)
     {
-        List<Field> declaredFields = ReflectionUtils.getInheritedFields(pojo.getClass());
-        for (Field declaredField : declaredFields)
+        PojoMetadata metadata = PojoMetadata.of(pojo.getClass());
+        for (FieldMetadata keyField : metadata.getKeyFields())
+        {
+            ReflectionUtils.setProperty(pojo, keyField.getName(), keyFieldName);
+        }
+        for (FieldMetadata parentField : metadata.getParentFields())
         {
-            Key keyAnnotation = declaredField.getAnnotation(Key.class);
-            Parent parentAnnotation = declaredField.getAnnotation(Parent.class);
-            if (keyAnnotation != null)
+            Object value = parent;
+            if (!parentField.getParent().property().isEmpty())
             {
-                ReflectionUtils.setProperty(pojo, declaredField.getName(), keyFieldName);
+                value = ReflectionUtils.getProperty(parent, parentField.getParent().property());
             }
-            if (parentAnnotation != null)
+            if (parentField.getType().isAssignableFrom(value.getClass()))
             {
-                Object value = parent;
-                if (!parentAnnotation.property().isEmpty())
-                {
-                    try
-                    {
-                        value = PropertyUtils.getProperty(parent, parentAnnotation.property());
-                    }
-                    catch (IllegalAccessException e)
-                    {
-                        throw new RuntimeException(e);
-                    }
-                    catch (InvocationTargetException e)
-                    {
-                        throw new RuntimeException(e);
-                    }
-                    catch (NoSuchMethodException e)
-                    {
-                        throw new RuntimeException(e);
-                    }
-                }
-                if (declaredField.getType().isAssignableFrom(value.getClass()))
-                {
-                    ReflectionUtils.setProperty(pojo, declaredField.getName(), value);
-                }
-                else
-                {
-                    logger.debug(String.format("parent reference field '%s' could not be set with %s onto %s",
-                                              declaredField.getName(), value.getClass(), pojo.getClass()));
-                }
+                ReflectionUtils.setProperty(pojo, parentField.getName(), value);
+            }
+            else
+            {
+                logger.debug(String.format("parent reference field '%s' could not be set with %s onto %s",
+                                          parentField.getName(), value.getClass(), pojo.getClass()));
             }
         }
     }
@@ -22,25 +22,16 @@ import org.yaml.snakeyaml.nodes.ScalarNode;
 public class GlobalSchemaScalarTupleBuilder extends ScalarTupleBuilder
 {
 
-    private String key;
-
     public GlobalSchemaScalarTupleBuilder()
     {
         super(null, String.class);
     }
 
     @Override
-    public Object buildValue(Object parent, ScalarNode node)
+    protected Object buildValue(Object parent, ScalarNode node, String key)
     {
         String value = SchemaCompiler.encodeIncludePath(node);
         ReflectionUtils.setProperty(parent, key, value);
         return parent;
     }
-
-    @Override
-    public void buildKey(Object parent, ScalarNode tuple)
-    {
-        super.buildKey(parent, tuple);
-        this.key = tuple.getValue();
-    }
 }
@@ -26,7 +26,7 @@ public class GlobalSchemaSequenceTupleBuilder extends SequenceTupleBuilder
     }
 
     @Override
-    public NodeBuilder getItemBuilder()
+    protected NodeBuilder createItemBuilder()
     {
         return new GlobalSchemaMapTupleBuilder();
     }
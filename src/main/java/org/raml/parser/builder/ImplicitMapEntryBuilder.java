@@ -15,54 +15,59 @@
  */
 package org.raml.parser.builder;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
 
-import org.apache.commons.beanutils.PropertyUtilsBean;
 import org.raml.parser.resolver.DefaultScalarTupleHandler;
 import org.raml.parser.utils.ConvertUtils;
+import org.raml.parser.utils.ReflectionUtils;
+import org.raml.parser.utils.ScalarConverter;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
-public class ImplicitMapEntryBuilder extends DefaultTupleBuilder<ScalarNode, Node>
+public class ImplicitMapEntryBuilder extends DefaultTupleBuilder<ScalarNode, Node> implements ScopedNodeBuilder<Node>
 {
 
-    private String fieldName;
-
-    private String keyValue;
-    private Class<?> keyClass;
-    private Class valueClass;
+    private final String fieldName;
+    private final ScalarConverter<?> keyConverter;
+    private final Class valueClass;
 
 
     public ImplicitMapEntryBuilder(String fieldName, Class<?> keyClass, Class<?> valueClass)
     {
         super(new DefaultScalarTupleHandler(fieldName));
         this.fieldName = fieldName;
-        this.keyClass = keyClass;
+        this.keyConverter = ConvertUtils.getConverter(keyClass);
         this.valueClass = valueClass;
     }
 
 
     @Override
-    protected Map<String, TupleBuilder<?, ?>> getBuilders()
+    protected void addChildrenTupleBuilders()
     {
-        if (super.getBuilders().isEmpty())
-        {
-            addBuildersFor(valueClass);
-        }
-        return super.getBuilders();
+        addBuildersFor(valueClass);
     }
 
     @Override
     public Object buildValue(Object parent, Node node)
+    {
+        return buildValue(parent, node, (String) null);
+    }
+
+    @Override
+    public Object buildValue(Object parent, Node node, BuildScope scope)
+    {
+        return buildValue(parent, node, scope.getKey());
+    }
+
+    private Object buildValue(Object parent, Node node, String keyValue)
     {
 
         Map actualParent;
         try
         {
-            actualParent = (Map) new PropertyUtilsBean().getProperty(parent, fieldName);
+            actualParent = (Map) ReflectionUtils.getProperty(parent, fieldName);
             Object newValue = valueClass.newInstance();
-            Object key = ConvertUtils.convertTo(keyValue, keyClass);
+            Object key = keyConverter.convert(keyValue);
             actualParent.put(key, newValue);
             processPojoAnnotations(newValue, key, parent);
             return newValue;
@@ -71,14 +76,6 @@ public class ImplicitMapEntryBuilder extends DefaultTupleBuilder<ScalarNode, Nod
         {
             throw new RuntimeException(e);
         }
-        catch (InvocationTargetException e)
-        {
-            throw new RuntimeException(e);
-        }
-        catch (NoSuchMethodException e)
-        {
-            throw new RuntimeException(e);
-        }
         catch (InstantiationException e)
         {
             throw new RuntimeException(e);
@@ -86,15 +83,14 @@ public class ImplicitMapEntryBuilder extends DefaultTupleBuilder<ScalarNode, Nod
 
     }
 
-    @Override
-    public void buildKey(Object parent, ScalarNode tuple)
+    public Class<?> getValueClass()
     {
-        keyValue = tuple.getValue();
+        return valueClass;
     }
 
     @Override
     public String toString()
     {
-        return keyValue;
+        return fieldName;
     }
 }
@@ -65,13 +65,9 @@ public class MapTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
     }
 
     @Override
-    protected Map<String, TupleBuilder<?, ?>> getBuilders()
+    protected void addChildrenTupleBuilders()
     {
-        if (super.getBuilders().isEmpty())
-        {
-            addBuilders();
-        }
-        return super.getBuilders();
+        addBuilders();
     }
 
     @Override
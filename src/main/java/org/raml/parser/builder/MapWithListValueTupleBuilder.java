@@ -19,16 +19,18 @@ import static org.raml.parser.utils.NodeUtils.getNodeValue;
 import static org.raml.parser.utils.ReflectionUtils.isPojo;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.raml.parser.utils.ReflectionUtils;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.NodeTuple;
-import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 
 public class MapWithListValueTupleBuilder extends MapTupleBuilder
 {
 
+    private volatile TupleBuilder<?, ?> sequenceBuilder;
+    private volatile TupleBuilder<?, ?> listOfPojoBuilder;
 
     public MapWithListValueTupleBuilder(String fieldName, Class<?> valueClass)
     {
@@ -38,15 +40,42 @@ public class MapWithListValueTupleBuilder extends MapTupleBuilder
     @Override
     public TupleBuilder getBuilderForTuple(NodeTuple tuple)
     {
-        final String fieldName = ((ScalarNode) tuple.getKeyNode()).getValue();
+        if (sequenceBuilder == null)
+        {
+            synchronized (this)
+            {
+                if (sequenceBuilder == null)
+                {
+                    listOfPojoBuilder = new ListOfPojoTupleBuilder(getValueClass());
+                    sequenceBuilder = new KeyedSequenceTupleBuilder(getValueClass());
+                }
+            }
+        }
         if (tuple.getValueNode() instanceof SequenceNode)
         {
-
-            return new SequenceTupleBuilder(fieldName, getValueClass());
+            return sequenceBuilder;
         }
         else
         {
-            return new ListOfPojoTupleBuilder(fieldName, getValueClass());
+            return listOfPojoBuilder;
+        }
+    }
+
+    //sequence set to the key of the tuple being built
+    private static class KeyedSequenceTupleBuilder extends SequenceTupleBuilder implements ScopedNodeBuilder<SequenceNode>
+    {
+
+        public KeyedSequenceTupleBuilder(Class<?> itemClass)
+        {
+            super(null, itemClass);
+        }
+
+        @Override
+        public Object buildValue(Object parent, SequenceNode node, BuildScope scope)
+        {
+            List<?> list = new ArrayList();
+            ReflectionUtils.setProperty(parent, scope.getKey(), list);
+            return list;
         }
     }
 
@@ -54,13 +83,24 @@ public class MapWithListValueTupleBuilder extends MapTupleBuilder
     private static class ListOfPojoTupleBuilder extends PojoTupleBuilder
     {
 
-        public ListOfPojoTupleBuilder(String fieldName, Class<?> pojoClass)
+        public ListOfPojoTupleBuilder(Class<?> pojoClass)
         {
-            super(fieldName, pojoClass);
+            super(pojoClass);
         }
 
         @Override
         public Object buildValue(Object parent, Node node)
+        {
+            return buildValue(parent, node, getFieldName());
+        }
+
+        @Override
+        public Object buildValue(Object parent, Node node, BuildScope scope)
+        {
+            return buildValue(parent, node, getKey(scope));
+        }
+
+        private Object buildValue(Object parent, Node node, String key)
         {
             try
             {
@@ -75,8 +115,8 @@ public class MapWithListValueTupleBuilder extends MapTupleBuilder
                 }
                 ArrayList<Object> objects = new ArrayList<Object>();
                 objects.add(newValue);
-                ReflectionUtils.setProperty(parent, getFieldName(), objects);
-                processPojoAnnotations(newValue, getFieldName(), parent);
+                ReflectionUtils.setProperty(parent, key, objects);
+                processPojoAnnotations(newValue, key, parent);
                 return newValue;
             }
             catch (InstantiationException e)
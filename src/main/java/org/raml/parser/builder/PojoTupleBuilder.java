@@ -20,7 +20,6 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.raml.parser.annotation.Key;
 import org.raml.parser.annotation.Value;
@@ -31,11 +30,11 @@ import org.raml.parser.utils.ReflectionUtils;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
-public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
+public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node> implements ScopedNodeBuilder<Node>
 {
 
-    private Class<?> pojoClass;
-    private String fieldName;
+    private final Class<?> pojoClass;
+    private final String fieldName;
 
     public PojoTupleBuilder(String fieldName, Class<?> pojoClass)
     {
@@ -51,17 +50,33 @@ public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
     }
 
     @Override
-    protected Map<String, TupleBuilder<?, ?>> getBuilders()
+    protected void addChildrenTupleBuilders()
     {
-        if (super.getBuilders().isEmpty())
-        {
-            addBuildersFor(pojoClass);
-        }
-        return super.getBuilders();
+        addBuildersFor(pojoClass);
     }
 
     @Override
     public Object buildValue(Object parent, Node node)
+    {
+        return buildValue(parent, node, fieldName);
+    }
+
+    @Override
+    public Object buildValue(Object parent, Node node, BuildScope scope)
+    {
+        return buildValue(parent, node, getKey(scope));
+    }
+
+    /**
+     * @return the key of the tuple being built, or the field name of the builder when
+     *         building a sequence item
+     */
+    protected String getKey(BuildScope scope)
+    {
+        return scope.getKey() != null ? scope.getKey() : fieldName;
+    }
+
+    private Object buildValue(Object parent, Node node, String key)
     {
         try
         {
@@ -70,9 +85,13 @@ public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
             {
                 newValue = ConvertUtils.convertTo((String) NodeUtils.getNodeValue(node), pojoClass);
             }
-            else if (pojoClass.getDeclaredConstructors().length > 0)
+            else
             {
-                newValue = buildValueByAnnotation(node);
+                newValue = ReflectionUtils.getPojoAccessor(pojoClass).newInstance(key, NodeUtils.getNodeValue(node));
+                if (newValue == null && pojoClass.getDeclaredConstructors().length > 0)
+                {
+                    newValue = buildValueByAnnotation(node, key);
+                }
             }
 
             if (newValue == null)
@@ -80,8 +99,8 @@ public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
                 newValue = pojoClass.newInstance();
             }
 
-            ReflectionUtils.setProperty(parent, fieldName, newValue);
-            processPojoAnnotations(newValue, fieldName, parent);
+            ReflectionUtils.setProperty(parent, key, newValue);
+            processPojoAnnotations(newValue, key, parent);
             return newValue;
         }
         catch (InstantiationException e)
@@ -103,7 +122,7 @@ public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
      * Searches for a constructor that accepts @Value and @Key annotated parameters only.
      * If one is not found then it falls back to a default constructor.
      */
-    private Object buildValueByAnnotation(Node node) throws IllegalAccessException, InvocationTargetException, InstantiationException
+    private Object buildValueByAnnotation(Node node, String key) throws IllegalAccessException, InvocationTargetException, InstantiationException
     {
         for (Constructor<?> declaredConstructor : pojoClass.getDeclaredConstructors())
         {
@@ -121,7 +140,7 @@ public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
                 }
                 else if (parameterAnnotation[0].annotationType().equals(Key.class))
                 {
-                    arguments.add(fieldName);
+                    arguments.add(key);
                 }
             }
 
@@ -134,13 +153,10 @@ public class PojoTupleBuilder extends DefaultTupleBuilder<ScalarNode, Node>
         return null;
     }
 
-
-    @Override
-    public void buildKey(Object parent, ScalarNode node)
-    {
-        fieldName = node.getValue();
-    }
-
+    /**
+     * @return the name of the field the builder was created for, the key of the tuples it
+     *         builds is read from the {@link BuildScope} of each build
+     */
     public String getFieldName()
     {
         return fieldName;
@@ -18,39 +18,44 @@ package org.raml.parser.builder;
 import org.raml.parser.resolver.DefaultScalarTupleHandler;
 import org.raml.parser.utils.ConvertUtils;
 import org.raml.parser.utils.ReflectionUtils;
+import org.raml.parser.utils.ScalarConverter;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
 
-public class ScalarTupleBuilder extends DefaultTupleBuilder<ScalarNode, ScalarNode>
+public class ScalarTupleBuilder extends DefaultTupleBuilder<ScalarNode, ScalarNode> implements ScopedNodeBuilder<ScalarNode>
 {
 
-    private String fieldName;
-    private Class<?> type;
+    private final ScalarConverter<?> converter;
 
 
     public ScalarTupleBuilder(String field, Class<?> type)
     {
         super(new DefaultScalarTupleHandler(field));
-        this.type = type;
+        this.converter = ConvertUtils.getConverter(type);
 
     }
 
 
     @Override
     public Object buildValue(Object parent, ScalarNode node)
+    {
+        return buildValue(parent, node, (String) null);
+    }
+
+    @Override
+    public Object buildValue(Object parent, ScalarNode node, BuildScope scope)
+    {
+        return buildValue(parent, node, scope.getKey());
+    }
+
+    protected Object buildValue(Object parent, ScalarNode node, String fieldName)
     {
 
         final String value = node.getValue();
-        final Object converted = ConvertUtils.convertTo(value, type);
+        final Object converted = converter.convert(value);
         String unalias = unalias(parent, fieldName);
         ReflectionUtils.setProperty(parent, unalias, converted);
 
         return parent;
     }
-
-    @Override
-    public void buildKey(Object parent, ScalarNode tuple)
-    {
-        fieldName = tuple.getValue();
-    }
 }
@@ -27,21 +27,44 @@ public class SchemaTupleBuilder extends ScalarTupleBuilder
     private static final String SCHEMA_FIELD_NAME = "schema";
     private static final String PARSED_SCHEMA_FIELD_NAME = "compiledSchema";
 
+    private SchemaCompiler schemaCompiler;
+
     public SchemaTupleBuilder()
     {
         super(SCHEMA_FIELD_NAME, String.class);
     }
 
+    /**
+     * @deprecated the schemas are compiled with the compiler of the {@link BuildScope},
+     *             this one is only used by builds without a scope
+     */
+    @Deprecated
+    public void setSchemaCompiler(SchemaCompiler schemaCompiler)
+    {
+        this.schemaCompiler = schemaCompiler;
+    }
+
     @Override
     public Object buildValue(Object parent, ScalarNode node)
     {
         Object result = super.buildValue(parent, node);
-        Object schema = compileSchema(node);
+        Object schema = compileSchema(node, null, schemaCompiler);
+        ReflectionUtils.setProperty(parent, PARSED_SCHEMA_FIELD_NAME, schema);
+        return result;
+    }
+
+    @Override
+    public Object buildValue(Object parent, ScalarNode node, BuildScope scope)
+    {
+        Object result = super.buildValue(parent, node, scope);
+        String mimeType = getParent() instanceof PojoTupleBuilder ? scope.getParentKey() : null;
+        SchemaCompiler compiler = scope.getSchemaCompiler() != null ? scope.getSchemaCompiler() : schemaCompiler;
+        Object schema = compileSchema(node, mimeType, compiler);
         ReflectionUtils.setProperty(parent, PARSED_SCHEMA_FIELD_NAME, schema);
         return result;
     }
 
-    private Object compileSchema(ScalarNode node)
+    private Object compileSchema(ScalarNode node, String mimeType, SchemaCompiler schemaCompiler)
     {
         String value = node.getValue();
 
@@ -51,10 +74,9 @@ public class SchemaTupleBuilder extends ScalarTupleBuilder
         }
 
         Object schema = null;
-        String mimeType = getParent() instanceof PojoTupleBuilder ? ((PojoTupleBuilder) getParent()).getFieldName() : null;
-        if (mimeType != null && mimeType.contains("xml"))
+        if (mimeType != null && mimeType.contains("xml") && schemaCompiler != null)
         {
-            schema = SchemaCompiler.getInstance().compile(value);
+            schema = schemaCompiler.compile(value);
         }
         else if (mimeType != null && mimeType.contains("json") && (node instanceof IncludeScalarNode))
         {
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import org.yaml.snakeyaml.nodes.Node;
+
+/**
+ * Builder that reads the key of the tuple it builds from the {@link BuildScope} of the
+ * build, so it holds no state of its own and can be shared by concurrent builds.
+ * Document builders call {@link #buildValue(Object, Node, BuildScope)} instead of
+ * {@link #buildValue(Object, Node)} on these builders.
+ */
+public interface ScopedNodeBuilder<V extends Node> extends NodeBuilder<V>
+{
+
+    /**
+     * Builds the java model for the given node and sets it to the parent object
+     *
+     * @param parent The parent object
+     * @param node   The node to build the model from
+     * @param scope  The state of the build in progress
+     * @return The model
+     */
+    Object buildValue(Object parent, V node, BuildScope scope);
+}
@@ -32,6 +32,7 @@ public class SequenceTupleBuilder extends DefaultTupleBuilder<Node, SequenceNode
 
     private String fieldName;
     private Type itemType;
+    private volatile NodeBuilder itemBuilder;
 
     public SequenceTupleBuilder(String fieldName, Type itemType)
     {
@@ -55,6 +56,28 @@ public class SequenceTupleBuilder extends DefaultTupleBuilder<Node, SequenceNode
 
     @Override
     public NodeBuilder getItemBuilder()
+    {
+        NodeBuilder current = itemBuilder;
+        if (current == null)
+        {
+            synchronized (this)
+            {
+                current = itemBuilder;
+                if (current == null)
+                {
+                    current = createItemBuilder();
+                    itemBuilder = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return the builder of the items of the sequence, created once and shared by every
+     *         build of the document class
+     */
+    protected NodeBuilder createItemBuilder()
     {
         if (itemType instanceof Class<?>)
         {
@@ -15,148 +15,210 @@
  */
 package org.raml.parser.builder;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.raml.parser.annotation.Mapping;
 import org.raml.parser.annotation.Scalar;
 import org.raml.parser.annotation.Sequence;
 import org.raml.parser.resolver.EnumHandler;
 import org.raml.parser.resolver.TupleHandler;
+import org.raml.parser.utils.FieldMetadata;
+import org.raml.parser.utils.PojoMetadata;
 import org.raml.parser.utils.ReflectionUtils;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 
+/**
+ * Creates the builders of the annotated fields of a model class.
+ * <p/>
+ * Fields are analysed once per model class into builder templates. The builders created
+ * from them are shared by every parse and thread building the same document class, so
+ * builders must not keep the state of a build, such as the key being built, and read it
+ * from the {@link BuildScope} instead.
+ */
 public class TupleBuilderFactory extends AbstractFactory
 {
 
+    private static final ConcurrentMap<Class<?>, List<BuilderTemplate>> TEMPLATES = new ConcurrentHashMap<Class<?>, List<BuilderTemplate>>();
+
     public void addBuildersTo(Class<?> pojoClass, TupleBuilder parent)
     {
-        final List<Field> declaredFields = ReflectionUtils.getInheritedFields(pojoClass);
+        List<BuilderTemplate> templates = TEMPLATES.get(pojoClass);
+        if (templates == null)
+        {
+            templates = createTemplates(pojoClass);
+            TEMPLATES.putIfAbsent(pojoClass, templates);
+        }
         final Map<String, TupleBuilder<?, ?>> innerBuilders = new HashMap<String, TupleBuilder<?, ?>>();
-        for (Field declaredField : declaredFields)
+        for (BuilderTemplate template : templates)
         {
-            Scalar scalar = declaredField.getAnnotation(Scalar.class);
-            Mapping mapping = declaredField.getAnnotation(Mapping.class);
-            Sequence sequence = declaredField.getAnnotation(Sequence.class);
-            TupleBuilder<?, ?> tupleBuilder = null;
+            innerBuilders.put(template.fieldName, template.newBuilder(parent));
+        }
+        parent.setChildrenTupleBuilders(innerBuilders);
+    }
+
+    private List<BuilderTemplate> createTemplates(Class<?> pojoClass)
+    {
+        final List<BuilderTemplate> templates = new ArrayList<BuilderTemplate>();
+        for (FieldMetadata field : PojoMetadata.of(pojoClass).getFields())
+        {
+            Scalar scalar = field.getScalar();
+            Mapping mapping = field.getMapping();
+            Sequence sequence = field.getSequence();
+            BuilderTemplate template = null;
             TupleHandler tupleHandler = null;
             if (scalar != null)
             {
-                tupleBuilder = createScalarBuilder(declaredField, scalar);
+                template = createScalarBuilder(field, scalar);
                 tupleHandler = createHandler(scalar.handler(), scalar.alias(), ScalarNode.class);
 
             }
             else if (mapping != null)
             {
-                tupleBuilder = createMappingBuilder(declaredField, mapping);
+                template = createMappingBuilder(field, mapping);
                 tupleHandler = createHandler(mapping.handler(), mapping.alias(), MappingNode.class);
-                if (tupleBuilder instanceof MapTupleBuilder)
+                if (template != null)
                 {
-                    ((MapTupleBuilder) tupleBuilder).setInnerTupleHandler(createHandler(mapping.innerHandler(), "", null));
+                    template.mapping = true;
+                    template.innerHandler = createHandler(mapping.innerHandler(), "", null);
                 }
             }
             else if (sequence != null)
             {
-                tupleBuilder = createSequenceBuilder(declaredField, sequence);
+                template = createSequenceBuilder(field, sequence);
                 tupleHandler = createHandler(sequence.handler(), sequence.alias(), SequenceNode.class);
             }
 
-            if (tupleBuilder != null)
+            if (template != null)
             {
                 if (tupleHandler != null)
                 {
-                    tupleBuilder.setHandler(tupleHandler);
+                    template.handler = tupleHandler;
                 }
-                tupleBuilder.setParentNodeBuilder(parent);
-                innerBuilders.put(declaredField.getName(), tupleBuilder);
+                template.fieldName = field.getName();
+                templates.add(template);
             }
         }
-        parent.setChildrenTupleBuilders(innerBuilders);
+        return Collections.unmodifiableList(templates);
     }
 
-    private TupleBuilder<?, ?> createSequenceBuilder(Field declaredField, Sequence sequence)
+    private BuilderTemplate createSequenceBuilder(final FieldMetadata field, Sequence sequence)
     {
-        TupleBuilder<?, ?> tupleBuilder = null;
+        BuilderTemplate template = null;
         if (sequence.builder() != TupleBuilder.class)
         {
-            tupleBuilder = createInstanceOf(sequence.builder());
+            template = createCustomBuilder(sequence.builder());
         }
         else
         {
-            if (List.class.isAssignableFrom(declaredField.getType()))
+            if (List.class.isAssignableFrom(field.getType()))
             {
-                Type type = declaredField.getGenericType();
-                if (type instanceof ParameterizedType)
+                final Type itemType = field.getValueType();
+                if (itemType != null)
                 {
-                    ParameterizedType pType = (ParameterizedType) type;
-                    Type itemType = pType.getActualTypeArguments()[0];
-                    tupleBuilder = new SequenceTupleBuilder(declaredField.getName(), itemType);
+                    template = new BuilderTemplate()
+                    {
+                        @Override
+                        TupleBuilder<?, ?> createBuilder()
+                        {
+                            return new SequenceTupleBuilder(field.getName(), itemType);
+                        }
+                    };
                 }
             }
             else
             {
-                throw new RuntimeException("Only List can be sequence. Error on field " + declaredField.getName());
+                throw new RuntimeException("Only List can be sequence. Error on field " + field.getName());
             }
         }
-        return tupleBuilder;
+        return template;
     }
 
-    private TupleBuilder<?, ?> createScalarBuilder(Field declaredField, Scalar scalar)
+    private BuilderTemplate createScalarBuilder(final FieldMetadata field, Scalar scalar)
     {
-        TupleBuilder<?, ?> tupleBuilder;
+        BuilderTemplate template;
         if (scalar.builder() != TupleBuilder.class)
         {
-            tupleBuilder = createInstanceOf(scalar.builder());
+            template = createCustomBuilder(scalar.builder());
         }
         else
         {
-            if (ReflectionUtils.isPojo(declaredField.getType()))
+            if (ReflectionUtils.isPojo(field.getType()))
             {
-                tupleBuilder = new PojoTupleBuilder(declaredField.getName(), declaredField.getType());
+                template = new BuilderTemplate()
+                {
+                    @Override
+                    TupleBuilder<?, ?> createBuilder()
+                    {
+                        return new PojoTupleBuilder(field.getName(), field.getType());
+                    }
+                };
             }
             else
             {
-                tupleBuilder = new ScalarTupleBuilder(declaredField.getName(), declaredField.getType());
+                template = new BuilderTemplate()
+                {
+                    @Override
+                    TupleBuilder<?, ?> createBuilder()
+                    {
+                        return new ScalarTupleBuilder(field.getName(), field.getType());
+                    }
+                };
             }
         }
-        return tupleBuilder;
+        return template;
     }
 
-    private TupleBuilder<?, ?> createMappingBuilder(Field declaredField, Mapping mapping)
+    private BuilderTemplate createMappingBuilder(final FieldMetadata field, Mapping mapping)
     {
-        TupleBuilder<?, ?> tupleBuilder = null;
+        BuilderTemplate template = null;
         if (mapping.builder() != TupleBuilder.class)
         {
-            tupleBuilder = createInstanceOf(mapping.builder());
+            template = createCustomBuilder(mapping.builder());
         }
         else
         {
-            if (Map.class.isAssignableFrom(declaredField.getType()))
+            if (Map.class.isAssignableFrom(field.getType()))
             {
-                Type type = declaredField.getGenericType();
-                if (type instanceof ParameterizedType)
+                Type keyType = field.getKeyType();
+                final Type valueType = field.getValueType();
+                if (keyType != null)
                 {
-                    ParameterizedType pType = (ParameterizedType) type;
-                    Type keyType = pType.getActualTypeArguments()[0];
-                    Type valueType = pType.getActualTypeArguments()[1];
                     if (keyType instanceof Class<?>)
                     {
-                        Class<?> keyClass = (Class<?>) keyType;
+                        final Class<?> keyClass = (Class<?>) keyType;
                         if (valueType instanceof Class<?>)
                         {
                             if (mapping.implicit())
                             {
-                                tupleBuilder = new ImplicitMapEntryBuilder(declaredField.getName(), keyClass, (Class) valueType);
+                                template = new BuilderTemplate()
+                                {
+                                    @Override
+                                    TupleBuilder<?, ?> createBuilder()
+                                    {
+                                        return new ImplicitMapEntryBuilder(field.getName(), keyClass, (Class) valueType);
+                                    }
+                                };
                             }
                             else
                             {
-                                tupleBuilder = new MapTupleBuilder(declaredField.getName(), (Class) valueType);
+                                template = new BuilderTemplate()
+                                {
+                                    @Override
+                                    TupleBuilder<?, ?> createBuilder()
+                                    {
+                                        return new MapTupleBuilder(field.getName(), (Class) valueType);
+                                    }
+                                };
                             }
                         }
                         else if (valueType instanceof ParameterizedType)
@@ -164,27 +226,80 @@ public class TupleBuilderFactory extends AbstractFactory
                             Type rawType = ((ParameterizedType) valueType).getRawType();
                             if (rawType instanceof Class && List.class.isAssignableFrom((Class<?>) rawType))
                             {
-                                Type listType = ((ParameterizedType) valueType).getActualTypeArguments()[0];
+                                final Type listType = ((ParameterizedType) valueType).getActualTypeArguments()[0];
                                 if (listType instanceof Class)
                                 {
-                                    tupleBuilder = new MapWithListValueTupleBuilder(declaredField.getName(), (Class<?>) listType);
+                                    template = new BuilderTemplate()
+                                    {
+                                        @Override
+                                        TupleBuilder<?, ?> createBuilder()
+                                        {
+                                            return new MapWithListValueTupleBuilder(field.getName(), (Class<?>) listType);
+                                        }
+                                    };
                                 }
                             }
                         }
                         if (keyClass.isEnum())
                         {
-                            tupleBuilder.setHandler(new EnumHandler(MappingNode.class, (Class<? extends Enum>) keyClass));
+                            template.handler = new EnumHandler(MappingNode.class, (Class<? extends Enum>) keyClass);
                         }
                     }
                 }
             }
             else
             {
-                tupleBuilder = new PojoTupleBuilder(declaredField.getName(), declaredField.getType());
+                template = new BuilderTemplate()
+                {
+                    @Override
+                    TupleBuilder<?, ?> createBuilder()
+                    {
+                        return new PojoTupleBuilder(field.getName(), field.getType());
+                    }
+                };
             }
         }
-        return tupleBuilder;
+        return template;
+    }
+
+    private BuilderTemplate createCustomBuilder(final Class<? extends TupleBuilder> builderClass)
+    {
+        return new BuilderTemplate()
+        {
+            @Override
+            TupleBuilder<?, ?> createBuilder()
+            {
+                return createInstanceOf(builderClass);
+            }
+        };
     }
 
+    /**
+     * Builder of an annotated field, created once for every builder of the model class.
+     */
+    private abstract static class BuilderTemplate
+    {
+
+        private String fieldName;
+        private TupleHandler handler;
+        private TupleHandler innerHandler;
+        private boolean mapping;
+
+        abstract TupleBuilder<?, ?> createBuilder();
 
+        TupleBuilder<?, ?> newBuilder(TupleBuilder parent)
+        {
+            TupleBuilder<?, ?> tupleBuilder = createBuilder();
+            if (mapping && tupleBuilder instanceof MapTupleBuilder)
+            {
+                ((MapTupleBuilder) tupleBuilder).setInnerTupleHandler(innerHandler);
+            }
+            if (handler != null)
+            {
+                tupleBuilder.setHandler(handler);
+            }
+            tupleBuilder.setParentNodeBuilder(parent);
+            return tupleBuilder;
+        }
+    }
 }
@@ -44,6 +44,11 @@ public class DefaultScalarTupleHandler implements TupleHandler
         return false;
     }
 
+    public String getFieldName()
+    {
+        return fieldName;
+    }
+
     @Override
     public List<Suggestion> getSuggestions()
     {
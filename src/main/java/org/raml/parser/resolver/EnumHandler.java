@@ -17,7 +17,9 @@ package org.raml.parser.resolver;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.raml.parser.completion.KeySuggestion;
 import org.raml.parser.completion.Suggestion;
@@ -30,10 +32,15 @@ public class EnumHandler implements TupleHandler
 
 
     private Class<? extends Enum> enumClass;
+    private Set<String> constantNames = new HashSet<String>();
 
     public EnumHandler(Class<? extends Node> tupleValueType, Class<? extends Enum> enumClass)
     {
         this.enumClass = enumClass;
+        for (Enum constant : enumClass.getEnumConstants())
+        {
+            constantNames.add(constant.name());
+        }
     }
 
     @Override
@@ -42,15 +49,7 @@ public class EnumHandler implements TupleHandler
         if (tuple.getKeyNode() instanceof ScalarNode)
         {
             String enumValue = ((ScalarNode) tuple.getKeyNode()).getValue();
-            try
-            {
-                Enum.valueOf(enumClass, enumValue.toUpperCase());
-            }
-            catch (IllegalArgumentException e)
-            {
-                return false;
-            }
-            return true;
+            return constantNames.contains(enumValue.toUpperCase());
         }
         return false;
     }
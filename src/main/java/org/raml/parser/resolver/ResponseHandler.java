@@ -32,17 +32,37 @@ public class ResponseHandler implements TupleHandler
         if (tuple.getKeyNode() instanceof ScalarNode)
         {
             ScalarNode keyNode = (ScalarNode) tuple.getKeyNode();
-            try
+            return isPositiveInteger(keyNode.getValue());
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value is parsed by {@link Integer#parseInt(String)}
+     *         into a number greater than zero
+     */
+    private static boolean isPositiveInteger(String value)
+    {
+        int start = value.startsWith("+") ? 1 : 0;
+        if (start == value.length())
+        {
+            return false;
+        }
+        long status = 0;
+        for (int i = start; i < value.length(); i++)
+        {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0)
             {
-                int status = Integer.parseInt(keyNode.getValue());
-                return status > 0;
+                return false;
             }
-            catch (NumberFormatException nfe)
+            status = status * 10 + digit;
+            if (status > Integer.MAX_VALUE)
             {
-                //ignore
+                return false;
             }
         }
-        return false;
+        return status > 0;
     }
 
     @Override
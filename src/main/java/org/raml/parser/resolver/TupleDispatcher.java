@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.resolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+/**
+ * Finds the first of a list of builders or rules whose handler handles a tuple.
+ * <p/>
+ * Children handled by a {@link DefaultScalarTupleHandler} with a field name are indexed
+ * by that name, and only the handlers of the other children declared before the indexed
+ * one are checked, in order. The result is the same as checking every handler in order.
+ */
+public class TupleDispatcher<T>
+{
+
+    private final Map<String, IndexedChild<T>> indexedChildren = new HashMap<String, IndexedChild<T>>();
+    private final List<T> children = new ArrayList<T>();
+    private final List<TupleHandler> handlers = new ArrayList<TupleHandler>();
+    private final List<Integer> positions = new ArrayList<Integer>();
+    private int size;
+
+    public void add(T child, TupleHandler handler)
+    {
+        int position = size++;
+        if (handler != null && handler.getClass() == DefaultScalarTupleHandler.class
+            && ((DefaultScalarTupleHandler) handler).getFieldName() != null)
+        {
+            String fieldName = ((DefaultScalarTupleHandler) handler).getFieldName();
+            if (!indexedChildren.containsKey(fieldName))
+            {
+                indexedChildren.put(fieldName, new IndexedChild<T>(child, position));
+            }
+        }
+        else
+        {
+            children.add(child);
+            handlers.add(handler);
+            positions.add(position);
+        }
+    }
+
+    /**
+     * @return the first child that handles the tuple, or <tt>null</tt> if none does
+     */
+    public T dispatch(NodeTuple tuple)
+    {
+        IndexedChild<T> indexedChild = null;
+        if (tuple.getKeyNode() instanceof ScalarNode)
+        {
+            indexedChild = indexedChildren.get(((ScalarNode) tuple.getKeyNode()).getValue());
+        }
+        int limit = indexedChild != null ? indexedChild.position : size;
+        for (int i = 0; i < children.size() && positions.get(i) < limit; i++)
+        {
+            if (handlers.get(i).handles(tuple))
+            {
+                return children.get(i);
+            }
+        }
+        return indexedChild != null ? indexedChild.child : null;
+    }
+
+    private static class IndexedChild<T>
+    {
+
+        private final T child;
+        private final int position;
+
+        IndexedChild(T child, int position)
+        {
+            this.child = child;
+            this.position = position;
+        }
+    }
+}
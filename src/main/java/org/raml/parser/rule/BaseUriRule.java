@@ -47,6 +47,31 @@ public class BaseUriRule extends SimpleRule
 
     }
 
+    @Override
+    public TupleRule<?, ?> deepCopy()
+    {
+        checkClassToCopy(BaseUriRule.class);
+        BaseUriRule copy = new BaseUriRule();
+        copy.setHandler(getHandler());
+        copy.setNodeRuleFactory(getNodeRuleFactory());
+        copy.setRequired(isRequired());
+        return copy;
+    }
+
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(BaseUriRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        baseUri = null;
+        parameters.clear();
+        return super.resetState();
+    }
+
     public String getBaseUri()
     {
         return baseUri;
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.raml.parser.resolver.TupleDispatcher;
 import org.raml.parser.resolver.TupleHandler;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.NodeTuple;
@@ -36,6 +37,7 @@ public class DefaultTupleRule<K extends Node, V extends Node> implements TupleRu
     private K key;
     private String name;
     private NodeRuleFactory nodeRuleFactory;
+    private volatile TupleDispatcher<TupleRule<?, ?>> dispatcher;
 
 
     public DefaultTupleRule()
@@ -74,6 +76,7 @@ public class DefaultTupleRule<K extends Node, V extends Node> implements TupleRu
     public void setNestedRules(Map<String, TupleRule<?, ?>> rules)
     {
         this.rules = rules;
+        nestedRulesChanged();
     }
 
     @Override
@@ -189,9 +192,60 @@ public class DefaultTupleRule<K extends Node, V extends Node> implements TupleRu
         }
     }
 
+    /**
+     * Clears what the rule and its nested rules kept from the tuples they validated, so
+     * the same rules validate the next entry of an implicit map instead of new copies.
+     * Subclasses must override it, as they do with {@link #deepCopy()}, to be reset.
+     *
+     * @return false if the rule or any of its nested rules cannot be reset
+     */
+    public boolean reset()
+    {
+        return isClassToReset(DefaultTupleRule.class) && resetState();
+    }
+
+    protected boolean isClassToReset(Class<?> clazz)
+    {
+        return this.getClass().equals(clazz);
+    }
+
+    /**
+     * Clears the state of the rule, subclasses keeping state of their own extend it.
+     */
+    protected boolean resetState()
+    {
+        key = null;
+        return resetNestedRules();
+    }
+
+    protected boolean resetNestedRules()
+    {
+        for (TupleRule<?, ?> rule : rules.values())
+        {
+            if (!(rule instanceof DefaultTupleRule) || !((DefaultTupleRule<?, ?>) rule).reset())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void addRulesFor(Class<?> pojoClass)
     {
         nodeRuleFactory.addRulesTo(pojoClass, this);
+        nestedRulesChanged();
+    }
+
+    /**
+     * Drops the dispatcher of the nested rules. Subclasses that replace the nested rules,
+     * or any of their entries, must call it afterwards.
+     */
+    protected void nestedRulesChanged()
+    {
+        synchronized (this)
+        {
+            dispatcher = null;
+        }
     }
 
     public NodeRuleFactory getNodeRuleFactory()
@@ -202,14 +256,37 @@ public class DefaultTupleRule<K extends Node, V extends Node> implements TupleRu
     @Override
     public TupleRule<?, ?> getRuleForTuple(NodeTuple nodeTuple)
     {
-        for (TupleRule<?, ?> rule : rules.values())
+        TupleRule<?, ?> rule = getDispatcher().dispatch(nodeTuple);
+        if (rule != null)
         {
-            if (rule.getHandler().handles(nodeTuple))
+            return rule;
+        }
+        return new UnknownTupleRule<Node, Node>(nodeTuple.getKeyNode().toString());
+    }
+
+    /**
+     * @return the dispatcher of the current rules, created again after they change
+     */
+    private TupleDispatcher<TupleRule<?, ?>> getDispatcher()
+    {
+        TupleDispatcher<TupleRule<?, ?>> current = dispatcher;
+        if (current == null)
+        {
+            synchronized (this)
             {
-                return rule;
+                current = dispatcher;
+                if (current == null)
+                {
+                    current = new TupleDispatcher<TupleRule<?, ?>>();
+                    for (TupleRule<?, ?> rule : rules.values())
+                    {
+                        current.add(rule, rule.getHandler());
+                    }
+                    dispatcher = current;
+                }
             }
         }
-        return new UnknownTupleRule<Node, Node>(nodeTuple.getKeyNode().toString());
+        return current;
     }
 
     @Override
@@ -60,6 +60,31 @@ public class GlobalSchemasRule extends SequenceTupleRule
         }
     }
 
+    @Override
+    public TupleRule<?, ?> deepCopy()
+    {
+        checkClassToCopy(GlobalSchemasRule.class);
+        GlobalSchemasRule copy = new GlobalSchemasRule();
+        copy.setValueType(getItemType());
+        copy.setHandler(getHandler());
+        copy.setNodeRuleFactory(getNodeRuleFactory());
+        copy.setRequired(isRequired());
+        return copy;
+    }
+
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(GlobalSchemasRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        schemas.clear();
+        return super.resetState();
+    }
+
     public ScalarNode getSchema(String key)
     {
         return schemas.get(key);
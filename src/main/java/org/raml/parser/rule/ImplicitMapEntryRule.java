@@ -19,8 +19,10 @@ import static org.raml.parser.rule.ValidationMessage.getDuplicateRuleMessage;
 import static org.raml.parser.rule.ValidationResult.createErrorResult;
 
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.raml.parser.resolver.DefaultScalarTupleHandler;
@@ -33,6 +35,8 @@ public class ImplicitMapEntryRule extends DefaultTupleRule<ScalarNode, MappingNo
 
     private Class valueType;
     private final Set<String> keys = new HashSet<String>();
+    //rules of the last entry, reset to validate the next one
+    private Map<String, TupleRule<?, ?>> entryRules;
 
     public ImplicitMapEntryRule(String fieldName, Class valueType)
     {
@@ -46,7 +50,16 @@ public class ImplicitMapEntryRule extends DefaultTupleRule<ScalarNode, MappingNo
     {
         if (rules.isEmpty())
         {
-            addRulesFor(valueType);
+            if (entryRules != null)
+            {
+                rules = entryRules;
+                entryRules = null;
+                nestedRulesChanged();
+            }
+            else
+            {
+                addRulesFor(valueType);
+            }
         }
         return super.getRuleForTuple(nodeTuple);
     }
@@ -55,7 +68,12 @@ public class ImplicitMapEntryRule extends DefaultTupleRule<ScalarNode, MappingNo
     public List<ValidationResult> onRuleEnd()
     {
         List<ValidationResult> validationResults = super.onRuleEnd();
-        rules.clear();
+        if (!rules.isEmpty())
+        {
+            entryRules = resetNestedRules() ? rules : null;
+            rules = Collections.emptyMap();
+            nestedRulesChanged();
+        }
         return validationResults;
     }
 
@@ -81,6 +99,19 @@ public class ImplicitMapEntryRule extends DefaultTupleRule<ScalarNode, MappingNo
         return copy;
     }
 
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(ImplicitMapEntryRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        keys.clear();
+        return super.resetState();
+    }
+
     @Override
     public Class<?> getValueType()
     {
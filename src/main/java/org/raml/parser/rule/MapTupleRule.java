@@ -109,6 +109,20 @@ public class MapTupleRule extends DefaultTupleRule<ScalarNode, MappingNode> impl
         return copy;
     }
 
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(MapTupleRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        fieldName = null;
+        keys.clear();
+        return super.resetState();
+    }
+
     @Override
     public List<ValidationResult> validateKey(ScalarNode key)
     {
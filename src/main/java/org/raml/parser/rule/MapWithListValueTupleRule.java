@@ -71,4 +71,17 @@ public class MapWithListValueTupleRule extends DefaultTupleRule<ScalarNode, Mapp
         copy.setHandler(getHandler());
         return copy;
     }
+
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(MapWithListValueTupleRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        fieldName = null;
+        return super.resetState();
+    }
 }
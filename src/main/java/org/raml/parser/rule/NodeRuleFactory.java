@@ -15,13 +15,14 @@
  */
 package org.raml.parser.rule;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.raml.parser.annotation.Mapping;
 import org.raml.parser.annotation.Scalar;
@@ -30,6 +31,8 @@ import org.raml.parser.builder.AbstractFactory;
 import org.raml.parser.resolver.DefaultTupleHandler;
 import org.raml.parser.resolver.EnumHandler;
 import org.raml.parser.resolver.TupleHandler;
+import org.raml.parser.utils.FieldMetadata;
+import org.raml.parser.utils.PojoMetadata;
 import org.raml.parser.utils.ReflectionUtils;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
@@ -40,7 +43,7 @@ public class NodeRuleFactory extends AbstractFactory
 {
 
     private NodeRuleFactoryExtension[] extensions;
-    private Map<Class<?>, Map<String, TupleRule<?, ?>>> pojoRulesCache = new HashMap<Class<?>, Map<String, TupleRule<?, ?>>>();
+    private ConcurrentMap<Class<?>, Map<String, TupleRule<?, ?>>> pojoRulesCache = new ConcurrentHashMap<Class<?>, Map<String, TupleRule<?, ?>>>();
 
 
     public NodeRuleFactory(NodeRuleFactoryExtension... extensions)
@@ -67,7 +70,8 @@ public class NodeRuleFactory extends AbstractFactory
         else
         {
             innerBuilders = processPojoAnnotations(pojoClass);
-            pojoRulesCache.put(pojoClass, new HashMap<String, TupleRule<?, ?>>(innerBuilders));
+            //cached rules are never handed out so they can be shared between parses
+            pojoRulesCache.putIfAbsent(pojoClass, copyRules(innerBuilders));
         }
         for (TupleRule tupleRule : innerBuilders.values())
         {
@@ -89,25 +93,24 @@ public class NodeRuleFactory extends AbstractFactory
 
     private Map<String, TupleRule<?, ?>> processPojoAnnotations(Class<?> pojoClass)
     {
-        final List<Field> declaredFields = ReflectionUtils.getInheritedFields(pojoClass);
         final Map<String, TupleRule<?, ?>> innerBuilders = new HashMap<String, TupleRule<?, ?>>();
-        for (Field declaredField : declaredFields)
+        for (FieldMetadata field : PojoMetadata.of(pojoClass).getFields())
         {
-            Scalar scalar = declaredField.getAnnotation(Scalar.class);
-            Mapping mapping = declaredField.getAnnotation(Mapping.class);
-            Sequence sequence = declaredField.getAnnotation(Sequence.class);
+            Scalar scalar = field.getScalar();
+            Mapping mapping = field.getMapping();
+            Sequence sequence = field.getSequence();
             TupleRule<?, ?> tupleRule = null;
             TupleHandler tupleHandler = null;
             boolean required = false;
             if (scalar != null)
             {
-                tupleRule = createScalarRule(declaredField, scalar);
+                tupleRule = createScalarRule(field, scalar);
                 tupleHandler = createHandler(scalar.handler(), scalar.alias(), ScalarNode.class);
                 required = scalar.required();
             }
             else if (mapping != null)
             {
-                tupleRule = createMappingRule(declaredField, mapping);
+                tupleRule = createMappingRule(field, mapping);
                 tupleHandler = createHandler(mapping.handler(), mapping.alias(), MappingNode.class);
                 required = mapping.required();
                 if (tupleRule instanceof MapTupleRule)
@@ -117,7 +120,7 @@ public class NodeRuleFactory extends AbstractFactory
             }
             else if (sequence != null)
             {
-                tupleRule = createSequenceRule(declaredField, sequence);
+                tupleRule = createSequenceRule(field, sequence);
                 tupleHandler = createHandler(sequence.handler(), sequence.alias(), SequenceNode.class);
                 required = sequence.required();
             }
@@ -130,41 +133,39 @@ public class NodeRuleFactory extends AbstractFactory
                 }
                 tupleRule.setRequired(required);
                 tupleRule.setNodeRuleFactory(this);
-                innerBuilders.put(declaredField.getName(), tupleRule);
+                innerBuilders.put(field.getName(), tupleRule);
             }
         }
         return innerBuilders;
     }
 
-    private TupleRule<?, ?> createSequenceRule(Field declaredField, Sequence sequence)
+    private TupleRule<?, ?> createSequenceRule(FieldMetadata field, Sequence sequence)
     {
         TupleRule<?, ?> tupleRule = null;
-        if (List.class.isAssignableFrom(declaredField.getType()))
+        if (List.class.isAssignableFrom(field.getType()))
         {
-            Type type = declaredField.getGenericType();
-            if (type instanceof ParameterizedType)
+            Type itemType = field.getValueType();
+            if (itemType != null)
             {
-                ParameterizedType pType = (ParameterizedType) type;
-                Type itemType = pType.getActualTypeArguments()[0];
                 if (sequence.rule() != TupleRule.class)
                 {
-                    tupleRule = createInstanceOfTupleRule(sequence.rule(), declaredField.getName(), itemType);
+                    tupleRule = createInstanceOfTupleRule(sequence.rule(), field.getName(), itemType);
                 }
                 else
                 {
-                    tupleRule = new SequenceTupleRule(declaredField.getName(), itemType);
+                    tupleRule = new SequenceTupleRule(field.getName(), itemType);
                 }
             }
         }
         else
         {
-            throw new RuntimeException("Only List can be sequence. Error on field " + declaredField.getName());
+            throw new RuntimeException("Only List can be sequence. Error on field " + field.getName());
         }
 
         return tupleRule;
     }
 
-    private TupleRule<?, ?> createMappingRule(Field declaredField, Mapping mapping)
+    private TupleRule<?, ?> createMappingRule(FieldMetadata field, Mapping mapping)
     {
         TupleRule<?, ?> tupleRule = null;
         if (mapping.rule() != TupleRule.class)
@@ -173,14 +174,12 @@ public class NodeRuleFactory extends AbstractFactory
         }
         else
         {
-            if (Map.class.isAssignableFrom(declaredField.getType()))
+            if (Map.class.isAssignableFrom(field.getType()))
             {
-                Type type = declaredField.getGenericType();
-                if (type instanceof ParameterizedType)
+                Type keyType = field.getKeyType();
+                Type valueType = field.getValueType();
+                if (keyType != null)
                 {
-                    ParameterizedType pType = (ParameterizedType) type;
-                    Type keyType = pType.getActualTypeArguments()[0];
-                    Type valueType = pType.getActualTypeArguments()[1];
                     if (keyType instanceof Class<?>)
                     {
                         Class<?> keyClass = (Class<?>) keyType;
@@ -189,11 +188,11 @@ public class NodeRuleFactory extends AbstractFactory
 
                             if (mapping.implicit())
                             {
-                                tupleRule = new ImplicitMapEntryRule(declaredField.getName(), (Class) valueType);
+                                tupleRule = new ImplicitMapEntryRule(field.getName(), (Class) valueType);
                             }
                             else
                             {
-                                tupleRule = new MapTupleRule(declaredField.getName(), (Class) valueType);
+                                tupleRule = new MapTupleRule(field.getName(), (Class) valueType);
                             }
                             if (keyClass.isEnum())
                             {
@@ -209,7 +208,7 @@ public class NodeRuleFactory extends AbstractFactory
                                 Type listType = ((ParameterizedType) valueType).getActualTypeArguments()[0];
                                 if (listType instanceof Class)
                                 {
-                                    tupleRule = new MapWithListValueTupleRule(declaredField.getName(), (Class<?>) listType, this);
+                                    tupleRule = new MapWithListValueTupleRule(field.getName(), (Class<?>) listType, this);
                                 }
                             }
                         }
@@ -219,15 +218,15 @@ public class NodeRuleFactory extends AbstractFactory
             }
             else
             {
-                tupleRule = new PojoTupleRule(declaredField.getName(), declaredField.getType());
+                tupleRule = new PojoTupleRule(field.getName(), field.getType());
             }
         }
         List<TupleRule> contributionRules = new ArrayList<TupleRule>();
         for (NodeRuleFactoryExtension extension : extensions)
         {
-            if (extension.handles(declaredField, mapping))
+            if (extension.handles(field.getField(), mapping))
             {
-                TupleRule<?, ?> rule = extension.createRule(declaredField, mapping);
+                TupleRule<?, ?> rule = extension.createRule(field.getField(), mapping);
                 contributionRules.add(rule);
             }
         }
@@ -239,22 +238,22 @@ public class NodeRuleFactory extends AbstractFactory
         return tupleRule;
     }
 
-    private TupleRule<?, ?> createScalarRule(Field declaredField, Scalar scalar)
+    private TupleRule<?, ?> createScalarRule(FieldMetadata field, Scalar scalar)
     {
         TupleRule<?, ?> tupleRule;
         if (scalar.rule() != TupleRule.class)
         {
-            tupleRule = createInstanceOfTupleRule(scalar.rule(), declaredField.getName(), declaredField.getType());
+            tupleRule = createInstanceOfTupleRule(scalar.rule(), field.getName(), field.getType());
         }
         else
         {
-            if (ReflectionUtils.isPojo(declaredField.getType()))
+            if (ReflectionUtils.isPojo(field.getType()))
             {
-                tupleRule = new PojoTupleRule(declaredField.getName(), declaredField.getType());
+                tupleRule = new PojoTupleRule(field.getName(), field.getType());
             }
             else
             {
-                tupleRule = new SimpleRule(declaredField.getName(), declaredField.getType());
+                tupleRule = new SimpleRule(field.getName(), field.getType());
             }
         }
         return tupleRule;
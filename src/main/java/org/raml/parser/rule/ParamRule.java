@@ -41,6 +41,7 @@ public class ParamRule extends PojoTupleRule
         rules.put("maxLength", new EnumModifierRule("maxLength", Arrays.asList("string"), typeRule));
         rules.put("minimum", new EnumModifierRule("minimum", Arrays.asList("integer", "number"), typeRule));
         rules.put("maximum", new EnumModifierRule("maximum", Arrays.asList("integer", "number"), typeRule));
+        nestedRulesChanged();
     }
 
     @Override
@@ -82,4 +82,10 @@ public class PojoTupleRule extends DefaultTupleRule<ScalarNode, MappingNode>
         copy.setRequired(isRequired());
         return copy;
     }
+
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(PojoTupleRule.class) && resetState();
+    }
 }
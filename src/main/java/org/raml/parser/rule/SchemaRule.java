@@ -194,6 +194,12 @@ public class SchemaRule extends SimpleRule implements ContextPathAware, Resource
         return copy;
     }
 
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(SchemaRule.class) && resetState();
+    }
+
     @Override
     public void setContextPath(ContextPath contextPath)
     {
@@ -40,4 +40,10 @@ public class SecurityReferenceSequenceRule extends SequenceTupleRule
         copy.setNodeRuleFactory(getNodeRuleFactory());
         return copy;
     }
+
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(SecurityReferenceSequenceRule.class) && resetState();
+    }
 }
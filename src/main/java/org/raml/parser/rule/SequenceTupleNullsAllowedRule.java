@@ -35,4 +35,10 @@ public class SequenceTupleNullsAllowedRule extends SequenceTupleRule
         copy.setHandler(getHandler());
         return copy;
     }
+
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(SequenceTupleNullsAllowedRule.class) && resetState();
+    }
 }
@@ -96,6 +96,12 @@ public class SequenceTupleRule extends DefaultTupleRule<ScalarNode, SequenceNode
         return copy;
     }
 
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(SequenceTupleRule.class) && resetState();
+    }
+
     protected Type getItemType()
     {
         return itemType;
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
-import org.raml.parser.utils.ConvertUtils;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
 public class SimpleNullAllowedRule extends SimpleRule
@@ -37,7 +36,7 @@ public class SimpleNullAllowedRule extends SimpleRule
     {
         String value = node.getValue();
         List<ValidationResult> validationResults = new ArrayList<ValidationResult>();
-        if (!StringUtils.isEmpty(value) && !ConvertUtils.canBeConverted(value, getFieldClass()))
+        if (!StringUtils.isEmpty(value) && !getConverter().canConvert(value))
         {
             validationResults.add(ValidationResult.createErrorResult(getRuleTypeMisMatch(getName(), getFieldClass().getSimpleName()), node));
         }
@@ -26,6 +26,7 @@ import org.apache.commons.lang.StringUtils;
 import org.raml.parser.resolver.DefaultScalarTupleHandler;
 import org.raml.parser.utils.ConvertUtils;
 import org.raml.parser.utils.NodeUtils;
+import org.raml.parser.utils.ScalarConverter;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
 
@@ -35,6 +36,7 @@ public class SimpleRule extends DefaultTupleRule<ScalarNode, ScalarNode>
     private ScalarNode keyNode;
     private ScalarNode valueNode;
     private Class<?> fieldClass;
+    private ScalarConverter<?> converter;
 
     public SimpleRule(String fieldName, Class<?> fieldClass)
     {
@@ -66,7 +68,7 @@ public class SimpleRule extends DefaultTupleRule<ScalarNode, ScalarNode>
             String ruleName = getName() == null ? String.valueOf(NodeUtils.getNodeValue(warnNode)) : getName();
             validationResults.add(ValidationResult.createWarnResult(getRuleEmptyMessage(ruleName), warnNode));
         }
-        if (!ConvertUtils.canBeConverted(value, getFieldClass()))
+        if (!getConverter().canConvert(value))
         {
             validationResults.add(ValidationResult.createErrorResult(getRuleTypeMisMatch(getName(), getFieldClass().getSimpleName()), node));
         }
@@ -96,6 +98,20 @@ public class SimpleRule extends DefaultTupleRule<ScalarNode, ScalarNode>
         return copy;
     }
 
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(SimpleRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        keyNode = null;
+        valueNode = null;
+        return super.resetState();
+    }
+
     public void setKeyNode(ScalarNode rulePresent)
     {
         this.keyNode = rulePresent;
@@ -124,5 +140,11 @@ public class SimpleRule extends DefaultTupleRule<ScalarNode, ScalarNode>
     public void setFieldClass(Class<?> fieldClass)
     {
         this.fieldClass = fieldClass;
+        this.converter = ConvertUtils.getConverter(fieldClass);
+    }
+
+    public ScalarConverter<?> getConverter()
+    {
+        return converter;
     }
 }
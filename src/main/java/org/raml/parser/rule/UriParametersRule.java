@@ -108,6 +108,20 @@ public class UriParametersRule extends DefaultTupleRule<ScalarNode, MappingNode>
         return copy;
     }
 
+    @Override
+    public boolean reset()
+    {
+        return isClassToReset(UriParametersRule.class) && resetState();
+    }
+
+    @Override
+    protected boolean resetState()
+    {
+        errors.clear();
+        keyNode = null;
+        return super.resetState();
+    }
+
     public void setKeyNode(ScalarNode rulePresent)
     {
         this.keyNode = rulePresent;
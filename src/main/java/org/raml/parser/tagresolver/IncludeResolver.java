@@ -21,16 +21,19 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.raml.parser.loader.ResourceLoader;
 import org.raml.parser.utils.StreamUtils;
 import org.raml.parser.visitor.NodeHandler;
+import org.raml.parser.visitor.ParseListener;
+import org.raml.parser.visitor.ParseListenerAware;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.NodeId;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.Tag;
 
-public class IncludeResolver implements TagResolver, ContextPathAware
+public class IncludeResolver implements TagResolver, ContextPathAware, ParseListenerAware
 {
 
     public static final Tag INCLUDE_TAG = new Tag("!include");
@@ -38,6 +41,7 @@ public class IncludeResolver implements TagResolver, ContextPathAware
     public static final String SEPARATOR = "_";
     public static final String INCLUDE_APPLIED_TAG = "!include-applied" + SEPARATOR;
     private ContextPath contextPath;
+    private ParseListener parseListener;
 
     @Override
     public boolean handles(Tag tag)
@@ -62,6 +66,7 @@ public class IncludeResolver implements TagResolver, ContextPathAware
         }
         ScalarNode scalarNode = (ScalarNode) node;
         String resourceName = contextPath.resolveAbsolutePath(scalarNode.getValue());
+        long startTime = parseListener != null ? System.nanoTime() : 0;
         InputStream inputStream = resourceLoader.fetchResource(resourceName);
 
         if (inputStream == null)
@@ -69,6 +74,12 @@ public class IncludeResolver implements TagResolver, ContextPathAware
             nodeHandler.onCustomTagError(INCLUDE_TAG, node, "Include cannot be resolved " + resourceName);
             return mockInclude(node);
         }
+        CountingInputStream countingStream = null;
+        if (parseListener != null)
+        {
+            countingStream = new CountingInputStream(inputStream);
+            inputStream = countingStream;
+        }
 
         InputStreamReader reader = null;
         try
@@ -84,6 +95,10 @@ public class IncludeResolver implements TagResolver, ContextPathAware
                 String newValue = StreamUtils.toString(inputStream);
                 includeNode = new IncludeScalarNode(resourceName, newValue, scalarNode);
             }
+            if (countingStream != null)
+            {
+                parseListener.onInclude(resourceName, countingStream.getByteCount(), System.nanoTime() - startTime);
+            }
             if (includeNode == null)
             {
                 nodeHandler.onCustomTagError(INCLUDE_TAG, node, "Include file is empty " + resourceName);
@@ -136,6 +151,12 @@ public class IncludeResolver implements TagResolver, ContextPathAware
         this.contextPath = contextPath;
     }
 
+    @Override
+    public void setParseListener(ParseListener parseListener)
+    {
+        this.parseListener = parseListener;
+    }
+
     @Override
     public ContextPath getContextPath()
     {
@@ -41,24 +41,34 @@ public class BooleanConverter implements Converter
         try
         {
             String stringValue = value.toString();
-            if (stringValue.equalsIgnoreCase("yes") || stringValue.equals("y")
-                || stringValue.equalsIgnoreCase("true") || stringValue.equals("t"))
-            {
-                return (Boolean.TRUE);
-            }
-            else if (stringValue.equalsIgnoreCase("no") || stringValue.equals("n")
-                     || stringValue.equalsIgnoreCase("false") || stringValue.equalsIgnoreCase("f"))
-            {
-                return (Boolean.FALSE);
-            }
-            else
+            Boolean result = toBoolean(stringValue);
+            if (result == null)
             {
                 throw new ConversionException(stringValue);
             }
+            return result;
         }
         catch (ClassCastException e)
         {
             throw new ConversionException(e);
         }
     }
+
+    /**
+     * @return the boolean value of a string, or <tt>null</tt> if it is not a boolean
+     */
+    public static Boolean toBoolean(String stringValue)
+    {
+        if (stringValue.equalsIgnoreCase("yes") || stringValue.equals("y")
+            || stringValue.equalsIgnoreCase("true") || stringValue.equals("t"))
+        {
+            return Boolean.TRUE;
+        }
+        else if (stringValue.equalsIgnoreCase("no") || stringValue.equals("n")
+                 || stringValue.equalsIgnoreCase("false") || stringValue.equalsIgnoreCase("f"))
+        {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
 }
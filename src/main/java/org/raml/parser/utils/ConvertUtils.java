@@ -16,75 +16,353 @@
 package org.raml.parser.utils;
 
 import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.beanutils.ConversionException;
 import org.apache.commons.lang.ClassUtils;
 
+/**
+ * Conversion of scalar values to the types of the model fields.
+ * <p/>
+ * A converter is created once per target type and shared by every parse and thread.
+ * Enums, booleans, strings and the number types the model uses are converted without
+ * reflection, other types with a public constructor taking a string are created with it,
+ * and anything else, or any value those cannot convert, is left to commons-beanutils.
+ */
 public class ConvertUtils
 {
 
-    private static BooleanConverter booleanConverter = new BooleanConverter();
+    private static final ConcurrentMap<Class<?>, ScalarConverter<?>> CONVERTERS = new ConcurrentHashMap<Class<?>, ScalarConverter<?>>();
+
+    static
+    {
+        register(new StringConstructorConverter<String>(String.class)
+        {
+            @Override
+            protected String newInstance(String value)
+            {
+                return value;
+            }
+        });
+        register(new StringConstructorConverter<Integer>(Integer.class)
+        {
+            @Override
+            protected Integer newInstance(String value)
+            {
+                return Integer.valueOf(value);
+            }
+        });
+        register(new StringConstructorConverter<Long>(Long.class)
+        {
+            @Override
+            protected Long newInstance(String value)
+            {
+                return Long.valueOf(value);
+            }
+        });
+        register(new StringConstructorConverter<Short>(Short.class)
+        {
+            @Override
+            protected Short newInstance(String value)
+            {
+                return Short.valueOf(value);
+            }
+        });
+        register(new StringConstructorConverter<Byte>(Byte.class)
+        {
+            @Override
+            protected Byte newInstance(String value)
+            {
+                return Byte.valueOf(value);
+            }
+        });
+        register(new StringConstructorConverter<Float>(Float.class)
+        {
+            @Override
+            protected Float newInstance(String value)
+            {
+                return Float.valueOf(value);
+            }
+        });
+        register(new StringConstructorConverter<Double>(Double.class)
+        {
+            @Override
+            protected Double newInstance(String value)
+            {
+                return Double.valueOf(value);
+            }
+        });
+        register(new StringConstructorConverter<BigDecimal>(BigDecimal.class)
+        {
+            @Override
+            protected BigDecimal newInstance(String value)
+            {
+                return new BigDecimal(value);
+            }
+        });
+        register(new StringConstructorConverter<BigInteger>(BigInteger.class)
+        {
+            @Override
+            protected BigInteger newInstance(String value)
+            {
+                return new BigInteger(value);
+            }
+        });
+    }
+
+    private static void register(StringConstructorConverter<?> converter)
+    {
+        CONVERTERS.put(converter.type, converter);
+    }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static <T> T convertTo(String value, Class<T> type)
+    {
+        return getConverter(type).convert(value);
+    }
+
+    public static boolean canBeConverted(String value, Class<?> type)
+    {
+        return getConverter(type).canConvert(value);
+    }
+
+    /**
+     * @return the converter to the given type, primitive types are converted to their wrapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ScalarConverter<T> getConverter(Class<T> type)
+    {
+        ScalarConverter<T> converter = (ScalarConverter<T>) CONVERTERS.get(type);
+        if (converter == null)
+        {
+            converter = createConverter(type);
+            CONVERTERS.putIfAbsent(type, converter);
+        }
+        return converter;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> ScalarConverter<T> createConverter(Class<T> type)
     {
         if (type.isEnum())
         {
-            return type.cast(Enum.valueOf((Class) type, value.toUpperCase()));
+            return new EnumConverter(type);
         }
-        Class<T> clazz = type;
-        if (type.isPrimitive())
+        Class<T> wrapperClass = ClassUtils.primitiveToWrapper(type);
+        if (wrapperClass == Boolean.class)
         {
-            clazz = ClassUtils.primitiveToWrapper(type);
+            return (ScalarConverter<T>) new BooleanValueConverter(type.isPrimitive());
         }
-        if (clazz.getName().equals(Boolean.class.getName()))
+        if (type.isPrimitive())
         {
-            return clazz.cast(booleanConverter.convert(Boolean.class, value));
+            return new PrimitiveConverter<T>(type, wrapperClass);
         }
         try
         {
-            Constructor constructor = type.getConstructor(String.class);
-            return (T) constructor.newInstance(value);
+            return new ReflectiveConstructorConverter<T>(type, type.getConstructor(String.class));
         }
-        catch (Exception e)
+        catch (NoSuchMethodException e)
         {
-            //ignore;
+            return new DefaultConverter<T>(type);
         }
+    }
 
-        return clazz.cast(org.apache.commons.beanutils.ConvertUtils.convert(value, type));
+    private static <T> T convertWithBeanUtils(String value, Class<T> type, Class<T> resultType)
+    {
+        return resultType.cast(org.apache.commons.beanutils.ConvertUtils.convert(value, type));
     }
 
-    public static boolean canBeConverted(String value, Class<?> type)
+    /**
+     * Enum constants by upper case name.
+     */
+    private static class EnumConverter<T extends Enum<T>> implements ScalarConverter<T>
     {
-        if (type.isEnum())
+
+        private final Class<T> type;
+        private final Map<String, T> constants = new HashMap<String, T>();
+        private final Set<String> constantStrings = new HashSet<String>();
+
+        EnumConverter(Class<T> type)
         {
-            Object[] enumConstants = type.getEnumConstants();
-            for (Object enumConstant : enumConstants)
+            this.type = type;
+            for (T constant : type.getEnumConstants())
             {
-                if (enumConstant.toString().equals(value.toUpperCase()))
-                {
-                    return true;
-                }
+                constants.put(constant.name(), constant);
+                constantStrings.add(constant.toString());
             }
-            return false;
         }
-        if (type.isInstance(value))
+
+        @Override
+        public T convert(String value)
         {
-            return true;
+            String name = value.toUpperCase();
+            T constant = constants.get(name);
+            if (constant == null)
+            {
+                throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + name);
+            }
+            return constant;
         }
-        try
+
+        @Override
+        public boolean canConvert(String value)
+        {
+            return constantStrings.contains(value.toUpperCase());
+        }
+    }
+
+    /**
+     * Booleans as read by {@link BooleanConverter}. Boolean wrappers accept any value
+     * when validating, as they can be created from any string.
+     */
+    private static class BooleanValueConverter implements ScalarConverter<Boolean>
+    {
+
+        private final boolean primitive;
+
+        BooleanValueConverter(boolean primitive)
+        {
+            this.primitive = primitive;
+        }
+
+        @Override
+        public Boolean convert(String value)
+        {
+            Boolean result = BooleanConverter.toBoolean(value);
+            if (result == null)
+            {
+                throw new ConversionException(value);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean canConvert(String value)
+        {
+            return !primitive || BooleanConverter.toBoolean(value) != null;
+        }
+    }
+
+    /**
+     * Types with a public constructor taking a string, falling back to commons-beanutils
+     * for the values the constructor rejects.
+     */
+    private abstract static class StringConstructorConverter<T> implements ScalarConverter<T>
+    {
+
+        private final Class<T> type;
+
+        StringConstructorConverter(Class<T> type)
+        {
+            this.type = type;
+        }
+
+        protected abstract T newInstance(String value) throws Exception;
+
+        @Override
+        public T convert(String value)
+        {
+            try
+            {
+                return newInstance(value);
+            }
+            catch (Exception e)
+            {
+                //ignore
+            }
+            return convertWithBeanUtils(value, type, type);
+        }
+
+        @Override
+        public boolean canConvert(String value)
         {
-            type.getConstructor(String.class);
             return true;
         }
-        catch (NoSuchMethodException e)
+    }
+
+    private static class ReflectiveConstructorConverter<T> extends StringConstructorConverter<T>
+    {
+
+        private final Constructor<T> constructor;
+
+        ReflectiveConstructorConverter(Class<T> type, Constructor<T> constructor)
+        {
+            super(type);
+            this.constructor = constructor;
+        }
+
+        @Override
+        protected T newInstance(String value) throws Exception
+        {
+            return constructor.newInstance(value);
+        }
+    }
+
+    /**
+     * Primitives other than booleans, converted by commons-beanutils.
+     */
+    private static class PrimitiveConverter<T> implements ScalarConverter<T>
+    {
+
+        private final Class<T> type;
+        private final Class<T> wrapperClass;
+
+        PrimitiveConverter(Class<T> type, Class<T> wrapperClass)
+        {
+            this.type = type;
+            this.wrapperClass = wrapperClass;
+        }
+
+        @Override
+        public T convert(String value)
+        {
+            return convertWithBeanUtils(value, type, wrapperClass);
+        }
+
+        @Override
+        public boolean canConvert(String value)
         {
-            //ignore
+            return canConvertTo(value, wrapperClass);
         }
+    }
+
+    /**
+     * Types without a constructor taking a string, converted by commons-beanutils.
+     */
+    private static class DefaultConverter<T> implements ScalarConverter<T>
+    {
+
+        private final Class<T> type;
+
+        DefaultConverter(Class<T> type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        public T convert(String value)
+        {
+            return convertWithBeanUtils(value, type, type);
+        }
+
+        @Override
+        public boolean canConvert(String value)
+        {
+            return type.isInstance(value) || canConvertTo(value, type);
+        }
+    }
+
+    private static boolean canConvertTo(String value, Class<?> type)
+    {
         try
         {
-            Class<?> wrapperClass = ClassUtils.primitiveToWrapper(type);
-            convertTo(value, wrapperClass);
+            getConverter(type).convert(value);
             return true;
         }
         catch (ClassCastException e)
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import org.raml.parser.annotation.Key;
+import org.raml.parser.annotation.Mapping;
+import org.raml.parser.annotation.Parent;
+import org.raml.parser.annotation.Scalar;
+import org.raml.parser.annotation.Sequence;
+
+/**
+ * Annotations and generic types of a model class field.
+ */
+public class FieldMetadata
+{
+
+    private final Field field;
+    private final Scalar scalar;
+    private final Mapping mapping;
+    private final Sequence sequence;
+    private final Key key;
+    private final Parent parent;
+    private final String alias;
+    private final Type keyType;
+    private final Type valueType;
+
+    FieldMetadata(Field field)
+    {
+        this.field = field;
+        this.scalar = field.getAnnotation(Scalar.class);
+        this.mapping = field.getAnnotation(Mapping.class);
+        this.sequence = field.getAnnotation(Sequence.class);
+        this.key = field.getAnnotation(Key.class);
+        this.parent = field.getAnnotation(Parent.class);
+        if (scalar != null)
+        {
+            alias = scalar.alias();
+        }
+        else if (mapping != null)
+        {
+            alias = mapping.alias();
+        }
+        else if (sequence != null)
+        {
+            alias = sequence.alias();
+        }
+        else
+        {
+            alias = null;
+        }
+
+        Type genericType = field.getGenericType();
+        Type[] arguments = genericType instanceof ParameterizedType ? ((ParameterizedType) genericType).getActualTypeArguments() : null;
+        if (arguments != null && Map.class.isAssignableFrom(field.getType()))
+        {
+            keyType = arguments[0];
+            valueType = arguments[1];
+        }
+        else if (arguments != null && List.class.isAssignableFrom(field.getType()))
+        {
+            keyType = null;
+            valueType = arguments[0];
+        }
+        else
+        {
+            keyType = null;
+            valueType = null;
+        }
+        if (isAnnotated())
+        {
+            field.setAccessible(true);
+        }
+    }
+
+    public Field getField()
+    {
+        return field;
+    }
+
+    public String getName()
+    {
+        return field.getName();
+    }
+
+    public Class<?> getType()
+    {
+        return field.getType();
+    }
+
+    public Scalar getScalar()
+    {
+        return scalar;
+    }
+
+    public Mapping getMapping()
+    {
+        return mapping;
+    }
+
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    public Key getKey()
+    {
+        return key;
+    }
+
+    public Parent getParent()
+    {
+        return parent;
+    }
+
+    /**
+     * @return true if the field is annotated with <tt>@Scalar</tt>, <tt>@Mapping</tt> or <tt>@Sequence</tt>
+     */
+    public boolean isAnnotated()
+    {
+        return scalar != null || mapping != null || sequence != null;
+    }
+
+    /**
+     * @return the alias of the <tt>@Scalar</tt>, <tt>@Mapping</tt> or <tt>@Sequence</tt>
+     *         annotation, empty if it has none
+     */
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    /**
+     * @return the key of the field in a RAML document, its alias or else its name
+     */
+    public String getSerializedName()
+    {
+        return alias == null || alias.isEmpty() ? field.getName() : alias;
+    }
+
+    /**
+     * @return the key type of a parameterized map, or <tt>null</tt>
+     */
+    public Type getKeyType()
+    {
+        return keyType;
+    }
+
+    /**
+     * @return the value type of a parameterized map or the item type of a parameterized
+     *         list, or <tt>null</tt>
+     */
+    public Type getValueType()
+    {
+        return valueType;
+    }
+}
@@ -19,20 +19,27 @@ package org.raml.parser.utils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Inflector
 {
 
-    private static List<String[]> singulars, plurals, irregulars;
+    private static final int MAX_CACHED_WORDS = 1024;
+
+    private static List<Rule> singulars, plurals;
+    private static List<String[]> irregulars;
     private static List<String> uncountables;
+    private static final Map<String, String> pluralCache = new ConcurrentHashMap<String, String>();
+    private static final Map<String, String> singularCache = new ConcurrentHashMap<String, String>();
 
     static
     {
-        singulars = new ArrayList<String[]>();
-        plurals = new ArrayList<String[]>();
+        singulars = new ArrayList<Rule>();
+        plurals = new ArrayList<Rule>();
         irregulars = new ArrayList<String[]>();
         uncountables = new ArrayList<String>();
 
@@ -94,12 +101,12 @@ public class Inflector
 
     private static void addPlural(String rule, String replacement)
     {
-        plurals.add(0, new String[] {rule, replacement});
+        plurals.add(0, new Rule(rule, replacement));
     }
 
     private static void addSingular(String rule, String replacement)
     {
-        singulars.add(0, new String[] {rule, replacement});
+        singulars.add(0, new Rule(rule, replacement));
     }
 
     private static void addIrregular(String rule, String replacement)
@@ -109,18 +116,54 @@ public class Inflector
 
 
     /**
-     * Replaces a found pattern in a word and returns a transformed word.
-     *
-     * @return Replaces a found pattern in a word and returns a transformed word. Null is pattern does not match.
+     * Inflection rule with its pattern compiled once.
      */
-    private static String gsub(String word, String rule, String replacement)
+    private static class Rule
+    {
+
+        private final Pattern pattern;
+        private final String replacement;
+
+        Rule(String rule, String replacement)
+        {
+            this.pattern = Pattern.compile(rule, Pattern.CASE_INSENSITIVE);
+            this.replacement = replacement;
+        }
+
+        /**
+         * Replaces a found pattern in a word and returns a transformed word.
+         *
+         * @return Replaces a found pattern in a word and returns a transformed word. Null is pattern does not match.
+         */
+        String gsub(String word)
+        {
+            Matcher matcher = pattern.matcher(word);
+            return matcher.find() ? matcher.replaceFirst(replacement) : null;
+        }
+    }
+
+    private static void cache(Map<String, String> cache, String word, String inflection)
     {
-        Pattern pattern = Pattern.compile(rule, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(word);
-        return matcher.find() ? matcher.replaceFirst(replacement) : null;
+        //words come from the parsed documents, keep the cache bounded
+        if (cache.size() >= MAX_CACHED_WORDS)
+        {
+            cache.clear();
+        }
+        cache.put(word, inflection);
     }
 
     public static String pluralize(String word)
+    {
+        String plural = pluralCache.get(word);
+        if (plural == null)
+        {
+            plural = inflectPlural(word);
+            cache(pluralCache, word, plural);
+        }
+        return plural;
+    }
+
+    private static String inflectPlural(String word)
     {
 
         if (uncountables.contains(word))
@@ -136,9 +179,9 @@ public class Inflector
             }
         }
 
-        for (String[] pair : plurals)
+        for (Rule rule : plurals)
         {
-            String plural = gsub(word, pair[0], pair[1]);
+            String plural = rule.gsub(word);
             if (plural != null)
             {
                 return plural;
@@ -150,6 +193,17 @@ public class Inflector
 
 
     public static String singularize(String word)
+    {
+        String singular = singularCache.get(word);
+        if (singular == null)
+        {
+            singular = inflectSingular(word);
+            cache(singularCache, word, singular);
+        }
+        return singular;
+    }
+
+    private static String inflectSingular(String word)
     {
 
         if (uncountables.contains(word))
@@ -165,9 +219,9 @@ public class Inflector
             }
         }
 
-        for (String[] pair : singulars)
+        for (Rule rule : singulars)
         {
-            String singular = gsub(word, pair[0], pair[1]);
+            String singular = rule.gsub(word);
             if (singular != null)
             {
                 return singular;
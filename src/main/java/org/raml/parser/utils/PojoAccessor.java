@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+/**
+ * Accessor of the annotated properties of a model class that does not use reflection.
+ * <p/>
+ * Accessors are generated at compile time by
+ * {@link org.raml.parser.annotation.processing.PojoAccessorProcessor} in the package of the
+ * model class, with the name of the class followed by {@link #SUFFIX}. The parser uses the
+ * accessor of a class when there is one, and reflection for classes and properties it does
+ * not handle.
+ */
+public interface PojoAccessor
+{
+
+    String SUFFIX = "PojoAccessor";
+
+    /**
+     * @return true if {@link #setProperty(Object, String, Object)} handles the property
+     */
+    boolean isWritable(String property);
+
+    /**
+     * @return true if {@link #getProperty(Object, String)} handles the property
+     */
+    boolean isReadable(String property);
+
+    void setProperty(Object pojo, String property, Object value);
+
+    Object getProperty(Object pojo, String property);
+
+    /**
+     * Creates an instance with the constructor the parser would pick, the first one whose
+     * parameters are all annotated with <tt>@Key</tt> or <tt>@Value</tt>.
+     *
+     * @param key   the key of the node the instance is built from
+     * @param value the value of that node
+     * @return the new instance, or <tt>null</tt> if the accessor cannot create it
+     */
+    Object newInstance(String key, Object value);
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Annotation metadata of a model class.
+ * <p/>
+ * The inherited fields of a class and their annotations are read once and shared by the
+ * builders, the rules and the emitter of every parse and thread, so model classes are
+ * not inspected again for each node.
+ */
+public class PojoMetadata
+{
+
+    private static final ConcurrentMap<Class<?>, PojoMetadata> METADATA = new ConcurrentHashMap<Class<?>, PojoMetadata>();
+
+    private final List<FieldMetadata> fields;
+    private final List<FieldMetadata> keyFields;
+    private final List<FieldMetadata> parentFields;
+    private final Map<String, String> fieldNames;
+
+    private PojoMetadata(Class<?> pojoClass)
+    {
+        List<FieldMetadata> fields = new ArrayList<FieldMetadata>();
+        List<FieldMetadata> keyFields = new ArrayList<FieldMetadata>();
+        List<FieldMetadata> parentFields = new ArrayList<FieldMetadata>();
+        Map<String, String> fieldNames = new HashMap<String, String>();
+        for (Field declaredField : ReflectionUtils.getInheritedFields(pojoClass))
+        {
+            FieldMetadata field = new FieldMetadata(declaredField);
+            if (field.isAnnotated())
+            {
+                fields.add(field);
+                if (!fieldNames.containsKey(field.getAlias()))
+                {
+                    fieldNames.put(field.getAlias(), field.getName());
+                }
+            }
+            if (field.getKey() != null)
+            {
+                keyFields.add(field);
+            }
+            if (field.getParent() != null)
+            {
+                parentFields.add(field);
+            }
+        }
+        this.fields = Collections.unmodifiableList(fields);
+        this.keyFields = Collections.unmodifiableList(keyFields);
+        this.parentFields = Collections.unmodifiableList(parentFields);
+        this.fieldNames = fieldNames;
+    }
+
+    public static PojoMetadata of(Class<?> pojoClass)
+    {
+        PojoMetadata metadata = METADATA.get(pojoClass);
+        if (metadata == null)
+        {
+            metadata = new PojoMetadata(pojoClass);
+            PojoMetadata previous = METADATA.putIfAbsent(pojoClass, metadata);
+            if (previous != null)
+            {
+                metadata = previous;
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * @return the fields annotated with <tt>@Scalar</tt>, <tt>@Mapping</tt> or <tt>@Sequence</tt>,
+     *         declared ones first and then the inherited ones
+     */
+    public List<FieldMetadata> getFields()
+    {
+        return fields;
+    }
+
+    /**
+     * @return the fields annotated with <tt>@Key</tt>
+     */
+    public List<FieldMetadata> getKeyFields()
+    {
+        return keyFields;
+    }
+
+    /**
+     * @return the fields annotated with <tt>@Parent</tt>
+     */
+    public List<FieldMetadata> getParentFields()
+    {
+        return parentFields;
+    }
+
+    /**
+     * @return the name of the first field with the given alias, or the alias itself
+     *         if no field has it
+     */
+    public String unalias(String alias)
+    {
+        String fieldName = fieldNames.get(alias);
+        return fieldName != null ? fieldName : alias;
+    }
+}
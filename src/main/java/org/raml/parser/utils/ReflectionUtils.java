@@ -15,23 +15,65 @@
  */
 package org.raml.parser.utils;
 
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.apache.commons.beanutils.PropertyUtilsBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
 
 public class ReflectionUtils
 {
 
     private static final Set<Class<?>> WRAPPERS_PLUS_STRING = new HashSet<Class<?>>();
+    private static final ConcurrentMap<Class<?>, Map<String, PropertyAccessor>> PROPERTY_ACCESSORS = new ConcurrentHashMap<Class<?>, Map<String, PropertyAccessor>>();
+    private static final ConcurrentMap<Class<?>, PojoAccessor> POJO_ACCESSORS = new ConcurrentHashMap<Class<?>, PojoAccessor>();
+    private static final PojoAccessor NO_POJO_ACCESSOR = new PojoAccessor()
+    {
+        @Override
+        public boolean isWritable(String property)
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isReadable(String property)
+        {
+            return false;
+        }
+
+        @Override
+        public void setProperty(Object pojo, String property, Object value)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getProperty(Object pojo, String property)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object newInstance(String key, Object value)
+        {
+            return null;
+        }
+    };
 
     static
     {
@@ -78,7 +120,19 @@ public class ReflectionUtils
         {
             try
             {
-                new PropertyUtilsBean().setProperty(parent, fieldName, value);
+                PojoAccessor pojoAccessor = getPojoAccessor(parent.getClass());
+                if (pojoAccessor.isWritable(fieldName))
+                {
+                    setProperty(pojoAccessor, parent, fieldName, value);
+                }
+                else if (isSimpleProperty(fieldName))
+                {
+                    invoke(getAccessor(parent.getClass(), fieldName).getSetter(parent, fieldName), parent, value);
+                }
+                else
+                {
+                    PropertyUtils.setProperty(parent, fieldName, value);
+                }
             }
             catch (IllegalAccessException e)
             {
@@ -95,6 +149,181 @@ public class ReflectionUtils
         }
     }
 
+    public static Object getProperty(Object bean, String fieldName)
+    {
+        if (bean instanceof Map)
+        {
+            return ((Map) bean).get(fieldName);
+        }
+        try
+        {
+            PojoAccessor pojoAccessor = getPojoAccessor(bean.getClass());
+            if (pojoAccessor.isReadable(fieldName))
+            {
+                return pojoAccessor.getProperty(bean, fieldName);
+            }
+            if (isSimpleProperty(fieldName))
+            {
+                return invoke(getAccessor(bean.getClass(), fieldName).getGetter(bean, fieldName), bean);
+            }
+            return PropertyUtils.getProperty(bean, fieldName);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new RuntimeException(e);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void setProperty(PojoAccessor pojoAccessor, Object bean, String fieldName, Object value)
+    {
+        try
+        {
+            pojoAccessor.setProperty(bean, fieldName, value);
+        }
+        catch (ClassCastException e)
+        {
+            throw new IllegalArgumentException("Cannot set " + bean.getClass().getName() + "." + fieldName
+                                               + " - " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the generated accessor of the class, or an accessor that handles
+     *         no property if there is none
+     */
+    public static PojoAccessor getPojoAccessor(Class<?> pojoClass)
+    {
+        PojoAccessor pojoAccessor = POJO_ACCESSORS.get(pojoClass);
+        if (pojoAccessor == null)
+        {
+            pojoAccessor = loadPojoAccessor(pojoClass);
+            POJO_ACCESSORS.putIfAbsent(pojoClass, pojoAccessor);
+        }
+        return pojoAccessor;
+    }
+
+    private static PojoAccessor loadPojoAccessor(Class<?> pojoClass)
+    {
+        try
+        {
+            Class<?> accessorClass = Class.forName(pojoClass.getName() + PojoAccessor.SUFFIX, true, pojoClass.getClassLoader());
+            if (PojoAccessor.class.isAssignableFrom(accessorClass))
+            {
+                return (PojoAccessor) accessorClass.newInstance();
+            }
+        }
+        catch (ClassNotFoundException e)
+        {
+            // no generated accessor
+        }
+        catch (InstantiationException e)
+        {
+            throw new RuntimeException(e);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return NO_POJO_ACCESSOR;
+    }
+
+    private static boolean isSimpleProperty(String fieldName)
+    {
+        return fieldName != null && fieldName.indexOf('.') < 0 && fieldName.indexOf('[') < 0 && fieldName.indexOf('(') < 0;
+    }
+
+    private static Object invoke(Method method, Object bean, Object... arguments) throws IllegalAccessException, InvocationTargetException
+    {
+        try
+        {
+            return method.invoke(bean, arguments);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Cannot invoke " + method.getDeclaringClass().getName() + "." + method.getName()
+                                               + " - " + e.getMessage(), e);
+        }
+    }
+
+    private static PropertyAccessor getAccessor(Class<?> beanClass, String fieldName) throws NoSuchMethodException
+    {
+        Map<String, PropertyAccessor> accessors = PROPERTY_ACCESSORS.get(beanClass);
+        if (accessors == null)
+        {
+            accessors = createAccessors(beanClass);
+            PROPERTY_ACCESSORS.putIfAbsent(beanClass, accessors);
+        }
+        PropertyAccessor accessor = accessors.get(fieldName);
+        if (accessor == null)
+        {
+            throw new NoSuchMethodException("Unknown property '" + fieldName + "' on class '" + beanClass + "'");
+        }
+        return accessor;
+    }
+
+    private static Map<String, PropertyAccessor> createAccessors(Class<?> beanClass)
+    {
+        PropertyDescriptor[] descriptors;
+        try
+        {
+            descriptors = Introspector.getBeanInfo(beanClass).getPropertyDescriptors();
+        }
+        catch (IntrospectionException e)
+        {
+            throw new RuntimeException(e);
+        }
+        Map<String, PropertyAccessor> accessors = new HashMap<String, PropertyAccessor>();
+        for (PropertyDescriptor descriptor : descriptors)
+        {
+            Method getter = descriptor.getReadMethod() == null ? null : MethodUtils.getAccessibleMethod(beanClass, descriptor.getReadMethod());
+            Method setter = descriptor.getWriteMethod() == null ? null : MethodUtils.getAccessibleMethod(beanClass, descriptor.getWriteMethod());
+            accessors.put(descriptor.getName(), new PropertyAccessor(getter, setter));
+        }
+        return accessors;
+    }
+
+    /**
+     * Getter and setter of a bean property, looked up once per bean class.
+     */
+    private static class PropertyAccessor
+    {
+
+        private final Method getter;
+        private final Method setter;
+
+        PropertyAccessor(Method getter, Method setter)
+        {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        Method getGetter(Object bean, String fieldName) throws NoSuchMethodException
+        {
+            if (getter == null)
+            {
+                throw new NoSuchMethodException("Property '" + fieldName + "' has no getter method in class '" + bean.getClass() + "'");
+            }
+            return getter;
+        }
+
+        Method getSetter(Object bean, String fieldName) throws NoSuchMethodException
+        {
+            if (setter == null)
+            {
+                throw new NoSuchMethodException("Property '" + fieldName + "' has no setter method in class '" + bean.getClass() + "'");
+            }
+            return setter;
+        }
+    }
+
     public static boolean isPojo(Class<?> type)
     {
         return !(isWrapperOrString(type) || isEnum(type) || type.isPrimitive());
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+/**
+ * Converter of scalar values to a target type.
+ *
+ * @see ConvertUtils#getConverter(Class)
+ */
+public interface ScalarConverter<T>
+{
+
+    T convert(String value);
+
+    /**
+     * @return true if the value can be converted to the target type, without
+     *         converting it when that can be told from the value alone
+     */
+    boolean canConvert(String value);
+}
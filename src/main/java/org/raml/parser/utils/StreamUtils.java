@@ -15,10 +15,10 @@
  */
 package org.raml.parser.utils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
 import java.io.Reader;
 
 import org.apache.commons.io.IOUtils;
@@ -26,6 +26,12 @@ import org.mozilla.universalchardet.UniversalDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Decodes RAML documents and included resources. The encoding is taken from the
+ * byte order mark if there is one, otherwise it is detected from the first
+ * {@link #SNIFF_SIZE} bytes only, and the content is decoded while it is read
+ * instead of being loaded into memory first.
+ */
 public class StreamUtils
 {
 
@@ -33,35 +39,54 @@ public class StreamUtils
 
     private static final String RAML_PARSER_ENCODING = "raml.parser.encoding";
 
+    /**
+     * Maximum number of bytes used to detect the encoding of content without a BOM.
+     */
+    public static final int SNIFF_SIZE = 8 * 1024;
+
     private static String getDefaultEncoding()
     {
         return System.getProperty(RAML_PARSER_ENCODING, "UTF-8");
     }
 
+    /**
+     * @return a reader that decodes the stream as it is read, without the BOM.
+     *         Closing the reader closes the stream
+     */
     public static Reader reader(InputStream stream)
     {
         try
         {
-            byte[] content = IOUtils.toByteArray(stream);
-            return new InputStreamReader(new ByteArrayInputStream(content), detectEncoding(content));
+            PushbackInputStream input = new PushbackInputStream(stream, SNIFF_SIZE);
+            byte[] prefix = new byte[SNIFF_SIZE];
+            int length = IOUtils.read(input, prefix);
+            int bomSize = getBomSize(prefix, length);
+            String encoding;
+            if (bomSize > 0)
+            {
+                encoding = getBomEncoding(prefix, bomSize);
+                LOGGER.debug(String.format("Trimming %s-byte BOM, using encoding: %s\n", bomSize, encoding));
+            }
+            else
+            {
+                encoding = detectEncoding(prefix, length);
+            }
+            input.unread(prefix, bomSize, length - bomSize);
+            return new InputStreamReader(input, encoding);
         }
         catch (IOException e)
-        {
-            throw new RuntimeException(e);
-        }
-        finally
         {
             IOUtils.closeQuietly(stream);
+            throw new RuntimeException(e);
         }
     }
 
     public static String toString(InputStream stream)
     {
+        Reader reader = reader(stream);
         try
         {
-            byte[] content = IOUtils.toByteArray(stream);
-            String encoding = detectEncoding(content);
-            return new String(trimBom(content), encoding);
+            return IOUtils.toString(reader);
         }
         catch (IOException e)
         {
@@ -69,54 +94,64 @@ public class StreamUtils
         }
         finally
         {
-            IOUtils.closeQuietly(stream);
+            IOUtils.closeQuietly(reader);
         }
     }
 
-    private static byte[] trimBom(byte[] content)
+    private static int getBomSize(byte[] content, int length)
     {
-        int bomSize = 0;
-        if (content.length > 4)
+        //check for UTF_32BE and UTF_32LE BOMs
+        if (length >= 4 &&
+            (content[0] == 0x00 && content[1] == 0x00 && content[2] == (byte) 0xFE && content[3] == (byte) 0xFF ||
+             content[0] == (byte) 0xFF && content[1] == (byte) 0xFE && content[2] == 0x00 && content[3] == 0x00))
         {
-            //check for UTF_32BE and UTF_32LE BOMs
-            if (content[0] == 0x00 && content[1] == 0x00 && content[2] == (byte) 0xFE && content[3] == (byte) 0xFF ||
-                content[0] == (byte) 0xFF && content[1] == (byte) 0xFE && content[2] == 0x00 && content[3] == 0x00)
-            {
-                bomSize = 4;
-            }
+            return 4;
         }
-        if (content.length > 3 && bomSize == 0)
+        //check for UTF-8 BOM
+        if (length >= 3 && content[0] == (byte) 0xEF && content[1] == (byte) 0xBB && content[2] == (byte) 0xBF)
         {
-            //check for UTF-8 BOM
-            if (content[0] == (byte) 0xEF && content[1] == (byte) 0xBB && content[2] == (byte) 0xBF)
-            {
-                bomSize = 3;
-            }
+            return 3;
         }
-        if (content.length > 2 && bomSize == 0)
+        //check for UTF_16BE and UTF_16LE BOMs
+        if (length >= 2 && (content[0] == (byte) 0xFE && content[1] == (byte) 0xFF || content[0] == (byte) 0xFF && content[1] == (byte) 0xFE))
         {
-            //check for UTF_16BE and UTF_16LE BOMs
-            if (content[0] == (byte) 0xFE && content[1] == (byte) 0xFF || content[0] == (byte) 0xFF && content[1] == (byte) 0xFE)
-            {
-                bomSize = 2;
-            }
+            return 2;
         }
+        return 0;
+    }
 
-        if (bomSize > 0)
+    private static String getBomEncoding(byte[] content, int bomSize)
+    {
+        switch (bomSize)
         {
-            LOGGER.debug(String.format("Trimming %s-byte BOM\n", bomSize));
-            int trimmedSize = content.length - bomSize;
-            byte[] trimmedArray = new byte[trimmedSize];
-            System.arraycopy(content, bomSize, trimmedArray, 0, trimmedSize);
-            return trimmedArray;
+            case 4:
+                return content[0] == 0x00 ? "UTF-32BE" : "UTF-32LE";
+            case 3:
+                return "UTF-8";
+            default:
+                return content[0] == (byte) 0xFE ? "UTF-16BE" : "UTF-16LE";
         }
-        return content;
     }
 
+    /**
+     * Detects the encoding of the content from its BOM or from its first
+     * {@link #SNIFF_SIZE} bytes.
+     */
     public static String detectEncoding(byte[] content)
+    {
+        int length = Math.min(content.length, SNIFF_SIZE);
+        int bomSize = getBomSize(content, length);
+        if (bomSize > 0)
+        {
+            return getBomEncoding(content, bomSize);
+        }
+        return detectEncoding(content, length);
+    }
+
+    private static String detectEncoding(byte[] content, int length)
     {
         UniversalDetector detector = new UniversalDetector(null);
-        detector.handleData(content, 0, content.length);
+        detector.handleData(content, 0, length);
         detector.dataEnd();
         String encoding = detector.getDetectedCharset();
         if (encoding != null)
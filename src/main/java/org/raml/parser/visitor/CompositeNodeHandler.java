@@ -0,0 +1,332 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.loader.ResourceLoaderAware;
+import org.raml.parser.tagresolver.ContextPath;
+import org.raml.parser.tagresolver.ContextPathAware;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Dispatches the events of a single {@link NodeVisitor} traversal to several handlers.
+ * <p/>
+ * The primary handler drives the traversal: its return values decide whether children
+ * are visited and its exceptions are propagated. Secondary handlers are notified after
+ * the primary one; a secondary handler that throws is detached from the traversal and
+ * its failure is kept so it can be queried once the document has been visited.
+ */
+public class CompositeNodeHandler implements NodeHandler, ContextPathAware, ResourceLoaderAware
+{
+
+    private NodeHandler primary;
+    private List<NodeHandler> secondaries;
+    private Map<NodeHandler, RuntimeException> failures = new LinkedHashMap<NodeHandler, RuntimeException>();
+    private ContextPath contextPath;
+
+    public CompositeNodeHandler(NodeHandler primary, NodeHandler... secondaries)
+    {
+        this.primary = primary;
+        this.secondaries = new ArrayList<NodeHandler>(Arrays.asList(secondaries));
+    }
+
+    public boolean hasFailed(NodeHandler handler)
+    {
+        return failures.containsKey(handler);
+    }
+
+    public RuntimeException getFailure(NodeHandler handler)
+    {
+        return failures.get(handler);
+    }
+
+    /**
+     * Notifies the secondary handlers of an event, detaching the ones that fail.
+     */
+    private void notifySecondaries(Event event)
+    {
+        for (Iterator<NodeHandler> iterator = secondaries.iterator(); iterator.hasNext(); )
+        {
+            NodeHandler handler = iterator.next();
+            try
+            {
+                event.dispatch(handler);
+            }
+            catch (RuntimeException e)
+            {
+                iterator.remove();
+                failures.put(handler, e);
+            }
+        }
+    }
+
+    private interface Event
+    {
+
+        void dispatch(NodeHandler handler);
+    }
+
+    @Override
+    public boolean onMappingNodeStart(final MappingNode mappingNode, final TupleType tupleType)
+    {
+        boolean keepOnVisiting = primary.onMappingNodeStart(mappingNode, tupleType);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onMappingNodeStart(mappingNode, tupleType);
+            }
+        });
+        return keepOnVisiting;
+    }
+
+    @Override
+    public void onMappingNodeEnd(final MappingNode mappingNode, final TupleType tupleType)
+    {
+        primary.onMappingNodeEnd(mappingNode, tupleType);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onMappingNodeEnd(mappingNode, tupleType);
+            }
+        });
+    }
+
+    @Override
+    public boolean onSequenceStart(final SequenceNode sequenceNode, final TupleType tupleType)
+    {
+        boolean keepOnVisiting = primary.onSequenceStart(sequenceNode, tupleType);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onSequenceStart(sequenceNode, tupleType);
+            }
+        });
+        return keepOnVisiting;
+    }
+
+    @Override
+    public void onSequenceEnd(final SequenceNode node, final TupleType tupleType)
+    {
+        primary.onSequenceEnd(node, tupleType);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onSequenceEnd(node, tupleType);
+            }
+        });
+    }
+
+    @Override
+    public void onScalar(final ScalarNode node, final TupleType tupleType)
+    {
+        primary.onScalar(node, tupleType);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onScalar(node, tupleType);
+            }
+        });
+    }
+
+    @Override
+    public boolean onDocumentStart(final MappingNode documentNode)
+    {
+        boolean keepOnVisiting = primary.onDocumentStart(documentNode);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onDocumentStart(documentNode);
+            }
+        });
+        return keepOnVisiting;
+    }
+
+    @Override
+    public void onDocumentEnd(final MappingNode node)
+    {
+        primary.onDocumentEnd(node);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onDocumentEnd(node);
+            }
+        });
+    }
+
+    @Override
+    public void onTupleEnd(final NodeTuple nodeTuple)
+    {
+        primary.onTupleEnd(nodeTuple);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onTupleEnd(nodeTuple);
+            }
+        });
+    }
+
+    @Override
+    public boolean onTupleStart(final NodeTuple nodeTuple)
+    {
+        boolean processTuple = primary.onTupleStart(nodeTuple);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onTupleStart(nodeTuple);
+            }
+        });
+        return processTuple;
+    }
+
+    @Override
+    public void onSequenceElementStart(final Node sequenceNode)
+    {
+        primary.onSequenceElementStart(sequenceNode);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onSequenceElementStart(sequenceNode);
+            }
+        });
+    }
+
+    @Override
+    public void onSequenceElementEnd(final Node sequenceNode)
+    {
+        primary.onSequenceElementEnd(sequenceNode);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onSequenceElementEnd(sequenceNode);
+            }
+        });
+    }
+
+    @Override
+    public void onCustomTagStart(final Tag tag, final Node originalValueNode, final Node node)
+    {
+        primary.onCustomTagStart(tag, originalValueNode, node);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onCustomTagStart(tag, originalValueNode, node);
+            }
+        });
+    }
+
+    @Override
+    public void onCustomTagEnd(final Tag tag, final Node originalValueNode, final Node node)
+    {
+        primary.onCustomTagEnd(tag, originalValueNode, node);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onCustomTagEnd(tag, originalValueNode, node);
+            }
+        });
+    }
+
+    @Override
+    public void onCustomTagError(final Tag tag, final Node node, final String message)
+    {
+        primary.onCustomTagError(tag, node, message);
+        notifySecondaries(new Event()
+        {
+            @Override
+            public void dispatch(NodeHandler handler)
+            {
+                handler.onCustomTagError(tag, node, message);
+            }
+        });
+    }
+
+    @Override
+    public void setContextPath(ContextPath contextPath)
+    {
+        this.contextPath = contextPath;
+        if (primary instanceof ContextPathAware)
+        {
+            ((ContextPathAware) primary).setContextPath(contextPath);
+        }
+        for (NodeHandler handler : secondaries)
+        {
+            if (handler instanceof ContextPathAware)
+            {
+                ((ContextPathAware) handler).setContextPath(contextPath);
+            }
+        }
+    }
+
+    @Override
+    public ContextPath getContextPath()
+    {
+        return contextPath;
+    }
+
+    @Override
+    public void setResourceLoader(ResourceLoader resourceLoader)
+    {
+        if (primary instanceof ResourceLoaderAware)
+        {
+            ((ResourceLoaderAware) primary).setResourceLoader(resourceLoader);
+        }
+        for (NodeHandler handler : secondaries)
+        {
+            if (handler instanceof ResourceLoaderAware)
+            {
+                ((ResourceLoaderAware) handler).setResourceLoader(resourceLoader);
+            }
+        }
+    }
+}
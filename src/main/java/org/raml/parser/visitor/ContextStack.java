@@ -0,0 +1,334 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EmptyStackException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+
+/**
+ * Stack of the builders, rules or document objects of the nodes being visited.
+ * <p/>
+ * A context is only used by the thread running the visit, so the stack operations are
+ * not synchronized. Null elements are accepted, as builders can build null values.
+ * {@link #asDeque()} returns a view of the same elements that iterates from the top.
+ */
+final class ContextStack<E> extends Stack<E>
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private transient Deque<E> deque;
+
+    @Override
+    public E push(E item)
+    {
+        if (elementCount == elementData.length)
+        {
+            elementData = Arrays.copyOf(elementData, elementCount * 2 + 1);
+        }
+        elementData[elementCount++] = item;
+        modCount++;
+        return item;
+    }
+
+    @Override
+    public E pop()
+    {
+        E item = peek();
+        elementData[--elementCount] = null;
+        modCount++;
+        return item;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek()
+    {
+        if (elementCount == 0)
+        {
+            throw new EmptyStackException();
+        }
+        return (E) elementData[elementCount - 1];
+    }
+
+    @Override
+    public boolean empty()
+    {
+        return elementCount == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return elementCount;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return elementCount == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object clone()
+    {
+        ContextStack<E> copy = (ContextStack<E>) super.clone();
+        copy.deque = null;
+        return copy;
+    }
+
+    /**
+     * @return a view of the stack as a deque whose first element is the top of the stack
+     */
+    Deque<E> asDeque()
+    {
+        if (deque == null)
+        {
+            deque = new DequeView();
+        }
+        return deque;
+    }
+
+    private class DequeView extends AbstractCollection<E> implements Deque<E>
+    {
+
+        @Override
+        public void addFirst(E e)
+        {
+            ContextStack.this.push(e);
+        }
+
+        @Override
+        public void addLast(E e)
+        {
+            insertElementAt(e, 0);
+        }
+
+        @Override
+        public boolean offerFirst(E e)
+        {
+            addFirst(e);
+            return true;
+        }
+
+        @Override
+        public boolean offerLast(E e)
+        {
+            addLast(e);
+            return true;
+        }
+
+        @Override
+        public E removeFirst()
+        {
+            if (isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+            return ContextStack.this.pop();
+        }
+
+        @Override
+        public E removeLast()
+        {
+            if (isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+            return ContextStack.this.remove(0);
+        }
+
+        @Override
+        public E pollFirst()
+        {
+            return isEmpty() ? null : ContextStack.this.pop();
+        }
+
+        @Override
+        public E pollLast()
+        {
+            return isEmpty() ? null : ContextStack.this.remove(0);
+        }
+
+        @Override
+        public E getFirst()
+        {
+            if (isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+            return ContextStack.this.peek();
+        }
+
+        @Override
+        public E getLast()
+        {
+            if (isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+            return get(0);
+        }
+
+        @Override
+        public E peekFirst()
+        {
+            return isEmpty() ? null : ContextStack.this.peek();
+        }
+
+        @Override
+        public E peekLast()
+        {
+            return isEmpty() ? null : get(0);
+        }
+
+        @Override
+        public boolean removeFirstOccurrence(Object o)
+        {
+            int index = lastIndexOf(o);
+            if (index < 0)
+            {
+                return false;
+            }
+            ContextStack.this.remove(index);
+            return true;
+        }
+
+        @Override
+        public boolean removeLastOccurrence(Object o)
+        {
+            return ContextStack.this.remove(o);
+        }
+
+        @Override
+        public boolean add(E e)
+        {
+            addLast(e);
+            return true;
+        }
+
+        @Override
+        public boolean offer(E e)
+        {
+            return offerLast(e);
+        }
+
+        @Override
+        public E remove()
+        {
+            return removeFirst();
+        }
+
+        @Override
+        public E poll()
+        {
+            return pollFirst();
+        }
+
+        @Override
+        public E element()
+        {
+            return getFirst();
+        }
+
+        @Override
+        public E peek()
+        {
+            return peekFirst();
+        }
+
+        @Override
+        public void push(E e)
+        {
+            addFirst(e);
+        }
+
+        @Override
+        public E pop()
+        {
+            return removeFirst();
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            return removeFirstOccurrence(o);
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            return ContextStack.this.contains(o);
+        }
+
+        @Override
+        public int size()
+        {
+            return ContextStack.this.size();
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return ContextStack.this.isEmpty();
+        }
+
+        @Override
+        public void clear()
+        {
+            ContextStack.this.clear();
+        }
+
+        @Override
+        public Iterator<E> iterator()
+        {
+            final ListIterator<E> iterator = listIterator(ContextStack.this.size());
+            return new Iterator<E>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return iterator.hasPrevious();
+                }
+
+                @Override
+                public E next()
+                {
+                    return iterator.previous();
+                }
+
+                @Override
+                public void remove()
+                {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public Iterator<E> descendingIterator()
+        {
+            return ContextStack.this.iterator();
+        }
+    }
+}
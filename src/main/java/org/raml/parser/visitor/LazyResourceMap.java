@@ -0,0 +1,299 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.raml.model.Resource;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+
+/**
+ * Map of top level resources whose values are built the first time they are read.
+ * <p/>
+ * Every entry keeps the resource tuple until its resource is built. Each resource is
+ * built at most once, even when read concurrently, and a failure to build it is
+ * rethrown on every later read. Reading a value through {@link #get(Object)} only
+ * builds that resource, iterating over the values builds them in document order.
+ * The resource builder is released once every resource is built, and the map is
+ * serialized as a {@link LinkedHashMap} of the built resources.
+ */
+class LazyResourceMap extends AbstractMap<String, Resource> implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, LazyResource> resources = new LinkedHashMap<String, LazyResource>();
+    private final AtomicInteger pendingResources = new AtomicInteger();
+    private volatile ResourceBuilder resourceBuilder;
+    private final Set<Map.Entry<String, Resource>> entrySet = new EntrySet();
+
+    LazyResourceMap(ResourceBuilder resourceBuilder)
+    {
+        this.resourceBuilder = resourceBuilder;
+    }
+
+    void putTuple(String key, NodeTuple resourceTuple)
+    {
+        pendingResources.incrementAndGet();
+        LazyResource previous = resources.put(key, new LazyResource(resourceTuple));
+        if (previous != null)
+        {
+            previous.release();
+        }
+    }
+
+    @Override
+    public Resource get(Object key)
+    {
+        LazyResource resource = resources.get(key);
+        return resource == null ? null : resource.get();
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return resources.containsKey(key);
+    }
+
+    @Override
+    public Resource put(String key, Resource value)
+    {
+        LazyResource previous = resources.put(key, new LazyResource(value));
+        return previous == null ? null : previous.get();
+    }
+
+    @Override
+    public Resource remove(Object key)
+    {
+        LazyResource previous = resources.remove(key);
+        return previous == null ? null : previous.get();
+    }
+
+    @Override
+    public int size()
+    {
+        return resources.size();
+    }
+
+    @Override
+    public void clear()
+    {
+        for (LazyResource resource : resources.values())
+        {
+            resource.release();
+        }
+        resources.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Resource>> entrySet()
+    {
+        return entrySet;
+    }
+
+    private Object writeReplace() throws ObjectStreamException
+    {
+        return new LinkedHashMap<String, Resource>(this);
+    }
+
+    private void onResourceBuilt()
+    {
+        if (pendingResources.decrementAndGet() == 0)
+        {
+            resourceBuilder = null;
+        }
+    }
+
+    interface ResourceBuilder
+    {
+
+        Resource build(NodeTuple resourceTuple);
+    }
+
+    private class LazyResource
+    {
+
+        private NodeTuple resourceTuple;
+        private volatile Resource resource;
+        private RuntimeException failure;
+
+        LazyResource(NodeTuple resourceTuple)
+        {
+            this.resourceTuple = resourceTuple;
+        }
+
+        LazyResource(Resource resource)
+        {
+            this.resource = resource;
+        }
+
+        Resource get()
+        {
+            Resource result = resource;
+            if (result == null)
+            {
+                result = build();
+            }
+            return result;
+        }
+
+        private synchronized Resource build()
+        {
+            if (failure != null)
+            {
+                throw failure;
+            }
+            if (resourceTuple != null)
+            {
+                try
+                {
+                    resource = resourceBuilder.build(resourceTuple);
+                }
+                catch (RuntimeException e)
+                {
+                    failure = e;
+                    throw e;
+                }
+                finally
+                {
+                    resourceTuple = null;
+                    onResourceBuilt();
+                }
+            }
+            return resource;
+        }
+
+        /**
+         * Drops the resource tuple of an entry removed before it was built.
+         */
+        synchronized void release()
+        {
+            if (resourceTuple != null)
+            {
+                resourceTuple = null;
+                onResourceBuilt();
+            }
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<String, Resource>>
+    {
+
+        @Override
+        public Iterator<Map.Entry<String, Resource>> iterator()
+        {
+            final Iterator<Map.Entry<String, LazyResource>> iterator = resources.entrySet().iterator();
+            return new Iterator<Map.Entry<String, Resource>>()
+            {
+                private LazyResource current;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, Resource> next()
+                {
+                    Map.Entry<String, LazyResource> next = iterator.next();
+                    current = next.getValue();
+                    return new LazyEntry(next);
+                }
+
+                @Override
+                public void remove()
+                {
+                    iterator.remove();
+                    current.release();
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return resources.size();
+        }
+    }
+
+    private class LazyEntry implements Map.Entry<String, Resource>
+    {
+
+        private final Map.Entry<String, LazyResource> entry;
+
+        LazyEntry(Map.Entry<String, LazyResource> entry)
+        {
+            this.entry = entry;
+        }
+
+        @Override
+        public String getKey()
+        {
+            return entry.getKey();
+        }
+
+        @Override
+        public Resource getValue()
+        {
+            return entry.getValue().get();
+        }
+
+        @Override
+        public Resource setValue(Resource value)
+        {
+            Resource previous = getValue();
+            entry.setValue(new LazyResource(value));
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Map.Entry))
+            {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return eq(getKey(), other.getKey()) && eq(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (getKey() == null ? 0 : getKey().hashCode()) ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return getKey() + "=" + getValue();
+        }
+
+        private boolean eq(Object o1, Object o2)
+        {
+            return o1 == null ? o2 == null : o1.equals(o2);
+        }
+    }
+}
@@ -19,10 +19,10 @@ import static org.raml.parser.utils.NodeUtils.isStandardTag;
 import static org.raml.parser.visitor.TupleType.KEY;
 import static org.raml.parser.visitor.TupleType.VALUE;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.raml.parser.loader.ResourceLoader;
 import org.raml.parser.loader.ResourceLoaderAware;
@@ -42,12 +42,43 @@ public class NodeVisitor
 {
 
     public static final Tag LOOP_TAG = new Tag("!loop");
+    private static final TagResolver NO_RESOLVER = new TagResolver()
+    {
+        @Override
+        public boolean handles(Tag tag)
+        {
+            return false;
+        }
+
+        @Override
+        public Node resolve(Node valueNode, ResourceLoader resourceLoader, NodeHandler nodeHandler)
+        {
+            return valueNode;
+        }
+
+        @Override
+        public void beforeProcessingResolvedNode(Tag tag, Node originalValueNode, Node resolvedNode)
+        {
+        }
+
+        @Override
+        public void afterProcessingResolvedNode(Tag tag, Node originalValueNode, Node resolvedNode)
+        {
+        }
+    };
+
     private NodeHandler nodeHandler;
     private ResourceLoader resourceLoader;
     private TagResolver[] tagResolvers;
-    private Deque<String> loopDetector = new ArrayDeque<String>();
+    private Map<Tag, TagResolver> tagResolverCache = new HashMap<Tag, TagResolver>();
+    private MappingNodeMerger merger;
     private ContextPath contextPath = new ContextPath();
 
+    //mapping nodes being visited, identified by include name and start mark index
+    private String[] loopIncludes = new String[16];
+    private int[] loopIndexes = new int[16];
+    private int loopDepth;
+
     public NodeVisitor(NodeHandler nodeHandler, ResourceLoader resourceLoader, TagResolver... tagResolvers)
     {
         super();
@@ -56,7 +87,6 @@ public class NodeVisitor
         this.tagResolvers = tagResolvers;
         initializeContextPathAware(tagResolvers);
         initializeResourceLoaderAware();
-        SchemaCompiler.getInstance().init(contextPath, resourceLoader);
     }
 
     private void initializeResourceLoaderAware()
@@ -82,6 +112,20 @@ public class NodeVisitor
         }
     }
 
+    /**
+     * Hands the listener of the parse to the tag resolvers that report to it.
+     */
+    void setParseListener(ParseListener parseListener)
+    {
+        for (TagResolver tagResolver : tagResolvers)
+        {
+            if (tagResolver instanceof ParseListenerAware)
+            {
+                ((ParseListenerAware) tagResolver).setParseListener(parseListener);
+            }
+        }
+    }
+
     private void visitMappingNode(MappingNode mappingNode, TupleType tupleType)
     {
         if (checkLoop(mappingNode))
@@ -97,7 +141,7 @@ public class NodeVisitor
         nodeHandler.onMappingNodeEnd(mappingNode, tupleType);
         if (mappingNode.getStartMark() != null)
         {
-            loopDetector.pop();
+            loopIncludes[--loopDepth] = null;
         }
     }
 
@@ -112,12 +156,22 @@ public class NodeVisitor
             return false;
         }
 
-        String index = contextPath.peek().getIncludeName() + node.getStartMark().getIndex();
-        if (loopDetector.contains(index))
+        String includeName = contextPath.peek().getIncludeName();
+        int index = node.getStartMark().getIndex();
+        for (int i = 0; i < loopDepth; i++)
         {
-            return true;
+            if (loopIndexes[i] == index && loopIncludes[i].equals(includeName))
+            {
+                return true;
+            }
+        }
+        if (loopDepth == loopIndexes.length)
+        {
+            loopIncludes = Arrays.copyOf(loopIncludes, loopDepth * 2);
+            loopIndexes = Arrays.copyOf(loopIndexes, loopDepth * 2);
         }
-        loopDetector.push(index);
+        loopIncludes[loopDepth] = includeName;
+        loopIndexes[loopDepth++] = index;
         return false;
     }
 
@@ -134,34 +188,47 @@ public class NodeVisitor
     {
         if (mappingNode.isMerged())
         {
-            new MappingNodeMerger().merge(mappingNode);
+            if (merger == null)
+            {
+                merger = new MappingNodeMerger();
+            }
+            merger.merge(mappingNode);
         }
         List<NodeTuple> tuples = mappingNode.getValue();
-        List<NodeTuple> updatedTuples = new ArrayList<NodeTuple>();
-        for (NodeTuple nodeTuple : tuples)
+        for (int i = 0; i < tuples.size(); i++)
         {
-            Node keyNode = nodeTuple.getKeyNode();
-            Node originalValueNode = nodeTuple.getValueNode();
-
-            Tag tag = originalValueNode.getTag();
-            TagResolver currentTagResolver = getTagResolver(tag);
-            Node resolvedNode = resolveTag(tag, currentTagResolver, originalValueNode);
-            if (originalValueNode != resolvedNode)
+            NodeTuple nodeTuple = tuples.get(i);
+            NodeTuple visitedTuple = visitTuple(nodeTuple);
+            if (visitedTuple != nodeTuple)
             {
-                nodeTuple = new NodeTuple(keyNode, resolvedNode);
-            }
-            updatedTuples.add(nodeTuple);
-            boolean processTuple = nodeHandler.onTupleStart(nodeTuple);
-            if (!processTuple)
-            {
-                continue;
+                tuples.set(i, visitedTuple);
             }
+        }
+    }
+
+    /**
+     * @return the visited tuple, a new tuple only if the value node tag was resolved
+     */
+    private NodeTuple visitTuple(NodeTuple nodeTuple)
+    {
+        Node keyNode = nodeTuple.getKeyNode();
+        Node originalValueNode = nodeTuple.getValueNode();
+
+        Tag tag = originalValueNode.getTag();
+        TagResolver currentTagResolver = getTagResolver(tag);
+        Node resolvedNode = resolveTag(tag, currentTagResolver, originalValueNode);
+        if (originalValueNode != resolvedNode)
+        {
+            nodeTuple = new NodeTuple(keyNode, resolvedNode);
+        }
+        boolean processTuple = nodeHandler.onTupleStart(nodeTuple);
+        if (processTuple)
+        {
             visit(keyNode, KEY);
             visitResolvedNode(originalValueNode, resolvedNode, currentTagResolver);
             nodeHandler.onTupleEnd(nodeTuple);
-
         }
-        mappingNode.setValue(updatedTuples);
+        return nodeTuple;
     }
 
     private Node resolveTag(Tag tag, TagResolver tagResolver, Node valueNode)
@@ -196,17 +263,39 @@ public class NodeVisitor
 
     private TagResolver getTagResolver(Tag tag)
     {
-        for (TagResolver resolver : tagResolvers)
+        TagResolver cached = tagResolverCache.get(tag);
+        if (cached == null)
         {
-            if (resolver.handles(tag))
+            cached = NO_RESOLVER;
+            for (TagResolver resolver : tagResolvers)
             {
-                return resolver;
+                if (resolver.handles(tag))
+                {
+                    cached = resolver;
+                    break;
+                }
             }
+            tagResolverCache.put(tag, cached);
         }
-        return null;
+        return cached == NO_RESOLVER ? null : cached;
     }
 
     public void visitDocument(MappingNode node)
+    {
+        if (visitDocumentStart(node))
+        {
+            doVisitMappingNode(node);
+        }
+        visitDocumentEnd(node);
+    }
+
+    /**
+     * Starts the visit of a document whose root tuples are visited one at a time
+     * with {@link #visitDocumentTuple(NodeTuple)}.
+     *
+     * @return true if the root tuples must be visited
+     */
+    boolean visitDocumentStart(MappingNode node)
     {
         boolean keepOnVisitingDocument = nodeHandler.onDocumentStart(node);
         if (node != null && keepOnVisitingDocument)
@@ -215,8 +304,18 @@ public class NodeVisitor
             {
                 contextPath.pushRoot("");
             }
-            doVisitMappingNode(node);
+            return true;
         }
+        return false;
+    }
+
+    NodeTuple visitDocumentTuple(NodeTuple nodeTuple)
+    {
+        return visitTuple(nodeTuple);
+    }
+
+    void visitDocumentEnd(MappingNode node)
+    {
         nodeHandler.onDocumentEnd(node);
     }
 
@@ -249,8 +348,7 @@ public class NodeVisitor
                 Node resolvedNode = resolveTag(originalNode.getTag(), currentTagResolver, originalNode);
                 if (originalNode != resolvedNode)
                 {
-                    node.getValue().remove(i);
-                    node.getValue().add(i, resolvedNode);
+                    value.set(i, resolvedNode);
                 }
                 nodeHandler.onSequenceElementStart(resolvedNode);
                 visitResolvedNode(originalNode, resolvedNode, currentTagResolver);
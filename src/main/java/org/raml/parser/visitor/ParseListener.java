@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+/**
+ * Receives the duration of the phases of a parse, the size and fetch time of the
+ * resources it includes and the hits and misses of the caches it uses.
+ * <p/>
+ * Phases nest: the visit of a document includes the template merges and media type
+ * resolutions of its resources, and composing a document does not include composing
+ * the documents it includes, which happens while visiting it. Listeners registered in
+ * a builder that builds resources in parallel are called from several threads.
+ * <p/>
+ * Parsers do not measure anything when no listener is registered.
+ */
+public interface ParseListener
+{
+
+    enum Phase
+    {
+        COMPOSE, TEMPLATE_INIT, TEMPLATE_MERGE, VISIT, MEDIA_TYPE_RESOLUTION, SCHEMA_COMPILE
+    }
+
+    enum Cache
+    {
+        SCHEMA, DOCUMENT
+    }
+
+    /**
+     * @param location the location of the document, or of the included document being
+     *                 processed, the resource URI for template merges, or the base path
+     *                 for schema compilations
+     */
+    void onPhase(Phase phase, String location, long nanos);
+
+    /**
+     * @param nanos time spent fetching and reading the included resource
+     */
+    void onInclude(String resourceName, long bytes, long nanos);
+
+    void onCacheAccess(Cache cache, boolean hit);
+}
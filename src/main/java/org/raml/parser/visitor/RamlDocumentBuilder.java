@@ -17,18 +17,27 @@ package org.raml.parser.visitor;
 
 import static org.raml.parser.rule.BaseUriRule.URI_PATTERN;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang.ArrayUtils;
+import org.raml.model.MimeType;
 import org.raml.model.Raml;
 import org.raml.model.Resource;
 import org.raml.model.parameter.UriParameter;
+import org.raml.parser.builder.ImplicitMapEntryBuilder;
+import org.raml.parser.builder.MapTupleBuilder;
 import org.raml.parser.builder.NodeBuilder;
 import org.raml.parser.loader.DefaultResourceLoader;
 import org.raml.parser.loader.ResourceLoader;
@@ -36,13 +45,31 @@ import org.raml.parser.tagresolver.IncludeResolver;
 import org.raml.parser.tagresolver.JacksonTagResolver;
 import org.raml.parser.tagresolver.JaxbTagResolver;
 import org.raml.parser.tagresolver.TagResolver;
+import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
 
 public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
 {
 
     private TemplateResolver templateResolver;
     private MediaTypeResolver mediaTypeResolver;
+    private SchemaCompiler schemaCompiler;
+    private boolean resourcesStreamed;
+    private TagResolver[] customTagResolvers;
+    private ExecutorService resourceExecutor;
+    private boolean lazyResources;
+    private TemplateFunctionRegistry templateFunctions = TemplateFunctionRegistry.createDefault();
+    private TemplateResolver sharedTemplateResolver;
+    private MediaTypeResolver sharedMediaTypeResolver;
+    private SchemaCache sharedSchemaCache;
+    private List<Integer> detachedIndexes = new ArrayList<Integer>();
+    private List<NodeTuple> detachedResources = new ArrayList<NodeTuple>();
 
     public RamlDocumentBuilder()
     {
@@ -52,6 +79,53 @@ public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
     public RamlDocumentBuilder(ResourceLoader resourceLoader, TagResolver... tagResolvers)
     {
         super(Raml.class, resourceLoader, defaultResolver(tagResolvers));
+        this.customTagResolvers = tagResolvers;
+    }
+
+    /**
+     * Builds the top level resources of the following builds in parallel using the given
+     * executor, or serially when <tt>null</tt>. Each top level resource is built by its own
+     * builder after the rest of the document, and the results are merged in document
+     * order, so the model is the same as the one of a serial build. Documents whose top
+     * level entries share nodes through YAML aliases are always built serially.
+     * <p/>
+     * Custom tag resolvers are shared by the resource builders and must be stateless.
+     */
+    public void setResourceExecutor(ExecutorService resourceExecutor)
+    {
+        this.resourceExecutor = resourceExecutor;
+    }
+
+    /**
+     * Defers the build of the top level resources of the following builds until they are
+     * first read from {@link Raml#getResources()}. The expanded resource nodes are kept
+     * until then, and each top level resource, with its nested resources, is built at most
+     * once even when read concurrently. Errors in a resource, such as a missing include,
+     * are thrown when it is read. The root node of a lazy build only holds the entries that
+     * are not resources. Takes precedence over {@link #setResourceExecutor(ExecutorService)}.
+     */
+    public void setLazyResources(boolean lazyResources)
+    {
+        this.lazyResources = lazyResources;
+    }
+
+    /**
+     * Sets the functions available to the resource type and trait parameters of the
+     * following builds. Each builder starts with its own copy of the built-in functions,
+     * so functions registered in it are not seen by other builders.
+     */
+    public void setTemplateFunctions(TemplateFunctionRegistry templateFunctions)
+    {
+        if (templateFunctions == null)
+        {
+            throw new IllegalArgumentException("templateFunctions cannot be null");
+        }
+        this.templateFunctions = templateFunctions;
+    }
+
+    public TemplateFunctionRegistry getTemplateFunctions()
+    {
+        return templateFunctions;
     }
 
     private static TagResolver[] defaultResolver(TagResolver[] tagResolvers)
@@ -68,14 +142,16 @@ public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
     public boolean onMappingNodeStart(MappingNode mappingNode, TupleType tupleType)
     {
         super.onMappingNodeStart(mappingNode, tupleType);
-        if (getDocumentContext().peek() instanceof Resource)
+        if (getDocumentDeque().peek() instanceof Resource)
         {
-            Resource resource = (Resource) getDocumentContext().peek();
+            Resource resource = (Resource) getDocumentDeque().peek();
             getTemplateResolver().resolve(mappingNode, resource.getRelativeUri(), resource.getUri());
         }
-        else if (isBodyBuilder(getBuilderContext().peek()))
+        else if (isBodyBuilder(getBuilderDeque().peek()))
         {
+            long startTime = startPhase();
             getMediaTypeResolver().resolve(mappingNode);
+            endMediaTypeResolution(startTime);
         }
         return true;
     }
@@ -83,47 +159,43 @@ public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
     @Override
     public void onMappingNodeEnd(MappingNode mappingNode, TupleType tupleType)
     {
-        if (getDocumentContext().peek() instanceof Resource)
+        if (getDocumentDeque().peek() instanceof Resource)
         {
-            Resource resource = (Resource) getDocumentContext().peek();
+            Resource resource = (Resource) getDocumentDeque().peek();
             populateDefaultUriParameters(resource);
         }
         super.onMappingNodeEnd(mappingNode, tupleType);
     }
 
-    private String toString(Stack<NodeBuilder<?>> builderContext)
+    private String toString(Deque<NodeBuilder<?>> builderContext)
     {
         StringBuilder builder = new StringBuilder(">>> BuilderContext >>> ");
-        for (NodeBuilder nb : builderContext)
+        for (Iterator<NodeBuilder<?>> iterator = builderContext.descendingIterator(); iterator.hasNext(); )
         {
-            builder.append(nb).append(" ->- ");
+            builder.append(iterator.next()).append(" ->- ");
         }
         return builder.toString();
     }
 
     private boolean isBodyBuilder(NodeBuilder builder)
     {
-        try
+        if (builder instanceof MapTupleBuilder)
         {
-            Field valueType = builder.getClass().getDeclaredField("valueClass");
-            valueType.setAccessible(true);
-            return valueType.get(builder) != null && ((Class) valueType.get(builder)).getName().equals("org.raml.model.MimeType");
+            return ((MapTupleBuilder) builder).getValueClass() == MimeType.class;
         }
-        catch (NoSuchFieldException e)
+        if (builder instanceof ImplicitMapEntryBuilder)
         {
-            return false;
-        }
-        catch (IllegalAccessException e)
-        {
-            return false;
+            return ((ImplicitMapEntryBuilder) builder).getValueClass() == MimeType.class;
         }
+        return false;
     }
 
     public TemplateResolver getTemplateResolver()
     {
         if (templateResolver == null)
         {
-            templateResolver = new TemplateResolver(getResourceLoader(), this);
+            templateResolver = new TemplateResolver(getResourceLoader(), this, templateFunctions);
+            templateResolver.setParseListener(getParseListener());
         }
         return templateResolver;
     }
@@ -137,23 +209,281 @@ public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
         return mediaTypeResolver;
     }
 
+    @Override
+    public SchemaCompiler getSchemaCompiler()
+    {
+        if (schemaCompiler == null)
+        {
+            schemaCompiler = new SchemaCompiler(getContextPath(), getResourceLoader(), getSchemaCache());
+            schemaCompiler.setParseListener(getParseListener());
+        }
+        return schemaCompiler;
+    }
+
+    /**
+     * @return the cache the XML schemas of the builds are compiled with, shared with the
+     *         builders of detached resources
+     */
+    protected SchemaCache getSchemaCache()
+    {
+        return sharedSchemaCache != null ? sharedSchemaCache : SchemaCache.getDefault();
+    }
+
+    void setTemplateResolver(TemplateResolver templateResolver)
+    {
+        this.templateResolver = templateResolver;
+    }
+
+    void setMediaTypeResolver(MediaTypeResolver mediaTypeResolver)
+    {
+        this.mediaTypeResolver = mediaTypeResolver;
+    }
+
     @Override
     protected void preBuildProcess()
     {
+        resetResolvers();
         getTemplateResolver().init(getRootNode());
+        long startTime = startPhase();
         getMediaTypeResolver().beforeDocumentStart(getRootNode());
+        endMediaTypeResolution(startTime);
+        detachedIndexes.clear();
+        detachedResources.clear();
+        if ((lazyResources || resourceExecutor != null) && !hasSharedRootNodes(getRootNode()))
+        {
+            detachResources(getRootNode());
+        }
+    }
+
+    @Override
+    protected void preRootTupleBuildProcess()
+    {
+        resetResolvers();
+        templateResolver = new TemplateResolver(sharedTemplateResolver, this);
+        templateResolver.setParseListener(getParseListener());
+        mediaTypeResolver = sharedMediaTypeResolver;
+    }
+
+    @Override
+    protected void preStreamingBuildProcess()
+    {
+        resetResolvers();
+        resourcesStreamed = false;
+    }
+
+    private void resetResolvers()
+    {
+        //resolvers hold per document state and are bound to the current context path
+        templateResolver = null;
+        mediaTypeResolver = null;
+        schemaCompiler = null;
+    }
+
+    /**
+     * Templates and the default media type are registered as their declarations are
+     * streamed, so they have to be declared before the resources that use them.
+     */
+    @Override
+    protected NodeTuple preStreamedTupleProcess(NodeTuple nodeTuple)
+    {
+        String key = getRootKey(nodeTuple);
+        if (isResourceKey(key))
+        {
+            resourcesStreamed = true;
+        }
+        else if ("resourceTypes".equals(key) || "traits".equals(key) || "mediaType".equals(key))
+        {
+            if (resourcesStreamed)
+            {
+                throw new YAMLException(key + " must be declared before the resources when streaming: "
+                                        + nodeTuple.getKeyNode().getStartMark());
+            }
+            List<NodeTuple> declaration = new ArrayList<NodeTuple>();
+            declaration.add(nodeTuple);
+            MappingNode declarationNode = new MappingNode(Tag.MAP, declaration, false);
+            getTemplateResolver().init(declarationNode);
+            long startTime = startPhase();
+            getMediaTypeResolver().beforeDocumentStart(declarationNode);
+            endMediaTypeResolution(startTime);
+            return declarationNode.getValue().get(0);
+        }
+        return nodeTuple;
+    }
+
+    @Override
+    protected boolean isRetainedStreamedTuple(NodeTuple nodeTuple)
+    {
+        return !isResourceKey(getRootKey(nodeTuple));
+    }
+
+    private void endMediaTypeResolution(long startTime)
+    {
+        if (getParseListener() != null)
+        {
+            endPhase(ParseListener.Phase.MEDIA_TYPE_RESOLUTION, getContextPath().peek().getIncludeName(), startTime);
+        }
+    }
+
+    private String getRootKey(NodeTuple nodeTuple)
+    {
+        Node keyNode = nodeTuple.getKeyNode();
+        return keyNode.getNodeId() == NodeId.scalar ? ((ScalarNode) keyNode).getValue() : null;
+    }
+
+    private boolean isResourceKey(String key)
+    {
+        return key != null && key.startsWith("/");
+    }
+
+    /**
+     * @return true if a node can be reached from more than one root tuple
+     */
+    private boolean hasSharedRootNodes(MappingNode rootNode)
+    {
+        Map<Node, Integer> owners = new IdentityHashMap<Node, Integer>();
+        List<NodeTuple> tuples = rootNode.getValue();
+        for (int i = 0; i < tuples.size(); i++)
+        {
+            if (isSharedNode(tuples.get(i).getValueNode(), i, owners))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSharedNode(Node node, Integer owner, Map<Node, Integer> owners)
+    {
+        if (node.getNodeId() == NodeId.scalar)
+        {
+            return false;
+        }
+        Integer previousOwner = owners.put(node, owner);
+        if (previousOwner != null)
+        {
+            return !previousOwner.equals(owner);
+        }
+        if (node.getNodeId() == NodeId.mapping)
+        {
+            for (NodeTuple tuple : ((MappingNode) node).getValue())
+            {
+                if (isSharedNode(tuple.getKeyNode(), owner, owners) || isSharedNode(tuple.getValueNode(), owner, owners))
+                {
+                    return true;
+                }
+            }
+        }
+        else if (node.getNodeId() == NodeId.sequence)
+        {
+            for (Node item : ((SequenceNode) node).getValue())
+            {
+                if (isSharedNode(item, owner, owners))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void detachResources(MappingNode rootNode)
+    {
+        List<NodeTuple> tuples = rootNode.getValue();
+        for (int i = 0; i < tuples.size(); i++)
+        {
+            if (isResourceKey(getRootKey(tuples.get(i))))
+            {
+                detachedIndexes.add(i + detachedIndexes.size());
+                detachedResources.add(tuples.remove(i--));
+            }
+        }
+    }
+
+    private void buildDetachedResources()
+    {
+        final DetachedResourceBuilder resourceBuilder = new DetachedResourceBuilder(this);
+        List<Future<RamlDocumentBuilder>> results = new ArrayList<Future<RamlDocumentBuilder>>();
+        for (final NodeTuple resourceTuple : detachedResources)
+        {
+            results.add(resourceExecutor.submit(new Callable<RamlDocumentBuilder>()
+            {
+                @Override
+                public RamlDocumentBuilder call() throws Exception
+                {
+                    return resourceBuilder.buildTuple(resourceTuple);
+                }
+            }));
+        }
+        Map<String, Resource> resources = getDocumentObject().getResources();
+        for (int i = 0; i < results.size(); i++)
+        {
+            RamlDocumentBuilder tupleBuilder = getResult(results.get(i));
+            getRootNode().getValue().add(detachedIndexes.get(i), tupleBuilder.getRootNode().getValue().get(0));
+            resources.putAll(tupleBuilder.getDocumentObject().getResources());
+        }
+    }
+
+    private void setLazyResources()
+    {
+        LazyResourceMap resources = new LazyResourceMap(new DetachedResourceBuilder(this));
+        for (NodeTuple resourceTuple : detachedResources)
+        {
+            resources.putTuple(getRootKey(resourceTuple), resourceTuple);
+        }
+        getDocumentObject().setResources(resources);
+    }
+
+    private static <V> V getResult(Future<V> result)
+    {
+        try
+        {
+            return result.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error)
+            {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     @Override
     protected void postBuildProcess()
     {
-        getMediaTypeResolver().setBodyDefaultMediaType(getDocumentObject().getResources());
+        if (lazyResources && !detachedResources.isEmpty())
+        {
+            //the default media type is set as each resource is built
+            setLazyResources();
+        }
+        else
+        {
+            if (!detachedResources.isEmpty())
+            {
+                buildDetachedResources();
+            }
+            long startTime = startPhase();
+            getMediaTypeResolver().setBodyDefaultMediaType(getDocumentObject().getResources());
+            endMediaTypeResolution(startTime);
+        }
+        detachedIndexes.clear();
+        detachedResources.clear();
         compileGlobalSchemas();
     }
 
     private void compileGlobalSchemas()
     {
-        SchemaCompiler compiler = SchemaCompiler.getInstance();
+        SchemaCompiler compiler = getSchemaCompiler();
         Raml raml = getDocumentObject();
         Map<String, Object> compiledSchemas = new HashMap<String, Object>();
         List<Map<String, String>> schemas = raml.getSchemas();
@@ -178,4 +508,49 @@ public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
         }
     }
 
+    /**
+     * Builds top level resource tuples apart from the document, sharing the configuration,
+     * the template declarations and the default media type of the document build.
+     */
+    private static class DetachedResourceBuilder implements LazyResourceMap.ResourceBuilder
+    {
+
+        private final ResourceLoader resourceLoader;
+        private final TagResolver[] tagResolvers;
+        private final String resourceLocation;
+        private final TemplateResolver templateResolver;
+        private final MediaTypeResolver mediaTypeResolver;
+        private final SchemaCache schemaCache;
+        private final ParseListener parseListener;
+
+        DetachedResourceBuilder(RamlDocumentBuilder documentBuilder)
+        {
+            this.resourceLoader = documentBuilder.getResourceLoader();
+            this.tagResolvers = documentBuilder.customTagResolvers;
+            this.resourceLocation = documentBuilder.getContextPath().peek().getIncludeName();
+            this.templateResolver = documentBuilder.getTemplateResolver();
+            this.mediaTypeResolver = documentBuilder.getMediaTypeResolver();
+            this.schemaCache = documentBuilder.getSchemaCache();
+            this.parseListener = documentBuilder.getParseListener();
+        }
+
+        RamlDocumentBuilder buildTuple(NodeTuple resourceTuple)
+        {
+            RamlDocumentBuilder tupleBuilder = new RamlDocumentBuilder(resourceLoader, tagResolvers);
+            tupleBuilder.sharedTemplateResolver = templateResolver;
+            tupleBuilder.sharedMediaTypeResolver = mediaTypeResolver;
+            tupleBuilder.sharedSchemaCache = schemaCache;
+            tupleBuilder.setParseListener(parseListener);
+            tupleBuilder.buildRootTuple(resourceTuple, resourceLocation);
+            return tupleBuilder;
+        }
+
+        @Override
+        public Resource build(NodeTuple resourceTuple)
+        {
+            Map<String, Resource> resources = buildTuple(resourceTuple).getDocumentObject().getResources();
+            mediaTypeResolver.setBodyDefaultMediaType(resources);
+            return resources.isEmpty() ? null : resources.values().iterator().next();
+        }
+    }
 }
@@ -38,6 +38,7 @@ public class RamlDocumentValidator extends YamlDocumentValidator
 
     private TemplateResolver templateResolver;
     private MediaTypeResolver mediaTypeResolver = new MediaTypeResolver();
+    private TemplateFunctionRegistry templateFunctions = TemplateFunctionRegistry.createDefault();
 
     public RamlDocumentValidator()
     {
@@ -49,11 +50,24 @@ public class RamlDocumentValidator extends YamlDocumentValidator
         super(Raml.class, nodeRuleFactory);
     }
 
+    /**
+     * Sets the functions available to the resource type and trait parameters of the
+     * validated documents.
+     */
+    public void setTemplateFunctions(TemplateFunctionRegistry templateFunctions)
+    {
+        if (templateFunctions == null)
+        {
+            throw new IllegalArgumentException("templateFunctions cannot be null");
+        }
+        this.templateFunctions = templateFunctions;
+    }
+
     public TemplateResolver getTemplateResolver()
     {
         if (templateResolver == null)
         {
-            templateResolver = new TemplateResolver(getResourceLoader(), this);
+            templateResolver = new TemplateResolver(getResourceLoader(), this, templateFunctions);
         }
         return templateResolver;
     }
@@ -63,6 +77,16 @@ public class RamlDocumentValidator extends YamlDocumentValidator
         return mediaTypeResolver;
     }
 
+    void setTemplateResolver(TemplateResolver templateResolver)
+    {
+        this.templateResolver = templateResolver;
+    }
+
+    void setMediaTypeResolver(MediaTypeResolver mediaTypeResolver)
+    {
+        this.mediaTypeResolver = mediaTypeResolver;
+    }
+
     @Override
     public boolean onMappingNodeStart(MappingNode mappingNode, TupleType tupleType)
     {
@@ -71,7 +95,7 @@ public class RamlDocumentValidator extends YamlDocumentValidator
         {
             return true;
         }
-        NodeRule<?> rule = getRuleContext().peek();
+        NodeRule<?> rule = getRuleDeque().peek();
         if (isResourceRule(rule))
         {
             List<ValidationResult> templateValidations = getTemplateResolver().resolve(
@@ -138,6 +162,6 @@ public class RamlDocumentValidator extends YamlDocumentValidator
     private <T extends TupleRule> T getRule(String fieldName)
     {
         //noinspection unchecked
-        return (T) ((DefaultTupleRule) getRuleContext().peek()).getRuleByFieldName(fieldName);
+        return (T) ((DefaultTupleRule) getRuleDeque().peek()).getRuleByFieldName(fieldName);
     }
 }
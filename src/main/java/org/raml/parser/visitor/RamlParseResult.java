@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.util.List;
+
+import org.raml.model.Raml;
+import org.raml.parser.rule.ValidationResult;
+
+/**
+ * Outcome of a single pass parse: the validation results and,
+ * when the document is valid, the built model.
+ */
+public class RamlParseResult
+{
+
+    private final Raml raml;
+    private final List<ValidationResult> validationResults;
+
+    public RamlParseResult(Raml raml, List<ValidationResult> validationResults)
+    {
+        this.raml = raml;
+        this.validationResults = validationResults;
+    }
+
+    /**
+     * @return the built model or <tt>null</tt> if the document has errors
+     */
+    public Raml getRaml()
+    {
+        return raml;
+    }
+
+    public List<ValidationResult> getValidationResults()
+    {
+        return validationResults;
+    }
+
+    public boolean isValid()
+    {
+        return ValidationResult.areValid(validationResults);
+    }
+}
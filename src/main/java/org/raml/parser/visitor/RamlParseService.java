@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import static java.lang.System.currentTimeMillis;
+import static org.raml.parser.rule.ValidationResult.createErrorResult;
+import static org.yaml.snakeyaml.nodes.NodeId.mapping;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.ArrayUtils;
+import org.raml.model.Raml;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.loader.ResourceNotFoundException;
+import org.raml.parser.rule.NodeRuleFactory;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.tagresolver.IncludeResolver;
+import org.raml.parser.tagresolver.JacksonTagResolver;
+import org.raml.parser.tagresolver.JaxbTagResolver;
+import org.raml.parser.tagresolver.TagResolver;
+import org.raml.parser.utils.StreamUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+
+/**
+ * Validates and builds a RAML document in a single pass.
+ * <p/>
+ * The document is composed once and walked by one {@link NodeVisitor} that drives
+ * a {@link RamlDocumentValidator} and a {@link RamlDocumentBuilder} together, so
+ * includes are fetched and templates are resolved only once.
+ * <p/>
+ * The traversal state is created for each parse so an instance can be shared between threads.
+ */
+public class RamlParseService
+{
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ResourceLoader resourceLoader;
+    private final NodeRuleFactory nodeRuleFactory;
+    private final TagResolver[] tagResolvers;
+    private final TemplateFunctionRegistry templateFunctions;
+
+    public RamlParseService(ResourceLoader resourceLoader, NodeRuleFactory nodeRuleFactory, TagResolver... tagResolvers)
+    {
+        this(resourceLoader, nodeRuleFactory, TemplateFunctionRegistry.createDefault(), tagResolvers);
+    }
+
+    /**
+     * @param templateFunctions the functions available to the resource type and trait
+     *                          parameters of every parse
+     */
+    public RamlParseService(ResourceLoader resourceLoader, NodeRuleFactory nodeRuleFactory,
+                            TemplateFunctionRegistry templateFunctions, TagResolver... tagResolvers)
+    {
+        this.resourceLoader = resourceLoader;
+        this.nodeRuleFactory = nodeRuleFactory;
+        this.templateFunctions = templateFunctions;
+        this.tagResolvers = tagResolvers;
+    }
+
+    public static RamlParseService createDefault()
+    {
+        return createDefault(new DefaultResourceLoader());
+    }
+
+    public static RamlParseService createDefault(ResourceLoader loader, TagResolver... tagResolvers)
+    {
+        return new RamlParseService(loader, new NodeRuleFactory(), tagResolvers);
+    }
+
+    private TagResolver[] defaultResolver()
+    {
+        TagResolver[] defaultResolvers = new TagResolver[] {
+                new IncludeResolver(),
+                new JacksonTagResolver(),
+                new JaxbTagResolver()
+        };
+        return (TagResolver[]) ArrayUtils.addAll(defaultResolvers, tagResolvers);
+    }
+
+    public RamlParseResult parse(String resourceLocation)
+    {
+        InputStream resourceStream = resourceLoader.fetchResource(resourceLocation);
+        if (resourceStream == null)
+        {
+            throw new ResourceNotFoundException(resourceLocation);
+        }
+        return parse(resourceStream, resourceLocation);
+    }
+
+    public RamlParseResult parse(String content, String resourceLocation)
+    {
+        return parse(new StringReader(content), resourceLocation);
+    }
+
+    public RamlParseResult parse(InputStream content, String resourceLocation)
+    {
+        return parse(StreamUtils.reader(content), resourceLocation);
+    }
+
+    public RamlParseResult parse(Reader content, String resourceLocation)
+    {
+        long startTime = currentTimeMillis();
+
+        RamlDocumentValidator validator = new RamlDocumentValidator(nodeRuleFactory);
+        RamlDocumentBuilder builder = createDocumentBuilder(resourceLoader);
+        CompositeNodeHandler nodeHandler = new CompositeNodeHandler(validator, builder);
+        List<ValidationResult> validationResults = new ArrayList<ValidationResult>();
+        try
+        {
+            Node root = new Yaml().compose(content);
+            if (root != null && root.getNodeId() == mapping)
+            {
+                validationResults.addAll(visit((MappingNode) root, resourceLocation, nodeHandler, validator, builder));
+            }
+            else
+            {
+                validationResults.add(createErrorResult("Invalid RAML"));
+            }
+        }
+        catch (MarkedYAMLException mye)
+        {
+            validationResults.add(createErrorResult(mye.getProblem(), mye.getProblemMark(), mye.getProblemMark()));
+        }
+        catch (YAMLException ex)
+        {
+            validationResults.add(createErrorResult(ex.getMessage()));
+        }
+        finally
+        {
+            IOUtils.closeQuietly(content);
+        }
+
+        validationResults.addAll(validator.getMessages());
+
+        Raml raml = null;
+        if (ValidationResult.areValid(validationResults))
+        {
+            //a valid document the builder failed on is a builder error, wherever it failed
+            if (nodeHandler.hasFailed(builder))
+            {
+                throw nodeHandler.getFailure(builder);
+            }
+            if (builder.getDocumentObject() != null)
+            {
+                builder.postBuildProcess();
+                raml = builder.getDocumentObject();
+            }
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("parse time: " + (currentTimeMillis() - startTime) + "ms.");
+        }
+
+        return new RamlParseResult(raml, validationResults);
+    }
+
+    protected RamlDocumentBuilder createDocumentBuilder(ResourceLoader resourceLoader)
+    {
+        return new RamlDocumentBuilder(resourceLoader);
+    }
+
+    private List<ValidationResult> visit(MappingNode root, String resourceLocation, CompositeNodeHandler nodeHandler,
+                                         RamlDocumentValidator validator, RamlDocumentBuilder builder)
+    {
+        NodeVisitor nodeVisitor = new NodeVisitor(nodeHandler, resourceLoader, defaultResolver());
+        nodeHandler.getContextPath().pushRoot(resourceLocation);
+
+        //template and media type resolution is shared so the document is only expanded once
+        TemplateResolver templateResolver = new TemplateResolver(resourceLoader, nodeHandler, templateFunctions);
+        MediaTypeResolver mediaTypeResolver = new MediaTypeResolver();
+        validator.setTemplateResolver(templateResolver);
+        validator.setMediaTypeResolver(mediaTypeResolver);
+        builder.setTemplateResolver(templateResolver);
+        builder.setMediaTypeResolver(mediaTypeResolver);
+
+        List<ValidationResult> validationResults = templateResolver.init(root);
+        validationResults.addAll(mediaTypeResolver.beforeDocumentStart(root));
+        nodeVisitor.visitDocument(root);
+        return validationResults;
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.List;
+
+import org.raml.model.Raml;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.rule.NodeRuleFactory;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.tagresolver.TagResolver;
+
+/**
+ * Thread safe entry point to build and validate RAML documents.
+ * <p/>
+ * A parser holds the configuration shared by every invocation: the resource loader,
+ * the custom tag resolvers, the {@link NodeRuleFactory} rule cache and the
+ * {@link TemplateFunctionRegistry} of the resource type and trait parameters. The traversal state
+ * (builders, validators, include and template resolvers) is created for each invocation,
+ * so a single configured instance can serve concurrent requests.
+ * <p/>
+ * Custom tag resolvers are shared by all invocations and must therefore be stateless.
+ */
+public final class RamlParser
+{
+
+    private final ResourceLoader resourceLoader;
+    private final NodeRuleFactory nodeRuleFactory;
+    private final TagResolver[] tagResolvers;
+    private final TemplateFunctionRegistry templateFunctions;
+    private final RamlParseService parseService;
+
+    public RamlParser()
+    {
+        this(new DefaultResourceLoader());
+    }
+
+    public RamlParser(ResourceLoader resourceLoader, TagResolver... tagResolvers)
+    {
+        this(resourceLoader, new NodeRuleFactory(), tagResolvers);
+    }
+
+    public RamlParser(ResourceLoader resourceLoader, NodeRuleFactory nodeRuleFactory, TagResolver... tagResolvers)
+    {
+        this(resourceLoader, nodeRuleFactory, TemplateFunctionRegistry.createDefault(), tagResolvers);
+    }
+
+    /**
+     * @param templateFunctions the functions available to the resource type and trait
+     *                          parameters of every invocation
+     */
+    public RamlParser(ResourceLoader resourceLoader, NodeRuleFactory nodeRuleFactory,
+                      TemplateFunctionRegistry templateFunctions, TagResolver... tagResolvers)
+    {
+        this.resourceLoader = resourceLoader;
+        this.nodeRuleFactory = nodeRuleFactory;
+        this.tagResolvers = tagResolvers.clone();
+        this.templateFunctions = templateFunctions;
+        this.parseService = new RamlParseService(resourceLoader, nodeRuleFactory, templateFunctions, this.tagResolvers);
+    }
+
+    public ResourceLoader getResourceLoader()
+    {
+        return resourceLoader;
+    }
+
+    /**
+     * @return the functions available to the resource type and trait parameters, where
+     *         custom functions can be registered for the following invocations
+     */
+    public TemplateFunctionRegistry getTemplateFunctions()
+    {
+        return templateFunctions;
+    }
+
+    public Raml build(String resourceLocation)
+    {
+        return createBuilder().build(resourceLocation);
+    }
+
+    public Raml build(String content, String resourceLocation)
+    {
+        return createBuilder().build(content, resourceLocation);
+    }
+
+    public Raml build(InputStream content, String resourceLocation)
+    {
+        return createBuilder().build(content, resourceLocation);
+    }
+
+    public Raml build(Reader content, String resourceLocation)
+    {
+        return createBuilder().build(content, resourceLocation);
+    }
+
+    public Raml buildStreaming(String resourceLocation)
+    {
+        return createBuilder().buildStreaming(resourceLocation);
+    }
+
+    public Raml buildStreaming(InputStream content, String resourceLocation)
+    {
+        return createBuilder().buildStreaming(content, resourceLocation);
+    }
+
+    public Raml buildStreaming(Reader content, String resourceLocation)
+    {
+        return createBuilder().buildStreaming(content, resourceLocation);
+    }
+
+    public List<ValidationResult> validate(String resourceLocation)
+    {
+        return createValidationService().validate(resourceLocation);
+    }
+
+    public List<ValidationResult> validate(String content, String resourceLocation)
+    {
+        return createValidationService().validate(content, resourceLocation);
+    }
+
+    public List<ValidationResult> validate(InputStream content, String resourceLocation)
+    {
+        return createValidationService().validate(content, resourceLocation);
+    }
+
+    public List<ValidationResult> validate(Reader content, String resourceLocation)
+    {
+        return createValidationService().validate(content, resourceLocation);
+    }
+
+    public RamlParseResult parse(String resourceLocation)
+    {
+        return parseService.parse(resourceLocation);
+    }
+
+    public RamlParseResult parse(String content, String resourceLocation)
+    {
+        return parseService.parse(content, resourceLocation);
+    }
+
+    public RamlParseResult parse(InputStream content, String resourceLocation)
+    {
+        return parseService.parse(content, resourceLocation);
+    }
+
+    public RamlParseResult parse(Reader content, String resourceLocation)
+    {
+        return parseService.parse(content, resourceLocation);
+    }
+
+    private RamlDocumentBuilder createBuilder()
+    {
+        RamlDocumentBuilder builder = new RamlDocumentBuilder(resourceLoader, tagResolvers);
+        builder.setTemplateFunctions(templateFunctions);
+        return builder;
+    }
+
+    private RamlValidationService createValidationService()
+    {
+        RamlDocumentValidator validator = new RamlDocumentValidator(nodeRuleFactory);
+        validator.setTemplateFunctions(templateFunctions);
+        return new RamlValidationService(resourceLoader, validator, tagResolvers);
+    }
+}
@@ -47,8 +47,16 @@ public class RamlValidationService extends YamlValidationService
     @Override
     protected List<ValidationResult> preValidation(MappingNode root)
     {
+        ParseListener parseListener = getParseListener();
+        getValidator().getTemplateResolver().setParseListener(parseListener);
         List<ValidationResult> validationResults = getValidator().getTemplateResolver().init(root);
+        long startTime = parseListener != null ? System.nanoTime() : 0;
         validationResults.addAll(getValidator().getMediaTypeResolver().beforeDocumentStart(root));
+        if (parseListener != null)
+        {
+            String location = getValidator().getContextPath().peek().getIncludeName();
+            parseListener.onPhase(ParseListener.Phase.MEDIA_TYPE_RESOLUTION, location, System.nanoTime() - startTime);
+        }
         return validationResults;
     }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.validation.Schema;
+
+import org.apache.commons.io.IOUtils;
+import org.raml.parser.ResolveResourceException;
+import org.raml.parser.loader.ResourceLoader;
+
+/**
+ * Size bounded cache of compiled XML schemas shared between parses.
+ * <p/>
+ * Entries are keyed by the hash of the schema content and the base path used
+ * to resolve its imports and includes. Each entry also records the content hash of
+ * the resources its imports and includes were resolved to, and it is only handed to
+ * a parse whose resource loader still resolves them to the same content. Compiled
+ * {@link Schema} instances are immutable and thread safe, so the same instance is
+ * handed to every parse that compiles an identical schema. The least recently used
+ * entry is evicted once the cache is full.
+ */
+public class SchemaCache
+{
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final SchemaCache DEFAULT = new SchemaCache(DEFAULT_MAX_SIZE);
+
+    private final Map<String, Entry> schemas;
+
+    public SchemaCache(final int maxSize)
+    {
+        if (maxSize <= 0)
+        {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        schemas = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest)
+            {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @return the cache shared by default by all schema compilers
+     */
+    public static SchemaCache getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * @param resourceLoader the loader the imports and includes of the schema are resolved with
+     * @return the compiled schema or <tt>null</tt> if there is none or the loader resolves
+     *         any of its imports or includes to a different content
+     */
+    public Schema get(String schema, String basePath, ResourceLoader resourceLoader)
+    {
+        Entry entry = schemas.get(key(schema, basePath));
+        if (entry == null || !entry.isUpToDate(resourceLoader))
+        {
+            return null;
+        }
+        return entry.schema;
+    }
+
+    /**
+     * @param resources the resources fetched to resolve the imports and includes of the
+     *                  schema, with their content hash or <tt>null</tt> if not found
+     * @see #hash(byte[])
+     */
+    public void put(String schema, String basePath, Schema compiledSchema, Map<String, String> resources)
+    {
+        schemas.put(key(schema, basePath), new Entry(compiledSchema, new LinkedHashMap<String, String>(resources)));
+    }
+
+    public int size()
+    {
+        return schemas.size();
+    }
+
+    public void clear()
+    {
+        schemas.clear();
+    }
+
+    public static String hash(byte[] content)
+    {
+        try
+        {
+            return DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-256").digest(content));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String key(String schema, String basePath)
+    {
+        try
+        {
+            return hash(schema.getBytes("UTF-8")) + ":" + basePath;
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class Entry
+    {
+
+        private final Schema schema;
+        private final Map<String, String> resources;
+
+        Entry(Schema schema, Map<String, String> resources)
+        {
+            this.schema = schema;
+            this.resources = resources;
+        }
+
+        boolean isUpToDate(ResourceLoader resourceLoader)
+        {
+            for (Map.Entry<String, String> resource : resources.entrySet())
+            {
+                String hash = hash(resourceLoader, resource.getKey());
+                if (hash == null ? resource.getValue() != null : !hash.equals(resource.getValue()))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String hash(ResourceLoader resourceLoader, String resourceName)
+        {
+            InputStream content = resourceLoader.fetchResource(resourceName);
+            if (content == null)
+            {
+                return null;
+            }
+            try
+            {
+                return SchemaCache.hash(IOUtils.toByteArray(content));
+            }
+            catch (IOException e)
+            {
+                throw new ResolveResourceException(e);
+            }
+            finally
+            {
+                IOUtils.closeQuietly(content);
+            }
+        }
+    }
+}
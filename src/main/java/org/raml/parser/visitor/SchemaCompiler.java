@@ -15,8 +15,12 @@
  */
 package org.raml.parser.visitor;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.xml.XMLConstants;
@@ -25,31 +29,38 @@ import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.raml.parser.ResolveResourceException;
 import org.raml.parser.XsdResourceResolver;
 import org.raml.parser.loader.ResourceLoader;
 import org.raml.parser.tagresolver.ContextPath;
 import org.raml.parser.tagresolver.IncludeResolver;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
+/**
+ * Compiles the XML schemas of a single parse.
+ * <p/>
+ * Imports and includes are resolved relative to the context path of the parse using its
+ * resource loader. Compiled schemas are kept in a {@link SchemaCache} so identical schemas
+ * resolved against the same base path, and importing the same content, are compiled only
+ * once across parses.
+ */
 public final class SchemaCompiler
 {
 
     private static final String SEPARATOR = "-|_";
-    private static final SchemaCompiler instance = new SchemaCompiler();
-    private ContextPath contextPath;
-    private ResourceLoader resourceLoader;
+    private final ContextPath contextPath;
+    private final ResourceLoader resourceLoader;
+    private final SchemaCache schemaCache;
+    private ParseListener parseListener;
 
-    private SchemaCompiler()
+    public SchemaCompiler(ContextPath contextPath, ResourceLoader resourceLoader)
     {
+        this(contextPath, resourceLoader, SchemaCache.getDefault());
     }
 
-    public static SchemaCompiler getInstance()
-    {
-        return instance;
-    }
-
-    public void init(ContextPath contextPath, ResourceLoader resourceLoader)
+    public SchemaCompiler(ContextPath contextPath, ResourceLoader resourceLoader, SchemaCache schemaCache)
     {
         if (contextPath == null || resourceLoader == null)
         {
@@ -57,6 +68,12 @@ public final class SchemaCompiler
         }
         this.contextPath = contextPath;
         this.resourceLoader = resourceLoader;
+        this.schemaCache = schemaCache;
+    }
+
+    public void setParseListener(ParseListener parseListener)
+    {
+        this.parseListener = parseListener;
     }
 
     public Map<String, Object> compile(Map<String, String> encodedSchemas)
@@ -85,26 +102,49 @@ public final class SchemaCompiler
         String trimmedSchema = StringUtils.trimToEmpty(schema);
         if (trimmedSchema.startsWith("<") && trimmedSchema.endsWith(">"))
         {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
             ContextPath actualContextPath = contextPath;
             if (path != null)
             {
                 actualContextPath = new ContextPath(new IncludeInfo(path));
             }
-            factory.setResourceResolver(new XsdResourceResolver(actualContextPath, resourceLoader));
+            String basePath = getBasePath(actualContextPath);
+            compiledSchema = schemaCache.get(trimmedSchema, basePath, resourceLoader);
+            if (parseListener != null)
+            {
+                parseListener.onCacheAccess(ParseListener.Cache.SCHEMA, compiledSchema != null);
+            }
+            if (compiledSchema != null)
+            {
+                return compiledSchema;
+            }
+            long startTime = parseListener != null ? System.nanoTime() : 0;
+            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            HashingResourceLoader importLoader = new HashingResourceLoader(resourceLoader);
+            factory.setResourceResolver(new XsdResourceResolver(actualContextPath, importLoader));
             try
             {
                 compiledSchema = factory.newSchema(new StreamSource(new StringReader(trimmedSchema)));
+                schemaCache.put(trimmedSchema, basePath, compiledSchema, importLoader.fetchedResources);
             }
             catch (Exception e)
             {
                 //ignore exception as the error is detected by the validator
                 // and here we cannot tell if the schema is intended for xml or not
             }
+            if (parseListener != null)
+            {
+                parseListener.onPhase(ParseListener.Phase.SCHEMA_COMPILE, basePath, System.nanoTime() - startTime);
+            }
         }
         return compiledSchema;
     }
 
+    private static String getBasePath(ContextPath contextPath)
+    {
+        //relative imports and includes are resolved against the parent path of the current include
+        return contextPath.size() == 0 ? "" : contextPath.resolveAbsolutePath("");
+    }
+
     public Schema compile(String schema)
     {
         return compile(schema, null);
@@ -135,4 +175,44 @@ public final class SchemaCompiler
         String schema = encodedSchema.substring(idx + SEPARATOR.length(), encodedSchema.length());
         return new String[] {includePath, schema};
     }
+
+    /**
+     * Resource loader that keeps the content hash of the imports and includes of a schema.
+     */
+    private static class HashingResourceLoader implements ResourceLoader
+    {
+
+        private final ResourceLoader resourceLoader;
+        private final Map<String, String> fetchedResources = new LinkedHashMap<String, String>();
+
+        HashingResourceLoader(ResourceLoader resourceLoader)
+        {
+            this.resourceLoader = resourceLoader;
+        }
+
+        @Override
+        public InputStream fetchResource(String resourceName)
+        {
+            InputStream inputStream = resourceLoader.fetchResource(resourceName);
+            if (inputStream == null)
+            {
+                fetchedResources.put(resourceName, null);
+                return null;
+            }
+            try
+            {
+                byte[] content = IOUtils.toByteArray(inputStream);
+                fetchedResources.put(resourceName, SchemaCache.hash(content));
+                return new ByteArrayInputStream(content);
+            }
+            catch (IOException e)
+            {
+                throw new ResolveResourceException(e);
+            }
+            finally
+            {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Composes a YAML document from its event stream one root tuple at a time.
+ * <p/>
+ * Only the tuple being composed is held in memory, together with the anchored
+ * nodes that later aliases may refer to. Node tags, marks and merge flags are
+ * set the same way snakeyaml's composer does.
+ */
+class StreamingComposer
+{
+
+    private final Iterator<Event> events;
+    private final Resolver resolver = new Resolver();
+    private final Map<String, Node> anchors = new HashMap<String, Node>();
+    private Event nextEvent;
+    private MappingNode root;
+
+    StreamingComposer(Iterable<Event> events)
+    {
+        this.events = events.iterator();
+    }
+
+    /**
+     * Consumes the events up to the start of the root mapping.
+     *
+     * @return the root node without tuples or <tt>null</tt> if the stream is empty
+     */
+    MappingNode composeRoot()
+    {
+        expect(Event.ID.StreamStart);
+        if (peek().is(Event.ID.StreamEnd))
+        {
+            return null;
+        }
+        expect(Event.ID.DocumentStart);
+        if (!peek().is(Event.ID.MappingStart))
+        {
+            throw new YAMLException("Document root must be a mapping: " + peek().getStartMark());
+        }
+        root = createMappingNode((MappingStartEvent) next());
+        return root;
+    }
+
+    /**
+     * @return the next root tuple or <tt>null</tt> once the root mapping ends
+     */
+    NodeTuple nextRootTuple()
+    {
+        if (peek().is(Event.ID.MappingEnd))
+        {
+            root.setEndMark(next().getEndMark());
+            expect(Event.ID.DocumentEnd);
+            if (!peek().is(Event.ID.StreamEnd))
+            {
+                throw new YAMLException("expected a single document in the stream but found another document: "
+                                        + next().getStartMark());
+            }
+            return null;
+        }
+        Node keyNode = composeNode();
+        if (keyNode.getTag().equals(Tag.MERGE))
+        {
+            throw new YAMLException("Merge keys are not supported in the document root when streaming: " + keyNode.getStartMark());
+        }
+        return new NodeTuple(keyNode, composeNode());
+    }
+
+    private Node composeNode()
+    {
+        if (peek().is(Event.ID.Alias))
+        {
+            AliasEvent event = (AliasEvent) next();
+            Node node = anchors.get(event.getAnchor());
+            if (node == null)
+            {
+                throw new YAMLException("found undefined alias " + event.getAnchor() + ": " + event.getStartMark());
+            }
+            return node;
+        }
+        NodeEvent event = (NodeEvent) next();
+        Node node;
+        if (event.is(Event.ID.Scalar))
+        {
+            ScalarEvent scalarEvent = (ScalarEvent) event;
+            Tag tag = resolveTag(scalarEvent.getTag(), NodeId.scalar, scalarEvent.getValue(),
+                                 scalarEvent.getImplicit().canOmitTagInPlainScalar());
+            node = new ScalarNode(tag, isResolved(scalarEvent.getTag()), scalarEvent.getValue(),
+                                  scalarEvent.getStartMark(), scalarEvent.getEndMark(), scalarEvent.getStyle());
+            registerAnchor(event, node);
+        }
+        else if (event.is(Event.ID.SequenceStart))
+        {
+            CollectionStartEvent startEvent = (CollectionStartEvent) event;
+            List<Node> children = new ArrayList<Node>();
+            Tag tag = resolveTag(startEvent.getTag(), NodeId.sequence, null, startEvent.getImplicit());
+            SequenceNode sequenceNode = new SequenceNode(tag, isResolved(startEvent.getTag()), children,
+                                                         startEvent.getStartMark(), null, startEvent.getFlowStyle());
+            registerAnchor(event, sequenceNode);
+            while (!peek().is(Event.ID.SequenceEnd))
+            {
+                children.add(composeNode());
+            }
+            sequenceNode.setEndMark(next().getEndMark());
+            node = sequenceNode;
+        }
+        else
+        {
+            MappingNode mappingNode = createMappingNode((MappingStartEvent) event);
+            registerAnchor(event, mappingNode);
+            while (!peek().is(Event.ID.MappingEnd))
+            {
+                Node keyNode = composeNode();
+                if (keyNode.getTag().equals(Tag.MERGE))
+                {
+                    mappingNode.setMerged(true);
+                }
+                mappingNode.getValue().add(new NodeTuple(keyNode, composeNode()));
+            }
+            mappingNode.setEndMark(next().getEndMark());
+            node = mappingNode;
+        }
+        return node;
+    }
+
+    private MappingNode createMappingNode(MappingStartEvent startEvent)
+    {
+        Tag tag = resolveTag(startEvent.getTag(), NodeId.mapping, null, startEvent.getImplicit());
+        return new MappingNode(tag, isResolved(startEvent.getTag()), new ArrayList<NodeTuple>(),
+                               startEvent.getStartMark(), null, startEvent.getFlowStyle());
+    }
+
+    private void registerAnchor(NodeEvent event, Node node)
+    {
+        if (event.getAnchor() != null)
+        {
+            anchors.put(event.getAnchor(), node);
+        }
+    }
+
+    private Tag resolveTag(String tag, NodeId nodeId, String value, boolean implicit)
+    {
+        if (isResolved(tag))
+        {
+            return resolver.resolve(nodeId, value, implicit);
+        }
+        return new Tag(tag);
+    }
+
+    private boolean isResolved(String tag)
+    {
+        return tag == null || tag.equals("!");
+    }
+
+    private void expect(Event.ID id)
+    {
+        Event event = next();
+        if (!event.is(id))
+        {
+            throw new YAMLException("Expected " + id + " but found " + event + ": " + event.getStartMark());
+        }
+    }
+
+    private Event peek()
+    {
+        if (nextEvent == null)
+        {
+            nextEvent = events.next();
+        }
+        return nextEvent;
+    }
+
+    private Event next()
+    {
+        Event event = peek();
+        nextEvent = null;
+        return event;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.raml.parser.utils.Inflector;
+
+/**
+ * Functions available to resource type and trait parameters by name.
+ * <p/>
+ * Functions are looked up when templates are compiled, at the start of each parse, so
+ * functions registered in the registry of a builder or parser are available to its
+ * following parses. Builders and parsers use a registry of their own created by
+ * {@link #createDefault()}, which holds <tt>singularize</tt>, <tt>pluralize</tt>,
+ * <tt>camelize</tt> and <tt>capitalize</tt>, unless another one is given.
+ */
+public class TemplateFunctionRegistry
+{
+
+    private static final TemplateFunctionRegistry BUILT_IN = new TemplateFunctionRegistry();
+
+    static
+    {
+        BUILT_IN.register("singularize", new TemplateFunction()
+        {
+            @Override
+            public String apply(String value)
+            {
+                return Inflector.singularize(value);
+            }
+        });
+        BUILT_IN.register("pluralize", new TemplateFunction()
+        {
+            @Override
+            public String apply(String value)
+            {
+                return Inflector.pluralize(value);
+            }
+        });
+        BUILT_IN.register("camelize", new TemplateFunction()
+        {
+            @Override
+            public String apply(String value)
+            {
+                return Inflector.camelize(value);
+            }
+        });
+        BUILT_IN.register("capitalize", new TemplateFunction()
+        {
+            @Override
+            public String apply(String value)
+            {
+                return Inflector.capitalize(value);
+            }
+        });
+    }
+
+    private final Map<String, TemplateFunction> functions = new ConcurrentHashMap<String, TemplateFunction>();
+
+    public TemplateFunctionRegistry()
+    {
+    }
+
+    /**
+     * Creates a registry holding the functions of the given one. Functions registered
+     * afterwards in either registry are not seen by the other.
+     */
+    public TemplateFunctionRegistry(TemplateFunctionRegistry registry)
+    {
+        functions.putAll(registry.functions);
+    }
+
+    /**
+     * @return a new registry holding the built-in functions
+     */
+    public static TemplateFunctionRegistry createDefault()
+    {
+        return new TemplateFunctionRegistry(BUILT_IN);
+    }
+
+    /**
+     * @return the function previously registered with the name, if any
+     */
+    public TemplateFunction register(String name, TemplateFunction function)
+    {
+        if (name == null || function == null)
+        {
+            throw new IllegalArgumentException("Neither name nor function can be null");
+        }
+        return functions.put(name, function);
+    }
+
+    public TemplateFunction unregister(String name)
+    {
+        return functions.remove(name);
+    }
+
+    /**
+     * @return the function registered with the name or <tt>null</tt>
+     */
+    public TemplateFunction get(String name)
+    {
+        return functions.get(name);
+    }
+
+    /**
+     * @return the names of the registered functions
+     */
+    public Set<String> getNames()
+    {
+        return new TreeSet<String>(functions.keySet());
+    }
+}
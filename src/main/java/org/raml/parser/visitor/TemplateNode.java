@@ -0,0 +1,418 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import static org.raml.parser.rule.ValidationMessage.NON_SCALAR_KEY_MESSAGE;
+import static org.raml.parser.rule.ValidationResult.createErrorResult;
+import static org.raml.parser.visitor.TemplateResolver.TEMPLATE_PARAMETER_PATTERN;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import org.raml.parser.rule.ValidationResult;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+/**
+ * Resource type, trait or template reference node compiled for repeated application.
+ * <p/>
+ * Scalars are split once into literal text and <tt>&lt;&lt;parameter | !function&gt;&gt;</tt>
+ * slots. Binding a template to parameters fills the slots and returns a template without
+ * any, which can be copied as many times as needed. Every copy is made of new nodes, as
+ * merged nodes are modified afterwards, and binding reports the same errors a direct
+ * clone of the template would.
+ */
+abstract class TemplateNode
+{
+
+    private static final TemplateNode NULL_TEMPLATE = new TemplateNode()
+    {
+        @Override
+        TemplateNode bind(Map<String, String> parameters, List<ValidationResult> validations)
+        {
+            return this;
+        }
+
+        @Override
+        Node copy()
+        {
+            return null;
+        }
+
+        @Override
+        void collectParameterNames(Set<String> parameterNames)
+        {
+        }
+    };
+
+    /**
+     * @return the template with its parameters replaced by the given values
+     */
+    abstract TemplateNode bind(Map<String, String> parameters, List<ValidationResult> validations);
+
+    /**
+     * @return new nodes with the content of a bound template, or <tt>null</tt> if the node
+     *         type is not supported
+     */
+    abstract Node copy();
+
+    /**
+     * Adds the names of the parameters used by the template, not including functions.
+     */
+    abstract void collectParameterNames(Set<String> parameterNames);
+
+    Node apply(Map<String, String> parameters, List<ValidationResult> validations)
+    {
+        return bind(parameters, validations).copy();
+    }
+
+    /**
+     * @param functions the functions available to the parameters of the template
+     */
+    static TemplateNode compile(Node node, TemplateFunctionRegistry functions)
+    {
+        switch (node.getNodeId())
+        {
+            case mapping:
+                return new MappingTemplate((MappingNode) node, functions);
+            case sequence:
+                return new SequenceTemplate((SequenceNode) node, functions);
+            case scalar:
+                return compileScalar((ScalarNode) node, functions);
+            default:
+                return new UnsupportedTemplate(node);
+        }
+    }
+
+    private static ScalarTemplate compileScalar(ScalarNode node, TemplateFunctionRegistry functions)
+    {
+        Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(node.getValue());
+        if (!matcher.find())
+        {
+            return new ScalarTemplate(node, node.getValue());
+        }
+        List<String> literals = new ArrayList<String>();
+        List<TemplateParameter> parameters = new ArrayList<TemplateParameter>();
+        int end = 0;
+        do
+        {
+            literals.add(node.getValue().substring(end, matcher.start()));
+            parameters.add(new TemplateParameter(matcher.group(), functions));
+            end = matcher.end();
+        }
+        while (matcher.find());
+        literals.add(node.getValue().substring(end));
+        return new ScalarTemplate(node, literals.toArray(new String[literals.size()]),
+                                  parameters.toArray(new TemplateParameter[parameters.size()]));
+    }
+
+    private static class MappingTemplate extends TemplateNode
+    {
+
+        private final MappingNode node;
+        private final List<TemplateNode> keys;
+        private final List<TemplateNode> values;
+        private final Node invalidKey;
+
+        MappingTemplate(MappingNode node, TemplateFunctionRegistry functions)
+        {
+            this.node = node;
+            this.keys = new ArrayList<TemplateNode>();
+            this.values = new ArrayList<TemplateNode>();
+            Node invalidKey = null;
+            for (NodeTuple tuple : node.getValue())
+            {
+                if (tuple.getKeyNode().getNodeId() != NodeId.scalar)
+                {
+                    invalidKey = tuple.getKeyNode();
+                    break;
+                }
+                keys.add(compileScalar((ScalarNode) tuple.getKeyNode(), functions));
+                values.add(compile(tuple.getValueNode(), functions));
+            }
+            this.invalidKey = invalidKey;
+        }
+
+        private MappingTemplate(MappingNode node, List<TemplateNode> keys, List<TemplateNode> values)
+        {
+            this.node = node;
+            this.keys = keys;
+            this.values = values;
+            this.invalidKey = null;
+        }
+
+        @Override
+        TemplateNode bind(Map<String, String> parameters, List<ValidationResult> validations)
+        {
+            List<TemplateNode> boundKeys = new ArrayList<TemplateNode>(keys.size());
+            List<TemplateNode> boundValues = new ArrayList<TemplateNode>(values.size());
+            for (int i = 0; i < keys.size(); i++)
+            {
+                boundKeys.add(keys.get(i).bind(parameters, validations));
+                boundValues.add(values.get(i).bind(parameters, validations));
+            }
+            if (invalidKey != null)
+            {
+                validations.add(createErrorResult(NON_SCALAR_KEY_MESSAGE, invalidKey));
+            }
+            return new MappingTemplate(node, boundKeys, boundValues);
+        }
+
+        @Override
+        MappingNode copy()
+        {
+            List<NodeTuple> tuples = new ArrayList<NodeTuple>(keys.size());
+            for (int i = 0; i < keys.size(); i++)
+            {
+                tuples.add(new NodeTuple(keys.get(i).copy(), values.get(i).copy()));
+            }
+            return new MappingNode(node.getTag(), tuples, node.getFlowStyle());
+        }
+
+        @Override
+        void collectParameterNames(Set<String> parameterNames)
+        {
+            for (int i = 0; i < keys.size(); i++)
+            {
+                keys.get(i).collectParameterNames(parameterNames);
+                values.get(i).collectParameterNames(parameterNames);
+            }
+        }
+    }
+
+    private static class SequenceTemplate extends TemplateNode
+    {
+
+        private final SequenceNode node;
+        private final List<TemplateNode> items;
+
+        SequenceTemplate(SequenceNode node, TemplateFunctionRegistry functions)
+        {
+            this.node = node;
+            this.items = new ArrayList<TemplateNode>();
+            for (Node item : node.getValue())
+            {
+                items.add(compile(item, functions));
+            }
+        }
+
+        private SequenceTemplate(SequenceNode node, List<TemplateNode> items)
+        {
+            this.node = node;
+            this.items = items;
+        }
+
+        @Override
+        TemplateNode bind(Map<String, String> parameters, List<ValidationResult> validations)
+        {
+            List<TemplateNode> boundItems = new ArrayList<TemplateNode>(items.size());
+            for (TemplateNode item : items)
+            {
+                boundItems.add(item.bind(parameters, validations));
+            }
+            return new SequenceTemplate(node, boundItems);
+        }
+
+        @Override
+        SequenceNode copy()
+        {
+            List<Node> nodes = new ArrayList<Node>(items.size());
+            for (TemplateNode item : items)
+            {
+                nodes.add(item.copy());
+            }
+            return new SequenceNode(node.getTag(), nodes, node.getFlowStyle());
+        }
+
+        @Override
+        void collectParameterNames(Set<String> parameterNames)
+        {
+            for (TemplateNode item : items)
+            {
+                item.collectParameterNames(parameterNames);
+            }
+        }
+    }
+
+    private static class ScalarTemplate extends TemplateNode
+    {
+
+        private final ScalarNode node;
+        private final String value;
+        private final String[] literals;
+        private final TemplateParameter[] parameters;
+
+        ScalarTemplate(ScalarNode node, String value)
+        {
+            this.node = node;
+            this.value = value;
+            this.literals = null;
+            this.parameters = null;
+        }
+
+        /**
+         * @param literals   the text around the parameters
+         * @param parameters the parameters between each pair of literals
+         */
+        ScalarTemplate(ScalarNode node, String[] literals, TemplateParameter[] parameters)
+        {
+            this.node = node;
+            this.value = null;
+            this.literals = literals;
+            this.parameters = parameters;
+        }
+
+        @Override
+        TemplateNode bind(Map<String, String> parameterValues, List<ValidationResult> validations)
+        {
+            if (parameters == null)
+            {
+                return this;
+            }
+            StringBuilder builder = new StringBuilder(literals[0]);
+            for (int i = 0; i < parameters.length; i++)
+            {
+                builder.append(parameters[i].resolve(parameterValues, node, validations));
+                builder.append(literals[i + 1]);
+            }
+            return new ScalarTemplate(node, builder.toString());
+        }
+
+        @Override
+        ScalarNode copy()
+        {
+            return new ScalarNode(node.getTag(), value, node.getStartMark(), node.getEndMark(), node.getStyle());
+        }
+
+        @Override
+        void collectParameterNames(Set<String> parameterNames)
+        {
+            if (parameters != null)
+            {
+                for (TemplateParameter parameter : parameters)
+                {
+                    parameter.collectParameterNames(parameterNames);
+                }
+            }
+        }
+    }
+
+    private static class UnsupportedTemplate extends TemplateNode
+    {
+
+        private final Node node;
+
+        UnsupportedTemplate(Node node)
+        {
+            this.node = node;
+        }
+
+        @Override
+        TemplateNode bind(Map<String, String> parameters, List<ValidationResult> validations)
+        {
+            validations.add(createErrorResult("unsupported node type: " + node.getNodeId(), node));
+            return NULL_TEMPLATE;
+        }
+
+        @Override
+        Node copy()
+        {
+            return null;
+        }
+
+        @Override
+        void collectParameterNames(Set<String> parameterNames)
+        {
+        }
+    }
+
+    /**
+     * <tt>&lt;&lt;parameter | !function ...&gt;&gt;</tt> expression split into its tokens.
+     */
+    private static class TemplateParameter
+    {
+
+        private final String expression;
+        private final String[] tokens;
+        private final TemplateFunction[] functions;
+
+        TemplateParameter(String expression, TemplateFunctionRegistry registry)
+        {
+            this.expression = expression;
+            this.tokens = expression.substring(2, expression.length() - 2).split("\\|");
+            this.functions = new TemplateFunction[tokens.length];
+            for (int i = 0; i < tokens.length; i++)
+            {
+                tokens[i] = tokens[i].trim();
+                if (tokens[i].startsWith("!"))
+                {
+                    functions[i] = registry.get(tokens[i].substring(1));
+                }
+            }
+        }
+
+        void collectParameterNames(Set<String> parameterNames)
+        {
+            for (String token : tokens)
+            {
+                if (!token.startsWith("!"))
+                {
+                    parameterNames.add(token);
+                }
+            }
+        }
+
+        String resolve(Map<String, String> parameters, ScalarNode node, List<ValidationResult> validations)
+        {
+            String result = "";
+            for (int i = 0; i < tokens.length; i++)
+            {
+                String token = tokens[i];
+                if (parameters.containsKey(token))
+                {
+                    result = parameters.get(token);
+                }
+                else if (functions[i] != null)
+                {
+                    try
+                    {
+                        result = functions[i].apply(result);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        validations.add(createErrorResult("Invalid parameter function: " + token, node));
+                    }
+                }
+                else if (token.startsWith("!"))
+                {
+                    validations.add(createErrorResult("Invalid parameter function: " + token, node));
+                }
+                else
+                {
+                    validations.add(createErrorResult("Invalid parameter definition: " + expression, node));
+                }
+            }
+            return result;
+        }
+    }
+}
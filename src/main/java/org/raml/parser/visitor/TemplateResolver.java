@@ -23,26 +23,32 @@ import static org.yaml.snakeyaml.nodes.NodeId.mapping;
 import static org.yaml.snakeyaml.nodes.NodeId.scalar;
 import static org.yaml.snakeyaml.nodes.NodeId.sequence;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.lang.StringUtils;
 import org.raml.model.Action;
 import org.raml.model.ActionType;
 import org.raml.model.Resource;
 import org.raml.parser.loader.ResourceLoader;
 import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.tagresolver.ContextPath;
 import org.raml.parser.tagresolver.ContextPathAware;
 import org.raml.parser.tagresolver.IncludeResolver;
-import org.raml.parser.utils.Inflector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.nodes.MappingNode;
@@ -61,14 +67,25 @@ public class TemplateResolver
     public static final String TRAIT_USE_KEY = "is";
     public static final String RESOURCE_TYPE_USE_KEY = "type";
     public static final Pattern TEMPLATE_PARAMETER_PATTERN = Pattern.compile("<<[^>]+>>");
+    private static final Set<String> RESOURCE_NON_MERGEABLE_FIELDS = Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList("usage", "summary", "displayName", "type", "is")));
+    private static final Set<String> ACTION_NON_MERGEABLE_FIELDS = Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList("usage", "summary", "displayName", "is")));
+    private static final Set<String> RESOURCE_TYPE_DEFAULT_PARAMETERS = Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList("resourcePath", "resourcePathName")));
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private IncludeResolver includeResolver = new IncludeResolver();
-    private Map<String, MappingNode> resourceTypesMap = new HashMap<String, MappingNode>();
+    private Map<String, MappingNode> resourceTypesMap = new LinkedHashMap<String, MappingNode>();
     private Map<String, MappingNode> traitsMap = new HashMap<String, MappingNode>();
+    private Map<MappingNode, CompiledTemplate> compiledTemplates = new IdentityHashMap<MappingNode, CompiledTemplate>();
+    private Map<String, FlattenedResourceType> flattenedResourceTypes = new HashMap<String, FlattenedResourceType>();
+    private Set<String> cyclicResourceTypes = new HashSet<String>();
     private ResourceLoader resourceLoader;
     private NodeHandler nodeNandler;
     private Set<MappingNode> resolvedNodes = new HashSet<MappingNode>();
+    private ParseListener parseListener;
+    private TemplateFunctionRegistry templateFunctions;
 
     private enum TemplateType
     {
@@ -76,12 +93,42 @@ public class TemplateResolver
     }
 
     public TemplateResolver(ResourceLoader resourceLoader, NodeHandler nodeNandler)
+    {
+        this(resourceLoader, nodeNandler, TemplateFunctionRegistry.createDefault());
+    }
+
+    /**
+     * @param templateFunctions the functions available to the resource type and trait parameters
+     */
+    public TemplateResolver(ResourceLoader resourceLoader, NodeHandler nodeNandler, TemplateFunctionRegistry templateFunctions)
     {
         this.resourceLoader = resourceLoader;
         this.nodeNandler = nodeNandler;
+        this.templateFunctions = templateFunctions;
         this.includeResolver.setContextPath(((ContextPathAware) nodeNandler).getContextPath());
     }
 
+    /**
+     * Creates a resolver that shares the templates declared in the given resolver.
+     * Template declarations are only read while resolving resources, so both
+     * resolvers can be used from different threads.
+     */
+    TemplateResolver(TemplateResolver templates, NodeHandler nodeNandler)
+    {
+        this(templates.resourceLoader, nodeNandler, templates.templateFunctions);
+        this.resourceTypesMap = templates.resourceTypesMap;
+        this.traitsMap = templates.traitsMap;
+        this.compiledTemplates = templates.compiledTemplates;
+        this.flattenedResourceTypes = templates.flattenedResourceTypes;
+        this.cyclicResourceTypes = templates.cyclicResourceTypes;
+    }
+
+    public void setParseListener(ParseListener parseListener)
+    {
+        this.parseListener = parseListener;
+        includeResolver.setParseListener(parseListener);
+    }
+
     public Map<String, MappingNode> getResourceTypesMap()
     {
         return resourceTypesMap;
@@ -93,6 +140,19 @@ public class TemplateResolver
     }
 
     public List<ValidationResult> init(MappingNode rootNode)
+    {
+        long startTime = parseListener != null ? System.nanoTime() : 0;
+        List<ValidationResult> validationResults = initTemplates(rootNode);
+        if (parseListener != null)
+        {
+            ContextPath contextPath = includeResolver.getContextPath();
+            String location = contextPath.size() == 0 ? null : contextPath.peek().getIncludeName();
+            parseListener.onPhase(ParseListener.Phase.TEMPLATE_INIT, location, System.nanoTime() - startTime);
+        }
+        return validationResults;
+    }
+
+    private List<ValidationResult> initTemplates(MappingNode rootNode)
     {
         List<ValidationResult> validationResults = new ArrayList<ValidationResult>();
 
@@ -102,6 +162,7 @@ public class TemplateResolver
             return validationResults;
         }
 
+        boolean resourceTypesDeclared = false;
         for (int i = 0; i < rootNode.getValue().size(); i++)
         {
             NodeTuple rootTuple = rootNode.getValue().get(i);
@@ -117,22 +178,439 @@ public class TemplateResolver
                 Node templateSequence = resolveInclude(rootTuple.getValueNode());
                 if (templateSequence != rootTuple.getValueNode())
                 {
-                    rootNode.getValue().remove(i);
-                    rootNode.getValue().add(i, new NodeTuple(keyNode, templateSequence));
+                    setTupleValue(rootNode, i, templateSequence);
                 }
                 if (templateSequence.getNodeId() != sequence)
                 {
                     validationResults.add(createErrorResult("Sequence expected", templateSequence));
-                    rootNode.getValue().remove(i);
-                    rootNode.getValue().add(i, new NodeTuple(keyNode, new SequenceNode(Tag.SEQ, new ArrayList<Node>(), false)));
+                    setTupleValue(rootNode, i, new SequenceNode(Tag.SEQ, new ArrayList<Node>(), false));
                     break;
                 }
                 loopTemplateSequence((SequenceNode) templateSequence, key, validationResults);
+                resourceTypesDeclared |= key.equals("resourceTypes");
             }
         }
+        if (resourceTypesDeclared)
+        {
+            flattenResourceTypes(validationResults);
+        }
         return validationResults;
     }
 
+    /**
+     * Builds the inheritance graph of the declared resource types, reporting every cycle
+     * once, and pre-merges the chain of each type into a single template with the
+     * parameters of the type itself. Chains with a parameterized parent name, traits or
+     * parameterized keys are still merged one level at a time when applied.
+     */
+    private void flattenResourceTypes(List<ValidationResult> validationResults)
+    {
+        Map<String, String> parentTypes = new HashMap<String, String>();
+        for (Map.Entry<String, MappingNode> entry : resourceTypesMap.entrySet())
+        {
+            String parentType = getParentTypeName(entry.getValue());
+            if (parentType != null)
+            {
+                parentTypes.put(entry.getKey(), parentType);
+            }
+        }
+
+        cyclicResourceTypes.clear();
+        Set<String> visited = new HashSet<String>();
+        for (String typeName : resourceTypesMap.keySet())
+        {
+            List<String> path = new ArrayList<String>();
+            String current = typeName;
+            while (current != null && !visited.contains(current) && !path.contains(current))
+            {
+                path.add(current);
+                current = parentTypes.get(current);
+            }
+            if (current != null && path.contains(current))
+            {
+                List<String> cycle = path.subList(path.indexOf(current), path.size());
+                cyclicResourceTypes.addAll(cycle);
+                StringBuilder message = new StringBuilder("Circular resource type reference: ");
+                for (String cycleType : cycle)
+                {
+                    message.append(cycleType).append(" -> ");
+                }
+                message.append(current);
+                validationResults.add(createErrorResult(message.toString(), getTupleValue(resourceTypesMap.get(current), RESOURCE_TYPE_USE_KEY)));
+            }
+            visited.addAll(path);
+        }
+
+        flattenedResourceTypes.clear();
+        Map<String, MappingNode> flattenedNodes = new HashMap<String, MappingNode>();
+        for (Map.Entry<String, String> entry : parentTypes.entrySet())
+        {
+            MappingNode flattened = flattenResourceType(entry.getKey(), parentTypes, flattenedNodes);
+            if (flattened != null)
+            {
+                Set<String> ownActions = new HashSet<String>();
+                for (NodeTuple tuple : resourceTypesMap.get(entry.getKey()).getValue())
+                {
+                    String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+                    if (isAction(key))
+                    {
+                        ownActions.add(normalizeKey(key));
+                    }
+                }
+                flattenedResourceTypes.put(entry.getKey(), new FlattenedResourceType(new CompiledTemplate(flattened, templateFunctions), ownActions));
+            }
+        }
+    }
+
+    /**
+     * @return the type merged with its ancestors, or <tt>null</tt> if the chain can not
+     *         be merged before knowing the parameters
+     */
+    private MappingNode flattenResourceType(String typeName, Map<String, String> parentTypes, Map<String, MappingNode> flattenedNodes)
+    {
+        if (flattenedNodes.containsKey(typeName))
+        {
+            return flattenedNodes.get(typeName);
+        }
+        flattenedNodes.put(typeName, null);
+        MappingNode typeNode = resourceTypesMap.get(typeName);
+        String parentType = parentTypes.get(typeName);
+        MappingNode flattened = null;
+        if (typeNode != null && !cyclicResourceTypes.contains(typeName)
+            && (parentType != null || getTupleValue(typeNode, RESOURCE_TYPE_USE_KEY) == null))
+        {
+            flattened = copyFlattenableType(typeNode);
+            if (flattened != null && parentType != null)
+            {
+                MappingNode parent = flattenResourceType(parentType, parentTypes, flattenedNodes);
+                Map<String, String> parentParameters = getParentTypeParameters(typeNode);
+                MappingNode boundParent = parent == null || parentParameters == null ? null : (MappingNode) bindParentType(parent, parentParameters, templateFunctions);
+                if (boundParent == null)
+                {
+                    flattened = null;
+                }
+                else
+                {
+                    mergeNodes(flattened, boundParent, new MergeContext(Resource.class, boundParent.getTag()));
+                }
+            }
+        }
+        flattenedNodes.put(typeName, flattened);
+        return flattened;
+    }
+
+    /**
+     * @return a copy of the type without its parent reference and with empty actions as
+     *         mappings, as they are before merging the parent, or <tt>null</tt> if the type
+     *         uses traits, includes actions or has keys with parameters
+     */
+    private MappingNode copyFlattenableType(MappingNode typeNode)
+    {
+        if (!hasLiteralKeys(typeNode))
+        {
+            return null;
+        }
+        List<NodeTuple> tuples = new ArrayList<NodeTuple>();
+        for (NodeTuple tuple : typeNode.getValue())
+        {
+            String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+            Node valueNode = tuple.getValueNode();
+            if (key.equals(TRAIT_USE_KEY))
+            {
+                return null;
+            }
+            if (key.equals(RESOURCE_TYPE_USE_KEY))
+            {
+                continue;
+            }
+            if (isAction(key))
+            {
+                if (valueNode.getTag().equals(Tag.NULL))
+                {
+                    valueNode = new MappingNode(Tag.MAP, false, new ArrayList<NodeTuple>(),
+                                                valueNode.getStartMark(), valueNode.getEndMark(), false);
+                }
+                else if (valueNode.getNodeId() != mapping || valueNode.getTag().equals(INCLUDE_TAG)
+                         || getTupleValue((MappingNode) valueNode, TRAIT_USE_KEY) != null)
+                {
+                    return null;
+                }
+            }
+            tuples.add(new NodeTuple(copyNode(tuple.getKeyNode()), copyNode(valueNode)));
+        }
+        return new MappingNode(typeNode.getTag(), false, tuples, typeNode.getStartMark(), typeNode.getEndMark(), typeNode.getFlowStyle());
+    }
+
+    private static boolean hasLiteralKeys(Node node)
+    {
+        if (node.getNodeId() == mapping)
+        {
+            for (NodeTuple tuple : ((MappingNode) node).getValue())
+            {
+                Node keyNode = tuple.getKeyNode();
+                if (keyNode.getNodeId() != scalar || keyNode.getTag().equals(Tag.MERGE)
+                    || TEMPLATE_PARAMETER_PATTERN.matcher(((ScalarNode) keyNode).getValue()).find()
+                    || !hasLiteralKeys(tuple.getValueNode()))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (node.getNodeId() == sequence)
+        {
+            for (Node item : ((SequenceNode) node).getValue())
+            {
+                if (!hasLiteralKeys(item))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Node copyNode(Node node)
+    {
+        if (node.getNodeId() == mapping)
+        {
+            MappingNode mappingNode = (MappingNode) node;
+            List<NodeTuple> tuples = new ArrayList<NodeTuple>(mappingNode.getValue().size());
+            for (NodeTuple tuple : mappingNode.getValue())
+            {
+                tuples.add(new NodeTuple(copyNode(tuple.getKeyNode()), copyNode(tuple.getValueNode())));
+            }
+            return new MappingNode(node.getTag(), false, tuples, node.getStartMark(), node.getEndMark(), mappingNode.getFlowStyle());
+        }
+        if (node.getNodeId() == sequence)
+        {
+            SequenceNode sequenceNode = (SequenceNode) node;
+            List<Node> items = new ArrayList<Node>(sequenceNode.getValue().size());
+            for (Node item : sequenceNode.getValue())
+            {
+                items.add(copyNode(item));
+            }
+            return new SequenceNode(node.getTag(), false, items, node.getStartMark(), node.getEndMark(), sequenceNode.getFlowStyle());
+        }
+        if (node.getNodeId() == scalar)
+        {
+            ScalarNode scalarNode = (ScalarNode) node;
+            return new ScalarNode(node.getTag(), scalarNode.getValue(), node.getStartMark(), node.getEndMark(), scalarNode.getStyle());
+        }
+        return node;
+    }
+
+    /**
+     * Replaces the value of a tuple in place, as tuples can not be modified.
+     */
+    private static void setTupleValue(MappingNode node, int index, Node valueNode)
+    {
+        node.getValue().set(index, new NodeTuple(node.getValue().get(index).getKeyNode(), valueNode));
+    }
+
+    private static Node getTupleValue(MappingNode node, String key)
+    {
+        for (NodeTuple tuple : node.getValue())
+        {
+            if (tuple.getKeyNode().getNodeId() == scalar && key.equals(((ScalarNode) tuple.getKeyNode()).getValue()))
+            {
+                return tuple.getValueNode();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the name of the parent type, or <tt>null</tt> if there is none or it is
+     *         only known once the type parameters are
+     */
+    private static String getParentTypeName(MappingNode typeNode)
+    {
+        Node reference = getTupleValue(typeNode, RESOURCE_TYPE_USE_KEY);
+        if (reference != null && reference.getNodeId() == mapping && !((MappingNode) reference).getValue().isEmpty())
+        {
+            reference = ((MappingNode) reference).getValue().get(0).getKeyNode();
+        }
+        if (reference == null || reference.getNodeId() != scalar || !reference.getTag().equals(Tag.STR))
+        {
+            return null;
+        }
+        String name = ((ScalarNode) reference).getValue();
+        return TEMPLATE_PARAMETER_PATTERN.matcher(name).find() ? null : name;
+    }
+
+    /**
+     * @return the parameters the type passes to its parent, as written in the type, or
+     *         <tt>null</tt> if they are not all scalars
+     */
+    private static Map<String, String> getParentTypeParameters(MappingNode typeNode)
+    {
+        Map<String, String> parameters = new HashMap<String, String>();
+        Node reference = getTupleValue(typeNode, RESOURCE_TYPE_USE_KEY);
+        if (reference.getNodeId() != mapping)
+        {
+            return parameters;
+        }
+        Node params = ((MappingNode) reference).getValue().get(0).getValueNode();
+        if (params.getTag().equals(Tag.NULL))
+        {
+            return parameters;
+        }
+        if (params.getNodeId() != mapping)
+        {
+            return null;
+        }
+        for (NodeTuple paramTuple : ((MappingNode) params).getValue())
+        {
+            if (paramTuple.getKeyNode().getNodeId() != scalar || paramTuple.getValueNode().getNodeId() != scalar
+                || paramTuple.getValueNode().getTag().equals(INCLUDE_TAG))
+            {
+                return null;
+            }
+            parameters.put(((ScalarNode) paramTuple.getKeyNode()).getValue(), ((ScalarNode) paramTuple.getValueNode()).getValue());
+        }
+        return parameters;
+    }
+
+    /**
+     * @return a copy of the flattened parent with its parameters replaced by the values or
+     *         the parameters of the child type, or <tt>null</tt> if any of them can not be
+     *         replaced before knowing the parameters of the child
+     */
+    private static Node bindParentType(Node node, Map<String, String> parameters, TemplateFunctionRegistry functions)
+    {
+        if (node.getNodeId() == mapping)
+        {
+            MappingNode mappingNode = (MappingNode) node;
+            List<NodeTuple> tuples = new ArrayList<NodeTuple>(mappingNode.getValue().size());
+            for (NodeTuple tuple : mappingNode.getValue())
+            {
+                Node valueNode = bindParentType(tuple.getValueNode(), parameters, functions);
+                if (valueNode == null)
+                {
+                    return null;
+                }
+                tuples.add(new NodeTuple(copyNode(tuple.getKeyNode()), valueNode));
+            }
+            return new MappingNode(node.getTag(), false, tuples, node.getStartMark(), node.getEndMark(), mappingNode.getFlowStyle());
+        }
+        if (node.getNodeId() == sequence)
+        {
+            SequenceNode sequenceNode = (SequenceNode) node;
+            List<Node> items = new ArrayList<Node>(sequenceNode.getValue().size());
+            for (Node item : sequenceNode.getValue())
+            {
+                Node boundItem = bindParentType(item, parameters, functions);
+                if (boundItem == null)
+                {
+                    return null;
+                }
+                items.add(boundItem);
+            }
+            return new SequenceNode(node.getTag(), false, items, node.getStartMark(), node.getEndMark(), sequenceNode.getFlowStyle());
+        }
+        if (node.getNodeId() == scalar)
+        {
+            ScalarNode scalarNode = (ScalarNode) node;
+            Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(scalarNode.getValue());
+            StringBuilder value = new StringBuilder();
+            int end = 0;
+            while (matcher.find())
+            {
+                String parameter = bindParentParameter(matcher.group(), parameters, functions);
+                if (parameter == null)
+                {
+                    return null;
+                }
+                value.append(scalarNode.getValue(), end, matcher.start()).append(parameter);
+                end = matcher.end();
+            }
+            value.append(scalarNode.getValue().substring(end));
+            return new ScalarNode(node.getTag(), value.toString(), node.getStartMark(), node.getEndMark(), scalarNode.getStyle());
+        }
+        return node;
+    }
+
+    /**
+     * Rewrites a parameter of the parent type as the text it takes once the child type is
+     * applied: functions applied to literal values are evaluated, and those applied to a
+     * parameter of the child are chained to its own functions.
+     *
+     * @return the rewritten expression or <tt>null</tt> if it can not be rewritten
+     */
+    private static String bindParentParameter(String expression, Map<String, String> parameters, TemplateFunctionRegistry functions)
+    {
+        String literal = "";
+        List<String> chained = null;
+        String text = null;
+        for (String token : expression.substring(2, expression.length() - 2).split("\\|"))
+        {
+            token = token.trim();
+            if (token.startsWith("!"))
+            {
+                TemplateFunction function = functions.get(token.substring(1));
+                if (text != null || function == null)
+                {
+                    return null;
+                }
+                if (chained != null)
+                {
+                    chained.add(token);
+                    continue;
+                }
+                try
+                {
+                    literal = function.apply(literal);
+                }
+                catch (RuntimeException e)
+                {
+                    return null;
+                }
+            }
+            else if (parameters.containsKey(token) || RESOURCE_TYPE_DEFAULT_PARAMETERS.contains(token))
+            {
+                String value = parameters.containsKey(token) ? parameters.get(token) : "<<" + token + ">>";
+                literal = null;
+                chained = null;
+                text = null;
+                Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(value);
+                if (matcher.matches())
+                {
+                    chained = new ArrayList<String>();
+                    for (String childToken : value.substring(2, value.length() - 2).split("\\|"))
+                    {
+                        chained.add(childToken.trim());
+                    }
+                }
+                else if (matcher.find(0))
+                {
+                    text = value;
+                }
+                else
+                {
+                    literal = value;
+                }
+            }
+            else
+            {
+                return null;
+            }
+        }
+        if (chained != null)
+        {
+            StringBuilder rewritten = new StringBuilder("<<");
+            for (int i = 0; i < chained.size(); i++)
+            {
+                rewritten.append(i == 0 ? "" : " | ").append(chained.get(i));
+            }
+            return rewritten.append(">>").toString();
+        }
+        if (text != null)
+        {
+            return text;
+        }
+        return literal.contains("<<") || literal.contains(">>") ? null : literal;
+    }
+
     private void loopTemplateSequence(SequenceNode templateSequence, String templateType, List<ValidationResult> validationResults)
     {
         List<Node> prunedTemplates = new ArrayList<Node>();
@@ -166,6 +644,7 @@ public class TemplateResolver
                 {
                     traitsMap.put(templateKey, (MappingNode) templateValue);
                 }
+                compiledTemplates.put((MappingNode) templateValue, new CompiledTemplate((MappingNode) templateValue, templateFunctions));
                 prunedTemplates.add(getFakeTemplateNode(tuple.getKeyNode()));
             }
         }
@@ -203,7 +682,13 @@ public class TemplateResolver
         }
         resolvedNodes.add(resourceNode);
 
-        return new ResourceTemplateMerger(templateValidations, resourceNode, relativeUri, fullUri).merge();
+        long startTime = parseListener != null ? System.nanoTime() : 0;
+        new ResourceTemplateMerger(templateValidations, resourceNode, relativeUri, fullUri).merge();
+        if (parseListener != null)
+        {
+            parseListener.onPhase(ParseListener.Phase.TEMPLATE_MERGE, fullUri, System.nanoTime() - startTime);
+        }
+        return templateValidations;
     }
 
 
@@ -227,6 +712,7 @@ public class TemplateResolver
         private String relativeUri;
         private String fullUri;
         private String currentAction;
+        private List<String> typeChain = new ArrayList<String>();
 
         public ResourceTemplateMerger(List<ValidationResult> templateValidations, MappingNode resourceNode, String relativeUri, String fullUri)
         {
@@ -273,7 +759,24 @@ public class TemplateResolver
 
             if (typeReference != null)
             {
-                MappingNode clone = cloneTemplate(typeReference, TemplateType.RESOURCE_TYPE);
+                String typeName = getTemplateName(typeReference);
+                if (cyclicResourceTypes.contains(typeName))
+                {
+                    //reported on init
+                    return false;
+                }
+                if (typeChain.contains(typeName))
+                {
+                    addError("Circular resource type reference: " + StringUtils.join(typeChain, " -> ") + " -> " + typeName, typeReference);
+                    return false;
+                }
+                FlattenedResourceType flattenedType = getFlattenedResourceType(typeReference);
+                MappingNode clone = flattenedType != null ? expandFlattenedType(typeReference, flattenedType) : null;
+                if (clone == null)
+                {
+                    flattenedType = null;
+                    clone = cloneTemplate(typeReference, TemplateType.RESOURCE_TYPE);
+                }
                 if (clone == null)
                 {
                     //template not found
@@ -290,7 +793,21 @@ public class TemplateResolver
                 }
 
                 //merge parent type if defined
+                typeChain.add(typeName);
                 mergeTemplatesIfNeeded(clone, actionNodes);
+                typeChain.remove(typeChain.size() - 1);
+                if (flattenedType != null)
+                {
+                    //the type actions were added to the action map before merging the parent
+                    for (String action : flattenedType.ownActions)
+                    {
+                        Node actionNode = getActionNode(clone, action);
+                        if (!actionNodes.containsKey(action) && actionNode != null)
+                        {
+                            actionNodes.put(action, actionNode);
+                        }
+                    }
+                }
 
                 //merge resource level traits
                 if (traitsReference.get(ALL_ACTIONS) != null)
@@ -319,12 +836,12 @@ public class TemplateResolver
                 String key = ((ScalarNode) resourceTuple.getKeyNode()).getValue();
                 if (key.equals(RESOURCE_TYPE_USE_KEY))
                 {
-                    templateReferences.typeReference = cloneNode(resourceTuple.getValueNode(), new HashMap<String, String>());
-                    removeParametersFromTemplateCall(resourceTuple);
+                    templateReferences.typeReference = cloneNode(resourceTuple.getValueNode());
+                    removeParametersFromTemplateCall(resourceNode, i);
                 }
                 else if (key.equals(TRAIT_USE_KEY) && expect(resourceTuple.getValueNode(), sequence))
                 {
-                    SequenceNode sequence = cloneSequenceNode((SequenceNode) resourceTuple.getValueNode(), new HashMap<String, String>());
+                    SequenceNode sequence = (SequenceNode) cloneNode(resourceTuple.getValueNode());
                     templateReferences.traitsReference.put(ALL_ACTIONS, sequence);
                     removeParametersFromTraitsCall(resourceTuple);
                 }
@@ -333,13 +850,14 @@ public class TemplateResolver
                     Node actionNode = resourceTuple.getValueNode();
                     if (actionNode.getTag().equals(Tag.NULL))
                     {
-                        actionNode = setTupleValueToEmptyMappingNode(resourceTuple);
+                        actionNode = new MappingNode(Tag.MAP, false, new ArrayList<NodeTuple>(),
+                                                     actionNode.getStartMark(), actionNode.getEndMark(), false);
+                        setTupleValue(resourceNode, i, actionNode);
                     }
                     else if (actionNode.getTag().equals(INCLUDE_TAG))
                     {
                         actionNode = includeResolver.resolve(actionNode, resourceLoader, nodeNandler);
-                        resourceNode.getValue().remove(i);
-                        resourceNode.getValue().add(i, new NodeTuple(resourceTuple.getKeyNode(), actionNode));
+                        setTupleValue(resourceNode, i, actionNode);
                     }
                     if (actionNode.getNodeId() != mapping)
                     {
@@ -351,7 +869,7 @@ public class TemplateResolver
                         String actionTupleKey = ((ScalarNode) actionTuple.getKeyNode()).getValue();
                         if (actionTupleKey.equals(TRAIT_USE_KEY) && expect(actionTuple.getValueNode(), sequence))
                         {
-                            SequenceNode sequence = cloneSequenceNode((SequenceNode) actionTuple.getValueNode(), new HashMap<String, String>());
+                            SequenceNode sequence = (SequenceNode) cloneNode(actionTuple.getValueNode());
                             templateReferences.traitsReference.put(normalizeKey(key), sequence);
                             removeParametersFromTraitsCall(actionTuple);
                         }
@@ -386,47 +904,19 @@ public class TemplateResolver
                         Node keyNode = ((MappingNode) traitNode).getValue().get(0).getKeyNode();
                         if (keyNode.getNodeId() == scalar)
                         {
-                            traitList.remove(i);
-                            traitList.add(i, keyNode);
+                            traitList.set(i, keyNode);
                         }
                     }
                 }
             }
         }
 
-        private void removeParametersFromTemplateCall(NodeTuple typeNodeTuple)
+        private void removeParametersFromTemplateCall(MappingNode resourceNode, int typeIndex)
         {
-            if (typeNodeTuple.getValueNode().getNodeId() == mapping)
+            Node typeNode = resourceNode.getValue().get(typeIndex).getValueNode();
+            if (typeNode.getNodeId() == mapping)
             {
-                NodeTuple typeParamTuple = ((MappingNode) typeNodeTuple.getValueNode()).getValue().get(0);
-                try
-                {
-                    Field value = typeNodeTuple.getClass().getDeclaredField("valueNode");
-                    value.setAccessible(true);
-                    value.set(typeNodeTuple, typeParamTuple.getKeyNode());
-                }
-                catch (Exception e)
-                {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
-
-        private Node setTupleValueToEmptyMappingNode(NodeTuple tuple)
-        {
-            try
-            {
-                Field value = tuple.getClass().getDeclaredField("valueNode");
-                value.setAccessible(true);
-                Node valueNode = tuple.getValueNode();
-                MappingNode mappingNode = new MappingNode(Tag.MAP, false, new ArrayList<NodeTuple>(),
-                                                          valueNode.getStartMark(), valueNode.getEndMark(), false);
-                value.set(tuple, mappingNode);
-                return mappingNode;
-            }
-            catch (Exception e)
-            {
-                throw new RuntimeException(e);
+                setTupleValue(resourceNode, typeIndex, ((MappingNode) typeNode).getValue().get(0).getKeyNode());
             }
         }
 
@@ -490,7 +980,75 @@ public class TemplateResolver
                 addError(label + " not defined: " + templateName, reference);
                 return null;
             }
-            return cloneMappingNode(templateNode, getTemplateParameters(reference, defaultParameters));
+            CompiledTemplate template = compiledTemplates.get(templateNode);
+            if (template == null)
+            {
+                //declared after init, compiled for this application only
+                template = new CompiledTemplate(templateNode, templateFunctions);
+            }
+            return template.expand(getTemplateParameters(reference, defaultParameters), templateValidations);
+        }
+
+        /**
+         * @return the flattened chain of the referenced type if the reference passes
+         *         valid parameters other than the default ones
+         */
+        private FlattenedResourceType getFlattenedResourceType(Node reference)
+        {
+            FlattenedResourceType flattenedType = flattenedResourceTypes.get(getTemplateName(reference));
+            if (flattenedType == null)
+            {
+                return null;
+            }
+            if (reference.getNodeId() == mapping)
+            {
+                Node params = ((MappingNode) reference).getValue().get(0).getValueNode();
+                if (params.getTag().equals(Tag.NULL))
+                {
+                    return flattenedType;
+                }
+                if (params.getNodeId() != mapping)
+                {
+                    return null;
+                }
+                for (NodeTuple paramTuple : ((MappingNode) params).getValue())
+                {
+                    if (paramTuple.getKeyNode().getNodeId() != scalar || paramTuple.getValueNode().getNodeId() != scalar
+                        || paramTuple.getValueNode().getTag().equals(INCLUDE_TAG)
+                        || RESOURCE_TYPE_DEFAULT_PARAMETERS.contains(((ScalarNode) paramTuple.getKeyNode()).getValue()))
+                    {
+                        return null;
+                    }
+                }
+            }
+            return flattenedType;
+        }
+
+        /**
+         * @return the expanded chain or <tt>null</tt> if the expansion has errors, which are
+         *         then reported applying the chain one level at a time
+         */
+        private MappingNode expandFlattenedType(Node reference, FlattenedResourceType flattenedType)
+        {
+            Map<String, String> defaultParameters = new HashMap<String, String>();
+            defaultParameters.put("resourcePath", relativeUri);
+            defaultParameters.put("resourcePathName", getResourcePathName(fullUri));
+            List<ValidationResult> validations = new ArrayList<ValidationResult>();
+            MappingNode clone = flattenedType.template.expand(getTemplateParameters(reference, defaultParameters), validations);
+            return validations.isEmpty() ? clone : null;
+        }
+
+        private Node getActionNode(MappingNode resourceNode, String action)
+        {
+            for (NodeTuple tuple : resourceNode.getValue())
+            {
+                String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+                if (normalizeKey(key).equals(action) && tuple.getValueNode().getNodeId() == mapping)
+                {
+                    return tuple.getValueNode();
+                }
+            }
+            return null;
         }
 
         private String getResourcePathName(String fullUri)
@@ -594,210 +1152,189 @@ public class TemplateResolver
             }
         }
 
-        private MappingNode cloneMappingNode(MappingNode node, Map<String, String> parameters)
+        private Node cloneNode(Node node)
         {
-            List<NodeTuple> tuples = new ArrayList<NodeTuple>();
-            for (NodeTuple tuple : node.getValue())
-            {
-                if (tuple.getKeyNode().getNodeId() != scalar)
-                {
-                    addError(NON_SCALAR_KEY_MESSAGE, tuple.getKeyNode());
-                    break;
-                }
-                Node key = cloneScalarNode((ScalarNode) tuple.getKeyNode(), parameters);
-                Node value = cloneNode(tuple.getValueNode(), parameters);
-                tuples.add(new NodeTuple(key, value));
-            }
-            return new MappingNode(node.getTag(), tuples, node.getFlowStyle());
+            return TemplateNode.compile(node, templateFunctions).apply(new HashMap<String, String>(), templateValidations);
         }
 
-        private Node cloneNode(Node valueNode, Map<String, String> parameters)
+        private Class<?> pushMergeContext(Class<?> context, String key)
         {
-            if (valueNode.getNodeId() == mapping)
-            {
-                return cloneMappingNode((MappingNode) valueNode, parameters);
-            }
-            else if (valueNode.getNodeId() == sequence)
-            {
-                return cloneSequenceNode((SequenceNode) valueNode, parameters);
-            }
-            else if (valueNode.getNodeId() == scalar)
+            if (context.equals(Resource.class) && isAction(key))
             {
-                return cloneScalarNode((ScalarNode) valueNode, parameters);
+                return Action.class;
             }
-            addError("unsupported node type: " + valueNode.getNodeId(), valueNode);
-            return null;
+            return Object.class;
         }
+    }
 
-        private SequenceNode cloneSequenceNode(SequenceNode node, Map<String, String> parameters)
+    /**
+     * Merges the template tuples into the base node in a single pass. Base tuples are
+     * matched by key regardless of the optional modifier. Merged and added tuples are
+     * moved after the base tuples that are not merged, in template order.
+     */
+    private static MappingNode mergeMappingNodes(MappingNode baseNode, MappingNode templateNode, MergeContext context)
+    {
+        List<NodeTuple> baseTuples = baseNode.getValue();
+        Map<String, Integer> baseIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < baseTuples.size(); i++)
         {
-            List<Node> nodes = new ArrayList<Node>();
-            for (Node item : node.getValue())
-            {
-                nodes.add(cloneNode(item, parameters));
-            }
-            return new SequenceNode(node.getTag(), nodes, node.getFlowStyle());
+            baseIndexes.put(normalizeKey(((ScalarNode) baseTuples.get(i).getKeyNode()).getValue()), i);
         }
-
-        private ScalarNode cloneScalarNode(ScalarNode node, Map<String, String> parameters)
+        Set<String> nonMergeableFields = nonMergeableFields(context.keyNodeType);
+        boolean[] merged = new boolean[baseTuples.size()];
+        List<NodeTuple> mergedTuples = new ArrayList<NodeTuple>();
+        for (NodeTuple templateTuple : templateNode.getValue())
         {
-            String value = node.getValue();
-            Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(value);
-            StringBuffer sb = new StringBuffer();
-            while (matcher.find())
-            {
-                matcher.appendReplacement(sb, "");
-                sb.append(resolveParameter(matcher.group(), parameters, node));
-            }
-            matcher.appendTail(sb);
-            return new ScalarNode(node.getTag(), sb.toString(), node.getStartMark(), node.getEndMark(), node.getStyle());
-        }
+            String templateKey = ((ScalarNode) templateTuple.getKeyNode()).getValue();
 
-        private String resolveParameter(String match, Map<String, String> parameters, ScalarNode node)
-        {
-            String result = "";
-            String[] tokens = match.substring(2, match.length() - 2).split("\\|");
-            for (String token : tokens)
+            if (!nonMergeableFields.contains(templateKey))
             {
-                token = token.trim();
-                if (parameters.containsKey(token))
+                Integer baseIndex = baseIndexes.get(normalizeKey(templateKey));
+                if (baseIndex == null)
                 {
-                    result = parameters.get(token);
+                    mergedTuples.add(context.tagInclude(templateTuple));
                 }
-                else if (token.startsWith("!"))
+                else
                 {
-                    try
+                    NodeTuple baseTuple = baseTuples.get(baseIndex);
+                    String baseKey = ((ScalarNode) baseTuple.getKeyNode()).getValue();
+                    Node keyNode = baseTuple.getKeyNode();
+                    if (isOptional(baseKey) && !isOptional(templateKey))
                     {
-                        Method method = Inflector.class.getMethod(token.substring(1), String.class);
-                        result = (String) method.invoke(null, result);
-                    }
-                    catch (Exception e)
-                    {
-                        addError("Invalid parameter function: " + token, node);
+                        keyNode = templateTuple.getKeyNode();
                     }
-                }
-                else
-                {
-                    addError("Invalid parameter definition: " + match, node);
+                    Node valueNode = mergeNodes(baseTuple.getValueNode(), templateTuple.getValueNode(), new MergeContext(context, baseKey));
+                    merged[baseIndex] = true;
+                    mergedTuples.add(new NodeTuple(keyNode, valueNode));
                 }
             }
-            return result;
         }
-
-        private MappingNode mergeMappingNodes(MappingNode baseNode, MappingNode templateNode, MergeContext context)
+        if (!mergedTuples.isEmpty())
         {
-
-            Map<String, NodeTuple> baseTupleMap = getTupleMap(baseNode);
-            for (NodeTuple templateTuple : templateNode.getValue())
+            List<NodeTuple> tuples = new ArrayList<NodeTuple>(baseTuples.size() + mergedTuples.size());
+            for (int i = 0; i < merged.length; i++)
             {
-                String templateKey = ((ScalarNode) templateTuple.getKeyNode()).getValue();
-
-                if (!nonMergeableFields(context.keyNodeType).contains(templateKey))
+                if (!merged[i])
                 {
-                    String baseKey = getMatchingKey(baseTupleMap, templateKey);
-                    if (baseKey == null)
-                    {
-                        baseNode.getValue().add(context.tagInclude(templateTuple));
-                    }
-                    else
-                    {
-                        Node keyNode = baseTupleMap.get(baseKey).getKeyNode();
-                        if (isOptional(baseKey) && !isOptional(templateKey))
-                        {
-                            keyNode = templateTuple.getKeyNode();
-                        }
-                        Node baseInnerNode = baseTupleMap.get(baseKey).getValueNode();
-                        Node templateInnerNode = templateTuple.getValueNode();
-                        Node valueNode = mergeNodes(baseInnerNode, templateInnerNode, new MergeContext(context, baseKey));
-                        baseNode.getValue().remove(baseTupleMap.get(baseKey));
-                        baseNode.getValue().add(new NodeTuple(keyNode, valueNode));
-                    }
+                    tuples.add(baseTuples.get(i));
                 }
             }
-            return baseNode;
+            tuples.addAll(mergedTuples);
+            baseTuples.clear();
+            baseTuples.addAll(tuples);
         }
+        return baseNode;
+    }
 
-        private Class<?> pushMergeContext(Class<?> context, String key)
+    private static Node mergeNodes(Node baseNode, Node templateNode, MergeContext context)
+    {
+        if (baseNode.getNodeId() == mapping && templateNode.getNodeId() == mapping)
         {
-            if (context.equals(Resource.class) && isAction(key))
-            {
-                return Action.class;
-            }
-            return Object.class;
+            return mergeMappingNodes((MappingNode) baseNode, (MappingNode) templateNode, context);
         }
+        if (templateNode.getNodeId() == mapping)
+        {
+            return cleanMergedTuples((MappingNode) templateNode, context);
+        }
+        return baseNode;
+    }
 
-        private Node mergeNodes(Node baseNode, Node templateNode, MergeContext context)
+    private static MappingNode cleanMergedTuples(MappingNode templateNode, MergeContext context)
+    {
+        Set<String> nonMergeableFields = nonMergeableFields(context.keyNodeType);
+        Iterator<NodeTuple> tuples = templateNode.getValue().iterator();
+        while (tuples.hasNext())
         {
-            if (baseNode.getNodeId() == mapping && templateNode.getNodeId() == mapping)
+            NodeTuple tuple = tuples.next();
+            String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+            if (nonMergeableFields.contains(key))
             {
-                return mergeMappingNodes((MappingNode) baseNode, (MappingNode) templateNode, context);
+                tuples.remove();
             }
-            if (templateNode.getNodeId() == mapping)
+            else
             {
-                return cleanMergedTuples((MappingNode) templateNode, context);
+                context.tagInclude(tuple);
             }
-            return baseNode;
         }
+        return templateNode;
+    }
 
-        private MappingNode cleanMergedTuples(MappingNode templateNode, MergeContext context)
+    private static Set<String> nonMergeableFields(Class<?> element)
+    {
+        if (element.equals(Resource.class))
         {
-
-            List<NodeTuple> tuples = new ArrayList<NodeTuple>(templateNode.getValue());
-            for (NodeTuple tuple : tuples)
-            {
-                String key = ((ScalarNode) tuple.getKeyNode()).getValue();
-                if (nonMergeableFields(context.keyNodeType).contains(key))
-                {
-                    templateNode.getValue().remove(tuple);
-                }
-                else
-                {
-                    context.tagInclude(tuple);
-                }
-            }
-            return templateNode;
+            return RESOURCE_NON_MERGEABLE_FIELDS;
         }
-
-        private Set nonMergeableFields(Class<?> element)
+        if (element.equals(Action.class))
         {
-            String[] fields = {};
-            if (element.equals(Resource.class))
-            {
-                fields = new String[] {"usage", "summary", "displayName", "type", "is"};
-            }
-            else if (element.equals(Action.class))
-            {
-                fields = new String[] {"usage", "summary", "displayName", "is"};
-            }
-            return new HashSet<String>(Arrays.asList(fields));
+            return ACTION_NON_MERGEABLE_FIELDS;
         }
+        return Collections.emptySet();
+    }
+
+    private static boolean isOptional(String key)
+    {
+        return key.endsWith(OPTIONAL_MODIFIER);
+    }
+
+    /**
+     * Template compiled at init together with its expansions, keyed by the values of the
+     * parameters the template uses, so applying it again with the same values only copies
+     * the expanded nodes. Expansions with errors are not kept, so their errors are reported
+     * on every application. Shared by the resolvers of a parallel build.
+     */
+    private static class CompiledTemplate
+    {
+
+        private static final Object UNBOUND = new Object();
 
-        private boolean isOptional(String key)
+        private final TemplateNode template;
+        private final String[] parameterNames;
+        private final ConcurrentMap<List<Object>, TemplateNode> expansions = new ConcurrentHashMap<List<Object>, TemplateNode>();
+
+        CompiledTemplate(MappingNode templateNode, TemplateFunctionRegistry functions)
         {
-            return key.endsWith(OPTIONAL_MODIFIER);
+            template = TemplateNode.compile(templateNode, functions);
+            Set<String> names = new LinkedHashSet<String>();
+            template.collectParameterNames(names);
+            parameterNames = names.toArray(new String[names.size()]);
         }
 
-        private String getMatchingKey(Map<String, NodeTuple> tupleMap, String key)
+        MappingNode expand(Map<String, String> parameters, List<ValidationResult> validations)
         {
-            key = normalizeKey(key);
-            for (String resourceKey : tupleMap.keySet())
+            List<Object> key = new ArrayList<Object>(parameterNames.length);
+            for (String parameterName : parameterNames)
+            {
+                key.add(parameters.containsKey(parameterName) ? parameters.get(parameterName) : UNBOUND);
+            }
+            TemplateNode expansion = expansions.get(key);
+            if (expansion == null)
             {
-                if (normalizeKey(resourceKey).equals(key))
+                int errors = validations.size();
+                expansion = template.bind(parameters, validations);
+                if (validations.size() == errors)
                 {
-                    return resourceKey;
+                    expansions.putIfAbsent(key, expansion);
                 }
             }
-            return null;
+            return (MappingNode) expansion.copy();
         }
+    }
 
-        private Map<String, NodeTuple> getTupleMap(MappingNode mappingNode)
+    /**
+     * Resource type merged with its ancestors at init, together with the actions declared
+     * in the type itself.
+     */
+    private static class FlattenedResourceType
+    {
+
+        private final CompiledTemplate template;
+        private final Set<String> ownActions;
+
+        FlattenedResourceType(CompiledTemplate template, Set<String> ownActions)
         {
-            Map<String, NodeTuple> tupleMap = new HashMap<String, NodeTuple>();
-            for (NodeTuple tuple : mappingNode.getValue())
-            {
-                tupleMap.put(((ScalarNode) tuple.getKeyNode()).getValue(), tuple);
-            }
-            return tupleMap;
+            this.template = template;
+            this.ownActions = ownActions;
         }
     }
 
@@ -26,11 +26,18 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.io.IOUtils;
+import org.raml.parser.builder.BuildScope;
 import org.raml.parser.builder.DefaultTupleBuilder;
 import org.raml.parser.builder.NodeBuilder;
+import org.raml.parser.builder.ScopedNodeBuilder;
 import org.raml.parser.builder.SequenceBuilder;
 import org.raml.parser.builder.TupleBuilder;
 import org.raml.parser.loader.ResourceLoader;
@@ -57,14 +64,15 @@ import org.yaml.snakeyaml.serializer.Serializer;
 public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
 {
 
+    private static final ConcurrentMap<Class<?>, TupleBuilder<?, ?>> DOCUMENT_BUILDERS = new ConcurrentHashMap<Class<?>, TupleBuilder<?, ?>>();
+
     private Class<T> documentClass;
-    private T documentObject;
-    private Stack<NodeBuilder<?>> builderContext = new Stack<NodeBuilder<?>>();
-    private Stack<Object> documentContext = new Stack<Object>();
-    private MappingNode rootNode;
+    private BuildContext<T> buildContext = new BuildContext<T>();
+    private final BuildScope buildScope = new Scope();
     private ResourceLoader resourceLoader;
     private TagResolver[] tagResolvers;
     private ContextPath contextPath;
+    private ParseListener parseListener;
 
     public YamlDocumentBuilder(Class<T> documentClass, ResourceLoader resourceLoader, TagResolver... tagResolvers)
     {
@@ -88,13 +96,18 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         try
         {
             Yaml yamlParser = new Yaml();
-            NodeVisitor nodeVisitor = new NodeVisitor(this, resourceLoader, tagResolvers);
-            rootNode = (MappingNode) yamlParser.compose(content);
+            NodeVisitor nodeVisitor = createNodeVisitor();
+            buildContext = new BuildContext<T>();
+            long startTime = startPhase();
+            buildContext.rootNode = (MappingNode) yamlParser.compose(content);
+            endPhase(ParseListener.Phase.COMPOSE, resourceLocation, startTime);
             contextPath.pushRoot(resourceLocation);
             preBuildProcess();
-            nodeVisitor.visitDocument(rootNode);
+            startTime = startPhase();
+            nodeVisitor.visitDocument(buildContext.rootNode);
+            endPhase(ParseListener.Phase.VISIT, resourceLocation, startTime);
             postBuildProcess();
-            return documentObject;
+            return buildContext.documentObject;
         }
         finally
         {
@@ -116,6 +129,133 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         return build(new StringReader(content), resourceLocation);
     }
 
+    public T buildStreaming(String resourceLocation)
+    {
+        InputStream resourceStream = resourceLoader.fetchResource(resourceLocation);
+        return buildStreaming(resourceStream, resourceLocation);
+    }
+
+    public T buildStreaming(InputStream content, String resourceLocation)
+    {
+        if (content == null)
+        {
+            throw new ResourceNotFoundException(resourceLocation);
+        }
+        return buildStreaming(StreamUtils.reader(content), resourceLocation);
+    }
+
+    /**
+     * Builds the document from the YAML event stream instead of composing the whole
+     * document first. Root tuples are composed and visited one at a time and are only
+     * kept in the root node when {@link #isRetainedStreamedTuple(NodeTuple)} says so,
+     * so peak memory is bound by the largest root tuple and the retained ones.
+     */
+    public T buildStreaming(Reader content, String resourceLocation)
+    {
+        if (content == null)
+        {
+            throw new ResourceNotFoundException(resourceLocation);
+        }
+        try
+        {
+            NodeVisitor nodeVisitor = createNodeVisitor();
+            StreamingComposer composer = new StreamingComposer(new Yaml().parse(content));
+            buildContext = new BuildContext<T>();
+            buildContext.rootNode = composer.composeRoot();
+            contextPath.pushRoot(resourceLocation);
+            preStreamingBuildProcess();
+            if (nodeVisitor.visitDocumentStart(buildContext.rootNode))
+            {
+                List<NodeTuple> visitedTuples = new ArrayList<NodeTuple>();
+                NodeTuple nodeTuple;
+                while ((nodeTuple = composer.nextRootTuple()) != null)
+                {
+                    nodeTuple = preStreamedTupleProcess(nodeTuple);
+                    boolean retain = isRetainedStreamedTuple(nodeTuple);
+                    if (retain)
+                    {
+                        buildContext.rootNode.getValue().add(nodeTuple);
+                    }
+                    NodeTuple visitedTuple = nodeVisitor.visitDocumentTuple(nodeTuple);
+                    if (retain)
+                    {
+                        visitedTuples.add(visitedTuple);
+                    }
+                }
+                buildContext.rootNode.setValue(visitedTuples);
+            }
+            nodeVisitor.visitDocumentEnd(buildContext.rootNode);
+            postBuildProcess();
+            return buildContext.documentObject;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(content);
+        }
+    }
+
+    /**
+     * Builds a single root tuple of a document on its own, with a new document object
+     * and new builder and document contexts, so root tuples that do not depend on each
+     * other can be built separately and merged afterwards. The visited tuple is the
+     * only tuple of the resulting root node.
+     *
+     * @return the document object holding the values built from the tuple
+     */
+    T buildRootTuple(NodeTuple nodeTuple, String resourceLocation)
+    {
+        NodeVisitor nodeVisitor = createNodeVisitor();
+        buildContext = new BuildContext<T>();
+        buildContext.rootNode = new MappingNode(Tag.MAP, new ArrayList<NodeTuple>(), false);
+        contextPath.pushRoot(resourceLocation);
+        preRootTupleBuildProcess();
+        long startTime = startPhase();
+        if (nodeVisitor.visitDocumentStart(buildContext.rootNode))
+        {
+            buildContext.rootNode.getValue().add(nodeVisitor.visitDocumentTuple(nodeTuple));
+        }
+        nodeVisitor.visitDocumentEnd(buildContext.rootNode);
+        endPhase(ParseListener.Phase.VISIT, resourceLocation, startTime);
+        return buildContext.documentObject;
+    }
+
+    private NodeVisitor createNodeVisitor()
+    {
+        NodeVisitor nodeVisitor = new NodeVisitor(this, resourceLoader, tagResolvers);
+        nodeVisitor.setParseListener(parseListener);
+        return nodeVisitor;
+    }
+
+    /**
+     * Reports the phases of the following builds to the given listener, or to none
+     * when <tt>null</tt>.
+     */
+    public void setParseListener(ParseListener parseListener)
+    {
+        this.parseListener = parseListener;
+    }
+
+    public ParseListener getParseListener()
+    {
+        return parseListener;
+    }
+
+    /**
+     * @return the start time of a phase, only measured when a listener is registered
+     */
+    protected long startPhase()
+    {
+        return parseListener != null ? System.nanoTime() : 0;
+    }
+
+    protected void endPhase(ParseListener.Phase phase, String location, long startTime)
+    {
+        if (parseListener != null)
+        {
+            parseListener.onPhase(phase, location, System.nanoTime() - startTime);
+        }
+    }
+
     @Deprecated
     public T build(Reader content)
     {
@@ -130,17 +270,41 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
 
     protected T getDocumentObject()
     {
-        return documentObject;
+        return buildContext.documentObject;
     }
 
+    /**
+     * @deprecated use {@link #getBuilderDeque()}
+     */
+    @Deprecated
     protected Stack<NodeBuilder<?>> getBuilderContext()
     {
-        return builderContext;
+        return buildContext.builderContext;
     }
 
+    /**
+     * @deprecated use {@link #getDocumentDeque()}
+     */
+    @Deprecated
     protected Stack<Object> getDocumentContext()
     {
-        return documentContext;
+        return buildContext.documentContext;
+    }
+
+    /**
+     * @return the builders of the nodes being visited, the innermost one first
+     */
+    protected Deque<NodeBuilder<?>> getBuilderDeque()
+    {
+        return buildContext.builderContext.asDeque();
+    }
+
+    /**
+     * @return the objects built for the nodes being visited, the innermost one first
+     */
+    protected Deque<Object> getDocumentDeque()
+    {
+        return buildContext.documentContext.asDeque();
     }
 
     public ResourceLoader getResourceLoader()
@@ -156,9 +320,43 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
     {
     }
 
+    /**
+     * Invoked instead of {@link #preBuildProcess()} when building in streaming mode,
+     * the root node holds no tuples yet.
+     */
+    protected void preStreamingBuildProcess()
+    {
+    }
+
+    /**
+     * Invoked instead of {@link #preBuildProcess()} when a root tuple is built on its own.
+     */
+    protected void preRootTupleBuildProcess()
+    {
+    }
+
+    /**
+     * Invoked in streaming mode before a root tuple is visited.
+     *
+     * @return the tuple to visit
+     */
+    protected NodeTuple preStreamedTupleProcess(NodeTuple nodeTuple)
+    {
+        return nodeTuple;
+    }
+
+    /**
+     * @return true if the root tuple must be kept in the root node in streaming mode,
+     *         by default root tuples are discarded once visited
+     */
+    protected boolean isRetainedStreamedTuple(NodeTuple nodeTuple)
+    {
+        return false;
+    }
+
     public MappingNode getRootNode()
     {
-        return rootNode;
+        return buildContext.rootNode;
     }
 
     @Override
@@ -168,10 +366,10 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         {
             throw new YAMLException(NON_SCALAR_KEY_MESSAGE + ": " + mappingNode.getStartMark());
         }
-        NodeBuilder<?> currentBuilder = builderContext.peek();
-        Object parentObject = documentContext.peek();
-        Object object = ((TupleBuilder<?, MappingNode>) currentBuilder).buildValue(parentObject, mappingNode);
-        documentContext.push(object);
+        NodeBuilder<?> currentBuilder = getBuilderDeque().peek();
+        Object parentObject = getDocumentDeque().peek();
+        Object object = buildValue((NodeBuilder<MappingNode>) currentBuilder, parentObject, mappingNode);
+        getDocumentDeque().push(object);
         return true;
 
     }
@@ -183,7 +381,7 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         {
             throw new YAMLException(NON_SCALAR_KEY_MESSAGE + ": " + mappingNode.getStartMark());
         }
-        documentContext.pop();
+        getDocumentDeque().pop();
     }
 
     @Override
@@ -194,11 +392,11 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         {
             throw new YAMLException(NON_SCALAR_KEY_MESSAGE + ": " + node.getStartMark());
         }
-        SequenceBuilder currentBuilder = (SequenceBuilder) builderContext.peek();
-        Object parentObject = documentContext.peek();
-        Object object = ((NodeBuilder) currentBuilder).buildValue(parentObject, node);
-        builderContext.push(currentBuilder.getItemBuilder());
-        documentContext.push(object);
+        SequenceBuilder currentBuilder = (SequenceBuilder) getBuilderDeque().peek();
+        Object parentObject = getDocumentDeque().peek();
+        Object object = buildValue((NodeBuilder<SequenceNode>) currentBuilder, parentObject, node);
+        pushBuilder(currentBuilder.getItemBuilder());
+        getDocumentDeque().push(object);
         return true;
     }
 
@@ -209,8 +407,8 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         {
             throw new YAMLException(NON_SCALAR_KEY_MESSAGE + ": " + node.getStartMark());
         }
-        documentContext.pop();
-        builderContext.pop();
+        getDocumentDeque().pop();
+        getBuilderDeque().pop();
     }
 
     @Override
@@ -218,15 +416,16 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
     public void onScalar(ScalarNode node, TupleType tupleType)
     {
 
-        NodeBuilder<?> currentBuilder = builderContext.peek();
-        Object parentObject = documentContext.peek();
+        NodeBuilder<?> currentBuilder = getBuilderDeque().peek();
+        Object parentObject = getDocumentDeque().peek();
 
         if (tupleType == VALUE)
         {
-            ((NodeBuilder<ScalarNode>) currentBuilder).buildValue(parentObject, node);
+            buildValue((NodeBuilder<ScalarNode>) currentBuilder, parentObject, node);
         }
         else
         {
+            buildContext.setKey(node.getValue());
             ((TupleBuilder<ScalarNode, ?>) currentBuilder).buildKey(parentObject, node);
         }
 
@@ -238,9 +437,9 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
     {
         try
         {
-            documentObject = documentClass.newInstance();
-            documentContext.push(documentObject);
-            builderContext.push(buildDocumentBuilder());
+            buildContext.documentObject = documentClass.newInstance();
+            getDocumentDeque().push(buildContext.documentObject);
+            pushBuilder(getDocumentBuilder());
         }
         catch (Exception e)
         {
@@ -249,18 +448,55 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
         return true;
     }
 
-    private TupleBuilder<?, ?> buildDocumentBuilder()
+    /**
+     * @return the builder of the document class, created once and shared by every build
+     *         of the class, in any thread
+     */
+    protected TupleBuilder<?, ?> getDocumentBuilder()
     {
-        DefaultTupleBuilder<Node, MappingNode> documentBuilder = new DefaultTupleBuilder<Node, MappingNode>(new DefaultTupleHandler());
-        documentBuilder.addBuildersFor(documentClass);
+        TupleBuilder<?, ?> documentBuilder = DOCUMENT_BUILDERS.get(documentClass);
+        if (documentBuilder == null)
+        {
+            DefaultTupleBuilder<Node, MappingNode> newBuilder = new DefaultTupleBuilder<Node, MappingNode>(new DefaultTupleHandler());
+            newBuilder.addBuildersFor(documentClass);
+            documentBuilder = DOCUMENT_BUILDERS.putIfAbsent(documentClass, newBuilder);
+            if (documentBuilder == null)
+            {
+                documentBuilder = newBuilder;
+            }
+        }
         return documentBuilder;
     }
 
+    private void pushBuilder(NodeBuilder<?> builder)
+    {
+        getBuilderDeque().push(builder);
+        buildContext.setKey(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V extends Node> Object buildValue(NodeBuilder<V> builder, Object parentObject, V node)
+    {
+        if (builder instanceof ScopedNodeBuilder)
+        {
+            return ((ScopedNodeBuilder<V>) builder).buildValue(parentObject, node, buildScope);
+        }
+        return builder.buildValue(parentObject, node);
+    }
+
+    /**
+     * @return the compiler of the XML schemas of the current build, or <tt>null</tt>
+     */
+    protected SchemaCompiler getSchemaCompiler()
+    {
+        return null;
+    }
+
 
     @Override
     public void onDocumentEnd(MappingNode node)
     {
-        if (documentObject != documentContext.pop())
+        if (buildContext.documentObject != getDocumentDeque().pop())
         {
             throw new IllegalStateException("more zombies?!");
         }
@@ -269,17 +505,17 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
     @Override
     public void onTupleEnd(NodeTuple nodeTuple)
     {
-        builderContext.pop();
+        getBuilderDeque().pop();
     }
 
     @Override
     public boolean onTupleStart(NodeTuple nodeTuple)
     {
-        TupleBuilder<?, ?> currentBuilder = (TupleBuilder<?, ?>) builderContext.peek();
+        TupleBuilder<?, ?> currentBuilder = (TupleBuilder<?, ?>) getBuilderDeque().peek();
         if (currentBuilder != null)
         {
             NodeBuilder<?> builder = currentBuilder.getBuilderForTuple(nodeTuple);
-            builderContext.push(builder);
+            pushBuilder(builder);
         }
         else
         {
@@ -356,4 +592,66 @@ public class YamlDocumentBuilder<T> implements NodeHandler, ContextPathAware
     {
         return contextPath;
     }
+
+    /**
+     * Mutable state of a single build. A new context is created
+     * for every build so the builder can be reused.
+     */
+    private static class BuildContext<T>
+    {
+
+        private T documentObject;
+        private ContextStack<NodeBuilder<?>> builderContext = new ContextStack<NodeBuilder<?>>();
+        private ContextStack<Object> documentContext = new ContextStack<Object>();
+        private List<String> keyContext = new ArrayList<String>();
+        private MappingNode rootNode;
+
+        /**
+         * Sets the key of the tuple built by the innermost builder, the keys of the
+         * builders popped since are dropped.
+         */
+        private void setKey(String key)
+        {
+            int depth = builderContext.size();
+            while (keyContext.size() > depth)
+            {
+                keyContext.remove(keyContext.size() - 1);
+            }
+            while (keyContext.size() < depth)
+            {
+                keyContext.add(null);
+            }
+            keyContext.set(depth - 1, key);
+        }
+
+        private String getKey(int depth)
+        {
+            return depth > 0 && depth <= keyContext.size() ? keyContext.get(depth - 1) : null;
+        }
+    }
+
+    /**
+     * Scope of the current build, given to the shared builders.
+     */
+    private class Scope implements BuildScope
+    {
+
+        @Override
+        public String getKey()
+        {
+            return buildContext.getKey(buildContext.builderContext.size());
+        }
+
+        @Override
+        public String getParentKey()
+        {
+            return buildContext.getKey(buildContext.builderContext.size() - 1);
+        }
+
+        @Override
+        public SchemaCompiler getSchemaCompiler()
+        {
+            return YamlDocumentBuilder.this.getSchemaCompiler();
+        }
+    }
 }
@@ -89,7 +89,7 @@ public class YamlDocumentSuggester implements NodeHandler
         while (!nodes.isEmpty())
         {
             nodeContext = popNode();
-            parentNodeBuilder = (NodeBuilder) this.builder.getBuilderContext().pop();
+            parentNodeBuilder = (NodeBuilder) this.builder.getBuilderDeque().pop();
             if (nodeContext.getParentIndentation() < contextColumn)
             {
                 break;
@@ -23,6 +23,7 @@ import static org.raml.parser.visitor.TupleType.VALUE;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Stack;
 
@@ -47,7 +48,8 @@ public class YamlDocumentValidator implements YamlValidator
 {
 
     private Class<?> documentClass;
-    private Stack<NodeRule<?>> ruleContext = new Stack<NodeRule<?>>();
+    private ContextStack<NodeRule<?>> ruleStack = new ContextStack<NodeRule<?>>();
+    private Deque<NodeRule<?>> ruleContext = ruleStack.asDeque();
     private List<ValidationResult> messages = new ArrayList<ValidationResult>();
     private NodeRuleFactory nodeRuleFactory;
     private ContextPath contextPath;
@@ -65,7 +67,19 @@ public class YamlDocumentValidator implements YamlValidator
         this.nodeRuleFactory = nodeRuleFactory;
     }
 
+    /**
+     * @deprecated use {@link #getRuleDeque()}
+     */
+    @Deprecated
     protected Stack<NodeRule<?>> getRuleContext()
+    {
+        return ruleStack;
+    }
+
+    /**
+     * @return the rules of the nodes being visited, the innermost one first
+     */
+    protected Deque<NodeRule<?>> getRuleDeque()
     {
         return ruleContext;
     }
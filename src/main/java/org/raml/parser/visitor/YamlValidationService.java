@@ -49,6 +49,7 @@ public class YamlValidationService
     private YamlValidator yamlValidator;
     private ResourceLoader resourceLoader;
     private TagResolver[] tagResolvers;
+    private ParseListener parseListener;
 
     protected YamlValidationService(ResourceLoader resourceLoader, YamlValidator yamlValidator, TagResolver[] tagResolvers)
     {
@@ -61,12 +62,32 @@ public class YamlValidationService
     public List<ValidationResult> validate(MappingNode root, String resourceLocation)
     {
         NodeVisitor nodeVisitor = new NodeVisitor(yamlValidator, resourceLoader, tagResolvers);
+        nodeVisitor.setParseListener(parseListener);
         yamlValidator.getContextPath().pushRoot(resourceLocation);
         errorMessage.addAll(preValidation(root));
+        long startTime = parseListener != null ? System.nanoTime() : 0;
         nodeVisitor.visitDocument(root);
+        if (parseListener != null)
+        {
+            parseListener.onPhase(ParseListener.Phase.VISIT, resourceLocation, System.nanoTime() - startTime);
+        }
         return errorMessage;
     }
 
+    /**
+     * Reports the phases of the following validations to the given listener, or to
+     * none when <tt>null</tt>.
+     */
+    public void setParseListener(ParseListener parseListener)
+    {
+        this.parseListener = parseListener;
+    }
+
+    public ParseListener getParseListener()
+    {
+        return parseListener;
+    }
+
     public List<ValidationResult> validate(String resourceLocation)
     {
         InputStream resourceStream = resourceLoader.fetchResource(resourceLocation);
@@ -94,7 +115,12 @@ public class YamlValidationService
         try
         {
             Yaml yamlParser = new Yaml();
+            long composeStartTime = parseListener != null ? System.nanoTime() : 0;
             Node root = yamlParser.compose(content);
+            if (parseListener != null)
+            {
+                parseListener.onPhase(ParseListener.Phase.COMPOSE, resourceLocation, System.nanoTime() - composeStartTime);
+            }
             if (root != null && root.getNodeId() == mapping)
             {
                 validate((MappingNode) root, resourceLocation);
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.loader.FileResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.tagresolver.TagResolver;
+import org.raml.parser.visitor.NodeHandler;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.Tag;
+
+public class CachingRamlDocumentBuilderTestCase
+{
+
+    private static final String ROOT = "#%RAML 0.8\n" +
+                                       "---\n" +
+                                       "title: Cached API\n" +
+                                       "/first: !include resource.yaml\n" +
+                                       "/second: !include resource.yaml\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sources;
+    private File cache;
+    private CountingResourceLoader resourceLoader;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        sources = folder.newFolder("sources");
+        cache = new File(folder.getRoot(), "cache");
+        resourceLoader = new CountingResourceLoader(new FileResourceLoader(sources));
+        FileUtils.writeStringToFile(new File(sources, "api.raml"), ROOT, "UTF-8");
+        writeResource("first description");
+    }
+
+    @Test
+    public void cachedBuild() throws Exception
+    {
+        Raml raml = new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(2));
+        assertThat(cache.listFiles().length, is(1));
+
+        resourceLoader.reset();
+        Raml cached = new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(1));
+        assertThat(new RamlEmitter().dump(cached), is(new RamlEmitter().dump(raml)));
+        assertThat(new RamlEmitter().dump(cached), is(new RamlEmitter().dump(new RamlDocumentBuilder(resourceLoader).build("api.raml"))));
+    }
+
+    @Test
+    public void changedInclude() throws Exception
+    {
+        new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        writeResource("second description");
+
+        resourceLoader.reset();
+        Raml raml = new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(3));
+        assertThat(raml.getResource("/first").getDescription(), is("second description"));
+
+        resourceLoader.reset();
+        raml = new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(1));
+        assertThat(raml.getResource("/second").getDescription(), is("second description"));
+    }
+
+    @Test
+    public void invalidEntry() throws Exception
+    {
+        new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        FileUtils.writeStringToFile(cache.listFiles()[0], "invalid", "UTF-8");
+
+        Raml raml = new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        assertThat(raml.getTitle(), is("Cached API"));
+    }
+
+    @Test
+    public void configurationKeptOnMiss() throws Exception
+    {
+        CachingRamlDocumentBuilder builder = new CachingRamlDocumentBuilder(cache, resourceLoader);
+        builder.setLazyResources(true);
+        Raml raml = builder.build("api.raml");
+        assertThat(builder.getRootNode(), notNullValue());
+        assertThat(raml.getResource("/second").getDescription(), is("first description"));
+
+        resourceLoader.reset();
+        Raml cached = new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(1));
+        assertThat(new RamlEmitter().dump(cached), is(new RamlEmitter().dump(raml)));
+    }
+
+    @Test
+    public void cachedContentBuild() throws Exception
+    {
+        new CachingRamlDocumentBuilder(cache, resourceLoader).build(ROOT, "api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(2));
+
+        resourceLoader.reset();
+        Raml raml = new CachingRamlDocumentBuilder(cache, resourceLoader).build(ROOT, "api.raml");
+        assertThat(resourceLoader.getCount("resource.yaml"), is(1));
+        assertThat(raml.getTitle(), is("Cached API"));
+
+        raml = new CachingRamlDocumentBuilder(cache, resourceLoader).build(ROOT.replace("Cached API", "Other API"), "api.raml");
+        assertThat(raml.getTitle(), is("Other API"));
+        assertThat(cache.listFiles().length, is(2));
+    }
+
+    @Test
+    public void entriesScopedByConfiguration() throws Exception
+    {
+        new CachingRamlDocumentBuilder(cache, resourceLoader).build("api.raml");
+        new CachingRamlDocumentBuilder(cache, resourceLoader, new NoTagResolver()).build("api.raml");
+        assertThat(cache.listFiles().length, is(2));
+    }
+
+    private void writeResource(String description) throws Exception
+    {
+        FileUtils.writeStringToFile(new File(sources, "resource.yaml"), "description: " + description + "\n", "UTF-8");
+    }
+
+    private static class NoTagResolver implements TagResolver
+    {
+
+        @Override
+        public boolean handles(Tag tag)
+        {
+            return false;
+        }
+
+        @Override
+        public Node resolve(Node valueNode, ResourceLoader resourceLoader, NodeHandler nodeHandler)
+        {
+            return valueNode;
+        }
+
+        @Override
+        public void beforeProcessingResolvedNode(Tag tag, Node originalValueNode, Node resolvedNode)
+        {
+        }
+
+        @Override
+        public void afterProcessingResolvedNode(Tag tag, Node originalValueNode, Node resolvedNode)
+        {
+        }
+    }
+
+    private static class CountingResourceLoader implements ResourceLoader
+    {
+
+        private final ResourceLoader resourceLoader;
+        private final Map<String, Integer> counts = new HashMap<String, Integer>();
+
+        CountingResourceLoader(ResourceLoader resourceLoader)
+        {
+            this.resourceLoader = resourceLoader;
+        }
+
+        @Override
+        public InputStream fetchResource(String resourceName)
+        {
+            counts.put(resourceName, getCount(resourceName) + 1);
+            return resourceLoader.fetchResource(resourceName);
+        }
+
+        int getCount(String resourceName)
+        {
+            Integer count = counts.get(resourceName);
+            return count == null ? 0 : count;
+        }
+
+        void reset()
+        {
+            counts.clear();
+        }
+    }
+}
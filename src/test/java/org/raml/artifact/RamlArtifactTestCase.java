@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.artifact;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import javax.xml.validation.Schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.ActionType;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+
+public class RamlArtifactTestCase
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws Exception
+    {
+        assertRoundTrip("org/raml/full-config.yaml");
+        assertRoundTrip("org/raml/integration/sales-enablement-api.yaml");
+        assertRoundTrip("org/raml/types/resource-types-traits.yaml");
+        assertRoundTrip("org/raml/include/include-resource-types.yaml");
+        assertRoundTrip("org/raml/media-type.yaml");
+        assertRoundTrip("org/raml/schema/xsd-global-includer.raml");
+    }
+
+    @Test
+    public void parentReferences() throws Exception
+    {
+        Raml raml = compileAndRead("org/raml/full-config.yaml");
+        Resource media = raml.getResources().get("/media");
+        Resource mediaItem = media.getResources().get("/{mediaId}");
+        assertThat(mediaItem.getParentResource(), sameInstance(media));
+        assertThat(mediaItem.getUri(), is("/media/{mediaId}"));
+        assertThat(media.getAction(ActionType.GET).getResource(), sameInstance(media));
+    }
+
+    @Test
+    public void compiledSchemas() throws Exception
+    {
+        Raml raml = compileAndRead("org/raml/schema/xsd-global-includer.raml");
+        Map<String, Object> expected = new RamlDocumentBuilder().build("org/raml/schema/xsd-global-includer.raml").getCompiledSchemas();
+        assertThat(raml.getCompiledSchemas().keySet(), is(expected.keySet()));
+        assertThat(raml.getCompiledSchemas().get("name-schema"), instanceOf(Schema.class));
+        for (Map.Entry<String, Object> entry : expected.entrySet())
+        {
+            if (entry.getValue() instanceof Schema)
+            {
+                assertThat(raml.getCompiledSchemas().get(entry.getKey()), instanceOf(Schema.class));
+            }
+            else
+            {
+                assertThat(raml.getCompiledSchemas().get(entry.getKey()), is(entry.getValue()));
+            }
+        }
+    }
+
+    @Test(expected = RamlArtifactException.class)
+    public void unsupportedVersion() throws Exception
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RamlArtifactCompiler().compile("org/raml/full-config.yaml", output);
+        ByteBuffer artifact = ByteBuffer.wrap(output.toByteArray());
+        artifact.putInt(4, RamlArtifactWriter.FORMAT_VERSION + 1);
+        new RamlArtifactReader().read(artifact);
+    }
+
+    @Test(expected = RamlArtifactException.class)
+    public void truncatedArtifact() throws Exception
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RamlArtifactCompiler().compile("org/raml/full-config.yaml", output);
+        new RamlArtifactReader().read(ByteBuffer.wrap(output.toByteArray(), 0, output.size() / 2));
+    }
+
+    private void assertRoundTrip(String location) throws Exception
+    {
+        RamlEmitter emitter = new RamlEmitter();
+        String expected = emitter.dump(new RamlDocumentBuilder().build(location));
+        assertThat(emitter.dump(compileAndRead(location)), is(expected));
+    }
+
+    private Raml compileAndRead(String location) throws Exception
+    {
+        File artifact = folder.newFile();
+        new RamlArtifactCompiler().compile(location, artifact);
+        return new RamlArtifactReader().read(artifact);
+    }
+}
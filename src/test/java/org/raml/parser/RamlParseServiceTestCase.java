@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.rule.NodeRuleFactory;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.RamlParseResult;
+import org.raml.parser.visitor.RamlParseService;
+import org.raml.parser.visitor.RamlValidationService;
+import org.yaml.snakeyaml.nodes.MappingNode;
+
+public class RamlParseServiceTestCase
+{
+
+    @Test
+    public void sameModelAsBuilder()
+    {
+        assertSameModel("org/raml/full-config.yaml");
+        assertSameModel("org/raml/integration/sales-enablement-api.yaml");
+        assertSameModel("org/raml/types/resource-types-traits.yaml");
+        assertSameModel("org/raml/include/include-resource-types.yaml");
+    }
+
+    @Test
+    public void sameResultsAsValidationService()
+    {
+        assertSameResults("org/raml/validation/missing-template.yaml");
+        assertSameResults("org/raml/validation/duplicate-map-entries.yaml");
+        assertSameResults("org/raml/validation/non-scalar-keys.yaml");
+        assertSameResults("org/raml/validation/invalid-include.yaml");
+        assertSameResults("org/raml/validation/circular-include.yaml");
+        assertSameResults("org/raml/include/include-not-found.yaml");
+    }
+
+    @Test
+    public void includesFetchedOnce()
+    {
+        CountingResourceLoader loader = new CountingResourceLoader();
+        RamlParseResult result = RamlParseService.createDefault(loader).parse("org/raml/include/include-non-yaml-single-line.yaml");
+        assertThat(result.getRaml(), notNullValue());
+        List<String> fetched = new ArrayList<String>(loader.fetched);
+        assertThat(fetched.size(), is(2));
+        assertThat(fetched.get(1), is("org/raml/include/include-non-yaml-single-line.txt"));
+    }
+
+    private void assertSameModel(String location)
+    {
+        RamlParseResult result = RamlParseService.createDefault().parse(location);
+        assertThat(result.getValidationResults().isEmpty(), is(true));
+        Raml expected = new RamlDocumentBuilder().build(location);
+        RamlEmitter emitter = new RamlEmitter();
+        assertThat(emitter.dump(result.getRaml()), is(emitter.dump(expected)));
+    }
+
+    @Test
+    public void builderFailureBeforeDocumentRethrown()
+    {
+        RamlParseService service = new RamlParseService(new DefaultResourceLoader(), new NodeRuleFactory())
+        {
+            @Override
+            protected RamlDocumentBuilder createDocumentBuilder(ResourceLoader resourceLoader)
+            {
+                return new RamlDocumentBuilder(resourceLoader)
+                {
+                    @Override
+                    public boolean onDocumentStart(MappingNode node)
+                    {
+                        throw new IllegalStateException("builder failure");
+                    }
+                };
+            }
+        };
+        try
+        {
+            service.parse("org/raml/full-config.yaml");
+            fail("builder failure expected");
+        }
+        catch (IllegalStateException e)
+        {
+            assertThat(e.getMessage(), is("builder failure"));
+        }
+    }
+
+    private void assertSameResults(String location)
+    {
+        RamlParseResult result = RamlParseService.createDefault().parse(location);
+        List<ValidationResult> expected = RamlValidationService.createDefault().validate(location);
+        assertThat(result.isValid(), is(false));
+        assertThat(result.getRaml(), nullValue());
+        assertThat(result.getValidationResults().size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertThat(result.getValidationResults().get(i).getMessage(), is(expected.get(i).getMessage()));
+            assertThat(result.getValidationResults().get(i).getLine(), is(expected.get(i).getLine()));
+        }
+    }
+
+    private static class CountingResourceLoader implements ResourceLoader
+    {
+
+        private ResourceLoader delegate = new DefaultResourceLoader();
+        private List<String> fetched = new ArrayList<String>();
+
+        @Override
+        public InputStream fetchResource(String resourceName)
+        {
+            fetched.add(resourceName);
+            return delegate.fetchResource(resourceName);
+        }
+    }
+}
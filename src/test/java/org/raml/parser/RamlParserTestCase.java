@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.raml.emitter.RamlEmitter;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.RamlParser;
+
+public class RamlParserTestCase
+{
+
+    private static final String[] LOCATIONS = {
+            "org/raml/full-config.yaml",
+            "org/raml/integration/sales-enablement-api.yaml",
+            "org/raml/types/resource-types-traits.yaml",
+            "org/raml/include/include-resource-types.yaml"
+    };
+
+    @Test
+    public void reuseBuilder()
+    {
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        RamlEmitter emitter = new RamlEmitter();
+        for (String location : LOCATIONS)
+        {
+            String expected = emitter.dump(new RamlDocumentBuilder().build(location));
+            assertThat(emitter.dump(builder.build(location)), is(expected));
+        }
+        assertThat(emitter.dump(builder.build(LOCATIONS[0])), is(emitter.dump(new RamlDocumentBuilder().build(LOCATIONS[0]))));
+    }
+
+    @Test
+    public void concurrentParse() throws Exception
+    {
+        final RamlParser parser = new RamlParser();
+        final RamlEmitter emitter = new RamlEmitter();
+        List<String> expected = new ArrayList<String>();
+        for (String location : LOCATIONS)
+        {
+            expected.add(emitter.dump(new RamlDocumentBuilder().build(location)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 40; i++)
+            {
+                final String location = LOCATIONS[i % LOCATIONS.length];
+                final boolean validate = i % 2 == 0;
+                results.add(executor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        if (validate)
+                        {
+                            assertThat(parser.validate(location).isEmpty(), is(true));
+                            return emitter.dump(parser.parse(location).getRaml());
+                        }
+                        return emitter.dump(parser.build(location));
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++)
+            {
+                assertThat(results.get(i).get(), is(expected.get(i % LOCATIONS.length)));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.annotation.processing;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.raml.model.Action;
+import org.raml.model.MimeType;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.raml.model.SecurityReference;
+import org.raml.model.parameter.QueryParameter;
+import org.raml.parser.utils.FieldMetadata;
+import org.raml.parser.utils.PojoAccessor;
+import org.raml.parser.utils.PojoMetadata;
+import org.raml.parser.utils.ReflectionUtils;
+
+public class PojoAccessorProcessorTestCase
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void modelAccessors() throws Exception
+    {
+        for (Object pojo : Arrays.asList(new Raml(), new Resource(), new Action(), new MimeType(), new QueryParameter()))
+        {
+            PojoAccessor accessor = ReflectionUtils.getPojoAccessor(pojo.getClass());
+            assertThat(accessor.getClass().getName(), is(pojo.getClass().getName() + PojoAccessor.SUFFIX));
+            PojoMetadata metadata = PojoMetadata.of(pojo.getClass());
+            for (FieldMetadata field : metadata.getFields())
+            {
+                assertThat(field.getName(), accessor.isWritable(field.getName()), is(true));
+                assertThat(field.getName(), accessor.isReadable(field.getName()), is(true));
+                assertThat(accessor.getProperty(pojo, field.getName()), is(PropertyUtils.getProperty(pojo, field.getName())));
+            }
+        }
+    }
+
+    @Test
+    public void modelFallback()
+    {
+        Resource resource = new Resource();
+        ReflectionUtils.setProperty(resource, "parentUri", "");
+        ReflectionUtils.setProperty(resource, "relativeUri", "/users");
+        assertThat(ReflectionUtils.getPojoAccessor(Resource.class).isReadable("uri"), is(false));
+        assertThat((String) ReflectionUtils.getProperty(resource, "uri"), is("/users"));
+
+        SecurityReference reference = (SecurityReference) ReflectionUtils.getPojoAccessor(SecurityReference.class).newInstance("key", "oauth_2_0");
+        assertThat(reference.getName(), is("oauth_2_0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidValue()
+    {
+        ReflectionUtils.setProperty(new Resource(), "displayName", 1);
+    }
+
+    @Test
+    public void extensionPojo() throws Exception
+    {
+        File sources = folder.newFolder("sources");
+        File classes = folder.newFolder("classes");
+        File source = new File(sources, "org/raml/extension/Extension.java");
+        FileUtils.writeStringToFile(source,
+                                    "package org.raml.extension;\n" +
+                                    "public class Extension {\n" +
+                                    "    @org.raml.parser.annotation.Scalar(alias = \"enabled\") private boolean active;\n" +
+                                    "    @org.raml.parser.annotation.Key private String name;\n" +
+                                    "    private String hidden;\n" +
+                                    "    public Extension(@org.raml.parser.annotation.Key String name) { this.name = name; }\n" +
+                                    "    public boolean isActive() { return active; }\n" +
+                                    "    public void setActive(boolean active) { this.active = active; }\n" +
+                                    "    public String getName() { return name; }\n" +
+                                    "    public String getHidden() { return hidden; }\n" +
+                                    "    public void setHidden(String hidden) { this.hidden = hidden; }\n" +
+                                    "}\n", "UTF-8");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+                                  "-processor", PojoAccessorProcessor.class.getName(),
+                                  "-d", classes.getPath(), "-s", sources.getPath(), source.getPath());
+        assertThat(result, is(0));
+        assertThat(new File(sources, "org/raml/extension/ExtensionPojoAccessor.java").isFile(), is(true));
+
+        ClassLoader classLoader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, getClass().getClassLoader());
+        Class<?> extensionClass = classLoader.loadClass("org.raml.extension.Extension");
+        PojoAccessor accessor = ReflectionUtils.getPojoAccessor(extensionClass);
+        assertThat(accessor.isWritable("active"), is(true));
+        assertThat(accessor.isWritable("name"), is(false));
+        assertThat(accessor.isReadable("name"), is(true));
+        assertThat(accessor.isReadable("hidden"), is(false));
+
+        Object extension = accessor.newInstance("ext", null);
+        ReflectionUtils.setProperty(extension, "active", true);
+        ReflectionUtils.setProperty(extension, "hidden", "value");
+        assertThat((Boolean) ReflectionUtils.getProperty(extension, "active"), is(true));
+        assertThat((String) ReflectionUtils.getProperty(extension, "name"), is("ext"));
+        assertThat((String) ReflectionUtils.getProperty(extension, "hidden"), is("value"));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+
+public class LazyResourceBuilderTestCase extends AbstractRamlTestCase
+{
+
+    private static final String RAML = "#%RAML 0.8\n" +
+                                       "---\n" +
+                                       "title: Sample API\n" +
+                                       "/valid:\n" +
+                                       "  get:\n" +
+                                       "/broken: !include org/raml/not-found.yaml\n";
+
+    @Test
+    public void sameModelAsBuild()
+    {
+        assertSameModel("org/raml/full-config.yaml");
+        assertSameModel("org/raml/integration/sales-enablement-api.yaml");
+        assertSameModel("org/raml/types/resource-types-traits.yaml");
+        assertSameModel("org/raml/types/template-param-functions.yaml");
+        assertSameModel("org/raml/include/include-resource-types.yaml");
+        assertSameModel("org/raml/traits/single-trait-optional-merge.yaml");
+        assertSameModel("org/raml/media-type.yaml");
+    }
+
+    @Test
+    public void resourceBuiltOnRead()
+    {
+        Raml raml = createBuilder().build(RAML, "");
+        assertThat(raml.getResources().size(), is(2));
+        Resource resource = raml.getResources().get("/valid");
+        assertThat(resource.getUri(), is("/valid"));
+        assertThat(raml.getResources().get("/valid"), sameInstance(resource));
+        assertBrokenResource(raml);
+        assertBrokenResource(raml);
+    }
+
+    @Test
+    public void concurrentRead() throws Exception
+    {
+        final Raml raml = createBuilder().build("org/raml/full-config.yaml");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Resource>> results = new ArrayList<Future<Resource>>();
+            for (int i = 0; i < 8; i++)
+            {
+                results.add(executor.submit(new Callable<Resource>()
+                {
+                    @Override
+                    public Resource call() throws Exception
+                    {
+                        return raml.getResources().get("/media");
+                    }
+                }));
+            }
+            for (Future<Resource> result : results)
+            {
+                assertThat(result.get(), sameInstance(results.get(0).get()));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void serializedWithBuiltResources()
+    {
+        String location = "org/raml/full-config.yaml";
+        RamlEmitter emitter = new RamlEmitter();
+        String expected = emitter.dump(new RamlDocumentBuilder().build(location));
+        Raml raml = createBuilder().build(location);
+        Raml copy = (Raml) SerializationUtils.deserialize(SerializationUtils.serialize(raml));
+        assertThat(emitter.dump(copy), is(expected));
+    }
+
+    @Test
+    public void builderReleasedOnceBuilt() throws Exception
+    {
+        Raml raml = createBuilder().build("org/raml/full-config.yaml");
+        Field resourceBuilder = raml.getResources().getClass().getDeclaredField("resourceBuilder");
+        resourceBuilder.setAccessible(true);
+        assertThat(resourceBuilder.get(raml.getResources()), notNullValue());
+        for (Resource resource : raml.getResources().values())
+        {
+            assertThat(resource, notNullValue());
+        }
+        assertThat(resourceBuilder.get(raml.getResources()), nullValue());
+    }
+
+    private void assertBrokenResource(Raml raml)
+    {
+        try
+        {
+            raml.getResources().get("/broken");
+            fail("missing include expected");
+        }
+        catch (RuntimeException e)
+        {
+            assertThat(e.getMessage().contains("not-found.yaml"), is(true));
+        }
+    }
+
+    private void assertSameModel(String location)
+    {
+        RamlEmitter emitter = new RamlEmitter();
+        String expected = emitter.dump(new RamlDocumentBuilder().build(location));
+        assertThat(emitter.dump(createBuilder().build(location)), is(expected));
+    }
+
+    private RamlDocumentBuilder createBuilder()
+    {
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        builder.setLazyResources(true);
+        return builder;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.raml.parser.annotation.Mapping;
+import org.raml.parser.annotation.Scalar;
+import org.raml.parser.annotation.Sequence;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.resolver.DefaultScalarTupleHandler;
+import org.raml.parser.resolver.DefaultTupleHandler;
+import org.raml.parser.visitor.YamlDocumentBuilder;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+public class NullValueBuilderTestCase
+{
+
+    @Test
+    public void nullValuesBuilt()
+    {
+        String yaml = "title: nulls\n" +
+                      "ignored:\n" +
+                      "    first: 1\n" +
+                      "    nested: {second: 2}\n" +
+                      "skipped:\n" +
+                      "    - first\n" +
+                      "    - {second: 2}\n" +
+                      "version: v1\n";
+        YamlDocumentBuilder<Document> builder = new YamlDocumentBuilder<Document>(Document.class, new DefaultResourceLoader());
+        Document document = builder.build(yaml, "");
+        assertThat(document.getTitle(), is("nulls"));
+        assertThat(document.getIgnored(), nullValue());
+        assertThat(document.getSkipped(), nullValue());
+        assertThat(document.getVersion(), is("v1"));
+    }
+
+    public static class Document
+    {
+
+        @Scalar
+        private String title;
+
+        @Mapping(builder = NullMappingBuilder.class)
+        private Map<String, String> ignored;
+
+        @Sequence(builder = NullSequenceBuilder.class)
+        private List<String> skipped;
+
+        @Scalar
+        private String version;
+
+        public String getTitle()
+        {
+            return title;
+        }
+
+        public void setTitle(String title)
+        {
+            this.title = title;
+        }
+
+        public Map<String, String> getIgnored()
+        {
+            return ignored;
+        }
+
+        public void setIgnored(Map<String, String> ignored)
+        {
+            this.ignored = ignored;
+        }
+
+        public List<String> getSkipped()
+        {
+            return skipped;
+        }
+
+        public void setSkipped(List<String> skipped)
+        {
+            this.skipped = skipped;
+        }
+
+        public String getVersion()
+        {
+            return version;
+        }
+
+        public void setVersion(String version)
+        {
+            this.version = version;
+        }
+    }
+
+    public static class NullMappingBuilder extends DefaultTupleBuilder<ScalarNode, MappingNode>
+    {
+
+        public NullMappingBuilder()
+        {
+            super(new DefaultScalarTupleHandler("ignored"));
+        }
+
+        @Override
+        public Object buildValue(Object parent, MappingNode node)
+        {
+            return null;
+        }
+    }
+
+    public static class NullSequenceBuilder extends DefaultTupleBuilder<Node, SequenceNode> implements SequenceBuilder
+    {
+
+        public NullSequenceBuilder()
+        {
+            super(new DefaultScalarTupleHandler("skipped"));
+        }
+
+        @Override
+        public Object buildValue(Object parent, SequenceNode node)
+        {
+            return null;
+        }
+
+        @Override
+        public NodeBuilder getItemBuilder()
+        {
+            return new DefaultTupleBuilder(new DefaultTupleHandler());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.YamlDocumentBuilder;
+
+public class ParallelResourceBuilderTestCase extends AbstractRamlTestCase
+{
+
+    private ExecutorService executor;
+
+    @Before
+    public void startExecutor()
+    {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void stopExecutor()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    public void sameModelAsSerialBuild()
+    {
+        assertSameModel("org/raml/full-config.yaml");
+        assertSameModel("org/raml/integration/sales-enablement-api.yaml");
+        assertSameModel("org/raml/types/resource-types-traits.yaml");
+        assertSameModel("org/raml/types/template-param-functions.yaml");
+        assertSameModel("org/raml/include/include-resource-types.yaml");
+        assertSameModel("org/raml/include/include-sequence.yaml");
+        assertSameModel("org/raml/traits/single-trait-optional-merge.yaml");
+        assertSameModel("org/raml/media-type.yaml");
+        assertSameModel("org/raml/schema/xsd-global-includer.raml");
+    }
+
+    @Test
+    public void reuseBuilder()
+    {
+        RamlDocumentBuilder builder = createBuilder();
+        Raml first = builder.build("org/raml/full-config.yaml");
+        Raml second = builder.build("org/raml/full-config.yaml");
+        assertThat(new RamlEmitter().dump(second), is(new RamlEmitter().dump(first)));
+    }
+
+    @Test
+    public void aliasedResources()
+    {
+        String raml = "#%RAML 0.8\n" +
+                      "---\n" +
+                      "title: Sample API\n" +
+                      "/first: &resource\n" +
+                      "  get:\n" +
+                      "    description: shared\n" +
+                      "/second: *resource\n";
+        RamlEmitter emitter = new RamlEmitter();
+        String expected = emitter.dump(new RamlDocumentBuilder().build(raml, ""));
+        Raml parallel = createBuilder().build(raml, "");
+        assertThat(emitter.dump(parallel), is(expected));
+        assertThat(new ArrayList<String>(parallel.getResources().keySet()).toString(), is("[/first, /second]"));
+    }
+
+    private void assertSameModel(String location)
+    {
+        RamlEmitter emitter = new RamlEmitter();
+        RamlDocumentBuilder serialBuilder = new RamlDocumentBuilder();
+        String expected = emitter.dump(serialBuilder.build(location));
+        RamlDocumentBuilder parallelBuilder = createBuilder();
+        assertThat(emitter.dump(parallelBuilder.build(location)), is(expected));
+        assertThat(YamlDocumentBuilder.dumpFromAst(parallelBuilder.getRootNode()),
+                   is(YamlDocumentBuilder.dumpFromAst(serialBuilder.getRootNode())));
+    }
+
+    private RamlDocumentBuilder createBuilder()
+    {
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        builder.setResourceExecutor(executor);
+        return builder;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.assertThat;
+import static org.raml.parser.visitor.ParseListener.Cache.SCHEMA;
+import static org.raml.parser.visitor.ParseListener.Phase.COMPOSE;
+import static org.raml.parser.visitor.ParseListener.Phase.MEDIA_TYPE_RESOLUTION;
+import static org.raml.parser.visitor.ParseListener.Phase.TEMPLATE_INIT;
+import static org.raml.parser.visitor.ParseListener.Phase.TEMPLATE_MERGE;
+import static org.raml.parser.visitor.ParseListener.Phase.VISIT;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.visitor.ParseListener;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.RamlValidationService;
+
+public class ParseListenerTestCase extends AbstractRamlTestCase
+{
+
+    private static final String INCLUDE_SEQUENCE = "org/raml/include/include-sequence.yaml";
+    private static final String XSD_INCLUDER = "org/raml/schema/xsd-global-includer.raml";
+
+    @Test
+    public void buildPhases()
+    {
+        RecordingParseListener listener = new RecordingParseListener();
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        builder.setParseListener(listener);
+        builder.build(INCLUDE_SEQUENCE);
+
+        assertThat(listener.phases, hasItem(COMPOSE + " " + INCLUDE_SEQUENCE));
+        assertThat(listener.phases, hasItem(TEMPLATE_INIT + " " + INCLUDE_SEQUENCE));
+        assertThat(listener.phases, hasItem(TEMPLATE_MERGE + " /main"));
+        assertThat(listener.phases, hasItem(MEDIA_TYPE_RESOLUTION + " " + INCLUDE_SEQUENCE));
+        assertThat(listener.phases, hasItem(VISIT + " " + INCLUDE_SEQUENCE));
+        String schemaInclude = "org/raml/include/sequence-schema.yaml";
+        assertThat(listener.includes.get(schemaInclude), is((long) getResourceAsString(schemaInclude).getBytes().length));
+        assertThat(listener.includes.size(), is(3));
+    }
+
+    @Test
+    public void schemaCache()
+    {
+        RecordingParseListener listener = new RecordingParseListener();
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        builder.setParseListener(listener);
+        builder.build(XSD_INCLUDER);
+        int accesses = listener.cacheHits + listener.cacheMisses;
+        assertThat(accesses > 0, is(true));
+        assertThat(listener.cacheMisses == 0 || listener.phases.contains(ParseListener.Phase.SCHEMA_COMPILE + " org/raml/schema/refs/"), is(true));
+
+        int hits = listener.cacheHits;
+        builder.build(XSD_INCLUDER);
+        assertThat(listener.cacheHits - hits, is(accesses));
+    }
+
+    @Test
+    public void validationPhases()
+    {
+        RecordingParseListener listener = new RecordingParseListener();
+        RamlValidationService validationService = RamlValidationService.createDefault();
+        validationService.setParseListener(listener);
+        List<ValidationResult> results = validationService.validate(INCLUDE_SEQUENCE);
+
+        assertThat(results.isEmpty(), is(true));
+        assertThat(listener.phases, hasItem(COMPOSE + " " + INCLUDE_SEQUENCE));
+        assertThat(listener.phases, hasItem(TEMPLATE_INIT + " " + INCLUDE_SEQUENCE));
+        assertThat(listener.phases, hasItem(TEMPLATE_MERGE + " /main"));
+        assertThat(listener.phases, hasItem(VISIT + " " + INCLUDE_SEQUENCE));
+        assertThat(listener.includes.size(), is(3));
+    }
+
+    private static class RecordingParseListener implements ParseListener
+    {
+
+        private List<String> phases = new ArrayList<String>();
+        private Map<String, Long> includes = new HashMap<String, Long>();
+        private int cacheHits;
+        private int cacheMisses;
+
+        @Override
+        public synchronized void onPhase(Phase phase, String location, long nanos)
+        {
+            phases.add(phase + " " + location);
+        }
+
+        @Override
+        public synchronized void onInclude(String resourceName, long bytes, long nanos)
+        {
+            includes.put(resourceName, bytes);
+        }
+
+        @Override
+        public synchronized void onCacheAccess(Cache cache, boolean hit)
+        {
+            if (cache == SCHEMA)
+            {
+                if (hit)
+                {
+                    cacheHits++;
+                }
+                else
+                {
+                    cacheMisses++;
+                }
+            }
+        }
+    }
+}
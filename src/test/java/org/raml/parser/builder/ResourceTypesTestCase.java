@@ -16,6 +16,7 @@
 package org.raml.parser.builder;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import org.junit.BeforeClass;
@@ -79,4 +80,15 @@ public class ResourceTypesTestCase extends AbstractRamlTestCase
         assertThat(inheritanceResource.getAction(ActionType.POST).getBody().containsKey("text/yaml"), is(true));
     }
 
+    @Test
+    public void parameterizedInheritance()
+    {
+        Resource usersResource = raml.getResources().get("/users");
+        assertThat(usersResource.getDescription(), is("user users"));
+        assertThat(usersResource.getActions().size(), is(2));
+        assertThat(usersResource.getAction(ActionType.GET).getDescription(), is("own get"));
+        assertThat(usersResource.getAction(ActionType.PUT).getDescription(), is("put user in /users"));
+        assertThat(usersResource.getAction(ActionType.POST), nullValue());
+    }
+
 }
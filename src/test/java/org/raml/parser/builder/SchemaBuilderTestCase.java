@@ -16,15 +16,27 @@
 package org.raml.parser.builder;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertThat;
 import static org.raml.model.ActionType.GET;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.xml.validation.Schema;
 
 import org.junit.Test;
 import org.raml.model.MimeType;
 import org.raml.model.Raml;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.tagresolver.ContextPath;
+import org.raml.parser.visitor.SchemaCache;
+import org.raml.parser.visitor.SchemaCompiler;
 
 public class SchemaBuilderTestCase extends AbstractRamlTestCase
 {
@@ -74,4 +86,65 @@ public class SchemaBuilderTestCase extends AbstractRamlTestCase
         assertThat(mimeType.getSchema(), is("name-schema"));
     }
 
+    @Test
+    public void xsdCompiledOnceAcrossParses()
+    {
+        Raml raml1 = parseRaml("org/raml/schema/xsd-includer.raml");
+        Raml raml2 = parseRaml("org/raml/schema/xsd-includer.raml");
+        MimeType mimeType1 = raml1.getResources().get("/name").getAction(GET).getResponses().get("200").getBody().get("application/xml");
+        MimeType mimeType2 = raml2.getResources().get("/name").getAction(GET).getResponses().get("200").getBody().get("application/xml");
+        assertThat(mimeType1.getCompiledSchema(), is(Schema.class));
+        assertThat(mimeType2.getCompiledSchema(), sameInstance(mimeType1.getCompiledSchema()));
+    }
+
+    @Test
+    public void xsdCacheScopedByBasePath()
+    {
+        String xsd = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"><xs:element name=\"name\" type=\"xs:string\"/></xs:schema>";
+        SchemaCache cache = new SchemaCache(1);
+        SchemaCompiler compiler = new SchemaCompiler(new ContextPath(), new DefaultResourceLoader(), cache);
+        Schema schema = compiler.compile(xsd, "org/raml/schema/name.xsd");
+        assertThat(schema, is(Schema.class));
+        assertThat(compiler.compile(xsd, "org/raml/schema/name.xsd"), sameInstance(schema));
+        Schema other = compiler.compile(xsd, "org/raml/schema/refs/name.xsd");
+        assertThat(other, is(Schema.class));
+        assertThat(other, not(sameInstance(schema)));
+        assertThat(cache.size(), is(1));
+        assertThat(compiler.compile(xsd, "org/raml/schema/name.xsd"), not(sameInstance(schema)));
+    }
+
+    @Test
+    public void xsdCacheScopedByIncludedContent()
+    {
+        String xsd = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"><xs:include schemaLocation=\"types.xsd\"/></xs:schema>";
+        String types = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"><xs:element name=\"%s\" type=\"xs:string\"/></xs:schema>";
+        SchemaCache cache = new SchemaCache(1);
+        MapResourceLoader loader = new MapResourceLoader();
+        loader.resources.put("mem/types.xsd", String.format(types, "name"));
+        MapResourceLoader otherLoader = new MapResourceLoader();
+        otherLoader.resources.put("mem/types.xsd", String.format(types, "title"));
+
+        Schema schema = new SchemaCompiler(new ContextPath(), loader, cache).compile(xsd, "mem/main.xsd");
+        assertThat(schema, is(Schema.class));
+        assertThat(new SchemaCompiler(new ContextPath(), loader, cache).compile(xsd, "mem/main.xsd"), sameInstance(schema));
+        Schema other = new SchemaCompiler(new ContextPath(), otherLoader, cache).compile(xsd, "mem/main.xsd");
+        assertThat(other, is(Schema.class));
+        assertThat(other, not(sameInstance(schema)));
+
+        otherLoader.resources.put("mem/types.xsd", String.format(types, "name"));
+        assertThat(new SchemaCompiler(new ContextPath(), otherLoader, cache).compile(xsd, "mem/main.xsd"), not(sameInstance(other)));
+    }
+
+    private static class MapResourceLoader implements ResourceLoader
+    {
+
+        private final Map<String, String> resources = new HashMap<String, String>();
+
+        @Override
+        public InputStream fetchResource(String resourceName)
+        {
+            String resource = resources.get(resourceName);
+            return resource == null ? null : new ByteArrayInputStream(resource.getBytes());
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.raml.emitter.RamlEmitter;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+
+public class SharedBuilderTestCase extends AbstractRamlTestCase
+{
+
+    private static final String[] LOCATIONS = {
+            "org/raml/full-config.yaml",
+            "org/raml/integration/sales-enablement-api.yaml",
+            "org/raml/media-type.yaml",
+            "org/raml/schema/xsd-global-includer.raml"
+    };
+
+    @Test
+    public void buildersReusedAcrossBuilds()
+    {
+        RecordingBuilder first = new RecordingBuilder();
+        first.build(LOCATIONS[0]);
+        RecordingBuilder second = new RecordingBuilder();
+        second.build(LOCATIONS[0]);
+        second.build(LOCATIONS[0]);
+
+        assertThat(second.builders.size(), is(2 * first.builders.size()));
+        for (int i = 0; i < second.builders.size(); i++)
+        {
+            NodeBuilder<?> expected = first.builders.get(i % first.builders.size());
+            assertThat(second.builders.get(i), sameInstance((Object) expected));
+        }
+        for (NodeBuilder<?> documentBuilder : second.documentBuilders)
+        {
+            assertThat(documentBuilder, sameInstance((Object) first.documentBuilders.get(0)));
+        }
+    }
+
+    @Test
+    public void concurrentBuilds() throws Exception
+    {
+        final RamlEmitter emitter = new RamlEmitter();
+        List<String> expected = new ArrayList<String>();
+        for (String location : LOCATIONS)
+        {
+            expected.add(emitter.dump(new RamlDocumentBuilder().build(location)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8 * LOCATIONS.length; i++)
+            {
+                final String location = LOCATIONS[i % LOCATIONS.length];
+                results.add(executor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call()
+                    {
+                        return emitter.dump(new RamlDocumentBuilder().build(location));
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++)
+            {
+                assertThat(results.get(i).get(), is(expected.get(i % LOCATIONS.length)));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static class RecordingBuilder extends RamlDocumentBuilder
+    {
+
+        private List<NodeBuilder<?>> builders = new ArrayList<NodeBuilder<?>>();
+        private List<NodeBuilder<?>> documentBuilders = new ArrayList<NodeBuilder<?>>();
+
+        @Override
+        public boolean onTupleStart(NodeTuple nodeTuple)
+        {
+            boolean result = super.onTupleStart(nodeTuple);
+            builders.add(getBuilderDeque().peek());
+            documentBuilders.add(getBuilderDeque().peekLast());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.builder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+public class StreamingBuilderTestCase extends AbstractRamlTestCase
+{
+
+    @Test
+    public void sameModelAsBuild()
+    {
+        assertSameModel("org/raml/full-config.yaml");
+        assertSameModel("org/raml/integration/sales-enablement-api.yaml");
+        assertSameModel("org/raml/types/resource-types-traits.yaml");
+        assertSameModel("org/raml/types/template-param-functions.yaml");
+        assertSameModel("org/raml/include/include-resource-types.yaml");
+        assertSameModel("org/raml/include/include-sequence.yaml");
+        assertSameModel("org/raml/traits/single-trait-optional-merge.yaml");
+        assertSameModel("org/raml/media-type.yaml");
+        assertSameModel("org/raml/schema/xsd-global-includer.raml");
+    }
+
+    @Test
+    public void resourcesNotRetained()
+    {
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        Raml raml = builder.buildStreaming("org/raml/full-config.yaml");
+        assertThat(raml.getResources().isEmpty(), is(false));
+        assertThat(builder.getRootNode().getValue().isEmpty(), is(false));
+        for (NodeTuple tuple : builder.getRootNode().getValue())
+        {
+            assertThat(((ScalarNode) tuple.getKeyNode()).getValue().startsWith("/"), is(false));
+        }
+    }
+
+    @Test(expected = YAMLException.class)
+    public void templatesAfterResources()
+    {
+        String raml = "#%RAML 0.8\n" +
+                      "---\n" +
+                      "title: Sample API\n" +
+                      "/media:\n" +
+                      "  type: collection\n" +
+                      "resourceTypes:\n" +
+                      "  - collection:\n" +
+                      "      get:\n";
+        new RamlDocumentBuilder().buildStreaming(new StringReader(raml), "");
+    }
+
+    private void assertSameModel(String location)
+    {
+        RamlEmitter emitter = new RamlEmitter();
+        String expected = emitter.dump(new RamlDocumentBuilder().build(location));
+        assertThat(emitter.dump(new RamlDocumentBuilder().buildStreaming(location)), is(expected));
+    }
+}
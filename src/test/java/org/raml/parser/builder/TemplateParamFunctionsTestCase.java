@@ -18,13 +18,31 @@ package org.raml.parser.builder;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.List;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.raml.model.Raml;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.rule.NodeRuleFactory;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+import org.raml.parser.visitor.RamlParser;
+import org.raml.parser.visitor.TemplateFunction;
+import org.raml.parser.visitor.TemplateFunctionRegistry;
 
 public class TemplateParamFunctionsTestCase extends AbstractRamlTestCase
 {
 
+    private static final String CUSTOM_RAML = "#%RAML 0.8\n" +
+                                              "---\n" +
+                                              "title: Custom function\n" +
+                                              "resourceTypes:\n" +
+                                              "    - base:\n" +
+                                              "        description: <<name | !kebabcase | !pluralize>>\n" +
+                                              "/userAccounts:\n" +
+                                              "    type: {base: {name: userAccount}}\n";
+
     private static final String ramlSource = "org/raml/types/template-param-functions.yaml";
     private static Raml raml;
 
@@ -68,4 +86,58 @@ public class TemplateParamFunctionsTestCase extends AbstractRamlTestCase
     {
         validateRamlNoErrors(ramlSource);
     }
+
+    @Test
+    public void invalidParameters()
+    {
+        String invalidRaml = "#%RAML 0.8\n" +
+                             "---\n" +
+                             "title: Invalid parameters\n" +
+                             "resourceTypes:\n" +
+                             "    - base:\n" +
+                             "        description: <<resourcePathName | !unknown>> <<undefined>>\n" +
+                             "/first:\n" +
+                             "    type: base\n" +
+                             "/second:\n" +
+                             "    type: base\n";
+        List<ValidationResult> validationResults = validateRaml(invalidRaml, "");
+        assertThat(validationResults.size(), is(4));
+        assertThat(validationResults.get(0).getMessage(), is("Invalid parameter function: !unknown"));
+        assertThat(validationResults.get(1).getMessage(), is("Invalid parameter definition: <<undefined>>"));
+        assertThat(validationResults.get(2).getMessage(), is("Invalid parameter function: !unknown"));
+        assertThat(validationResults.get(3).getMessage(), is("Invalid parameter definition: <<undefined>>"));
+    }
+
+    @Test
+    public void customFunction()
+    {
+        RamlDocumentBuilder builder = new RamlDocumentBuilder();
+        builder.getTemplateFunctions().register("kebabcase", new KebabCaseFunction());
+        assertThat(builder.build(CUSTOM_RAML, "").getResource("/userAccounts").getDescription(), is("user-accounts"));
+    }
+
+    @Test
+    public void customFunctionScopedByParser()
+    {
+        TemplateFunctionRegistry templateFunctions = TemplateFunctionRegistry.createDefault();
+        templateFunctions.register("kebabcase", new KebabCaseFunction());
+        RamlParser customParser = new RamlParser(new DefaultResourceLoader(), new NodeRuleFactory(), templateFunctions);
+        assertThat(customParser.validate(CUSTOM_RAML, "").isEmpty(), is(true));
+        assertThat(customParser.parse(CUSTOM_RAML, "").getRaml().getResource("/userAccounts").getDescription(), is("user-accounts"));
+
+        List<ValidationResult> validationResults = new RamlParser().validate(CUSTOM_RAML, "");
+        assertThat(validationResults.size(), is(1));
+        assertThat(validationResults.get(0).getMessage(), is("Invalid parameter function: !kebabcase"));
+        assertThat(TemplateFunctionRegistry.createDefault().get("kebabcase") == null, is(true));
+    }
+
+    private static class KebabCaseFunction implements TemplateFunction
+    {
+
+        @Override
+        public String apply(String value)
+        {
+            return value.replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase();
+        }
+    }
 }
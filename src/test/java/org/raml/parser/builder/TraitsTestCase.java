@@ -62,4 +62,37 @@ public class TraitsTestCase extends AbstractRamlTestCase
         assertThat(raml.getResources().get("/media").getAction(GET).getQueryParameters().size(), is(2));
     }
 
+    @Test
+    public void sameTraitAppliedTwice()
+    {
+        String raml = "#%RAML 0.8\n" +
+                      "---\n" +
+                      "title: Shared traits\n" +
+                      "traits:\n" +
+                      "    - paged:\n" +
+                      "        queryParameters:\n" +
+                      "            page:\n" +
+                      "                description: page of <<label>>\n" +
+                      "/first:\n" +
+                      "    get:\n" +
+                      "        is: [{paged: {label: items}}]\n" +
+                      "        queryParameters:\n" +
+                      "            page:\n" +
+                      "                type: integer\n" +
+                      "/second:\n" +
+                      "    get:\n" +
+                      "        is: [{paged: {label: items}}]\n" +
+                      "/third:\n" +
+                      "    get:\n" +
+                      "        is: [{paged: {label: users}}]\n";
+        Raml model = parseRaml(raml, "");
+        QueryParameter first = model.getResource("/first").getAction(GET).getQueryParameters().get("page");
+        QueryParameter second = model.getResource("/second").getAction(GET).getQueryParameters().get("page");
+        QueryParameter third = model.getResource("/third").getAction(GET).getQueryParameters().get("page");
+        assertThat(first.getType(), is(ParamType.INTEGER));
+        assertThat(first.getDescription(), is("page of items"));
+        assertThat(second.getType(), is(ParamType.STRING));
+        assertThat(second.getDescription(), is("page of items"));
+        assertThat(third.getDescription(), is("page of users"));
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.resolver;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.raml.model.ActionType;
+import org.raml.parser.builder.DefaultTupleBuilder;
+import org.raml.parser.builder.TupleBuilder;
+import org.raml.parser.rule.DefaultTupleRule;
+import org.raml.parser.rule.TupleRule;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+public class TupleDispatcherTestCase
+{
+
+    @Test
+    public void exactKeys()
+    {
+        TupleDispatcher<String> dispatcher = new TupleDispatcher<String>();
+        dispatcher.add("description", new DefaultScalarTupleHandler("description"));
+        dispatcher.add("resources", new ResourceHandler());
+        dispatcher.add("actions", new EnumHandler(null, ActionType.class));
+        dispatcher.add("title", new DefaultScalarTupleHandler("title"));
+
+        assertThat(dispatcher.dispatch(tuple("title")), is("title"));
+        assertThat(dispatcher.dispatch(tuple("description")), is("description"));
+        assertThat(dispatcher.dispatch(tuple("/users")), is("resources"));
+        assertThat(dispatcher.dispatch(tuple("Get")), is("actions"));
+        assertThat(dispatcher.dispatch(tuple("version")), nullValue());
+    }
+
+    @Test
+    public void declarationOrder()
+    {
+        TupleDispatcher<String> dispatcher = new TupleDispatcher<String>();
+        dispatcher.add("first", new DefaultScalarTupleHandler("/users"));
+        dispatcher.add("resources", new ResourceHandler());
+        dispatcher.add("second", new DefaultScalarTupleHandler("/groups"));
+        dispatcher.add("any", new MatchAllHandler());
+
+        assertThat(dispatcher.dispatch(tuple("/users")), is("first"));
+        assertThat(dispatcher.dispatch(tuple("/groups")), is("resources"));
+        assertThat(dispatcher.dispatch(tuple("title")), is("any"));
+    }
+
+    @Test
+    public void responseCodes()
+    {
+        ResponseHandler handler = new ResponseHandler();
+        assertThat(handler.handles(tuple("200")), is(true));
+        assertThat(handler.handles(tuple("+201")), is(true));
+        assertThat(handler.handles(tuple("0")), is(false));
+        assertThat(handler.handles(tuple("-404")), is(false));
+        assertThat(handler.handles(tuple("2147483648")), is(false));
+        assertThat(handler.handles(tuple("20x")), is(false));
+        assertThat(handler.handles(tuple("")), is(false));
+    }
+
+    @Test
+    public void replacedBuilderDispatched()
+    {
+        TupleBuilder<?, ?> first = new DefaultTupleBuilder(new DefaultScalarTupleHandler("title"));
+        TupleBuilder<?, ?> second = new DefaultTupleBuilder(new DefaultScalarTupleHandler("title"));
+        Map<String, TupleBuilder<?, ?>> builders = new HashMap<String, TupleBuilder<?, ?>>();
+        builders.put("title", first);
+        DefaultTupleBuilder<?, ?> parent = new DefaultTupleBuilder(null);
+        parent.setChildrenTupleBuilders(builders);
+        assertThat(parent.getBuilderForTuple(tuple("title")) == first, is(true));
+
+        builders.put("title", second);
+        parent.setChildrenTupleBuilders(builders);
+        assertThat(parent.getBuilderForTuple(tuple("title")) == second, is(true));
+    }
+
+    @Test
+    public void replacedRuleDispatched()
+    {
+        final TupleRule<?, ?> second = new DefaultTupleRule("title", new DefaultScalarTupleHandler("title"));
+        DefaultTupleRule<Node, Node> parent = new DefaultTupleRule<Node, Node>()
+        {
+            @Override
+            public void addRulesFor(Class<?> pojoClass)
+            {
+                rules.put("title", second);
+                nestedRulesChanged();
+            }
+        };
+        TupleRule<?, ?> first = new DefaultTupleRule("title", new DefaultScalarTupleHandler("title"));
+        Map<String, TupleRule<?, ?>> rules = new HashMap<String, TupleRule<?, ?>>();
+        rules.put("title", first);
+        parent.setNestedRules(rules);
+        assertThat(parent.getRuleForTuple(tuple("title")) == first, is(true));
+
+        parent.addRulesFor(Object.class);
+        assertThat(parent.getRuleForTuple(tuple("title")) == second, is(true));
+    }
+
+    private static NodeTuple tuple(String key)
+    {
+        return new NodeTuple(new ScalarNode(Tag.STR, key, null, null, null), new ScalarNode(Tag.STR, "value", null, null, null));
+    }
+}
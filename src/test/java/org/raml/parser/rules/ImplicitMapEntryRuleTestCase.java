@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.rules;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.raml.parser.rule.ValidationMessage.getDuplicateRuleMessage;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.raml.model.Resource;
+import org.raml.parser.builder.AbstractRamlTestCase;
+import org.raml.parser.loader.DefaultResourceLoader;
+import org.raml.parser.rule.NodeRuleFactory;
+import org.raml.parser.rule.TupleRule;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.visitor.RamlValidationService;
+
+public class ImplicitMapEntryRuleTestCase extends AbstractRamlTestCase
+{
+
+    private static final String RAML = "#%RAML 0.8\n" +
+                                       "title: test\n" +
+                                       "/a:\n" +
+                                       "    displayName: A\n" +
+                                       "    /x:\n" +
+                                       "        displayName: X\n" +
+                                       "/b:\n" +
+                                       "    displayName: B\n" +
+                                       "    displayName: B\n" +
+                                       "    /x:\n" +
+                                       "        displayName: X\n" +
+                                       "/c:\n" +
+                                       "    /x:\n" +
+                                       "        displayName: X\n";
+
+    @Test
+    public void entriesValidatedSeparately()
+    {
+        List<ValidationResult> errors = validateRaml(RAML, "");
+        assertThat(errors.size(), is(1));
+        assertThat(errors.get(0).getMessage(), is(getDuplicateRuleMessage("displayName")));
+        assertThat(errors.get(0).getLine(), is(8));
+    }
+
+    @Test
+    public void rulesReusedByNextEntry()
+    {
+        CountingNodeRuleFactory nodeRuleFactory = new CountingNodeRuleFactory();
+        List<ValidationResult> errors = RamlValidationService.createDefault(new DefaultResourceLoader(), nodeRuleFactory).validate(RAML, "");
+        assertThat(errors.size(), is(1));
+        assertThat(nodeRuleFactory.resourceRules, is(2));
+    }
+
+    private static class CountingNodeRuleFactory extends NodeRuleFactory
+    {
+
+        private int resourceRules;
+
+        @Override
+        public void addRulesTo(Class<?> pojoClass, TupleRule<?, ?> parent)
+        {
+            if (pojoClass == Resource.class)
+            {
+                resourceRules++;
+            }
+            super.addRulesTo(pojoClass, parent);
+        }
+    }
+}
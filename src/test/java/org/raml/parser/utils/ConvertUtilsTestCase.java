@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.junit.Test;
+import org.raml.model.ActionType;
+import org.raml.model.ParamType;
+
+public class ConvertUtilsTestCase
+{
+
+    @Test
+    public void sharedPerType()
+    {
+        assertThat(ConvertUtils.getConverter(ParamType.class), sameInstance(ConvertUtils.getConverter(ParamType.class)));
+    }
+
+    @Test
+    public void enums()
+    {
+        assertThat(ConvertUtils.convertTo("integer", ParamType.class), is(ParamType.INTEGER));
+        assertThat(ConvertUtils.convertTo("get", ActionType.class), is(ActionType.GET));
+        assertThat(ConvertUtils.canBeConverted("Date", ParamType.class), is(true));
+        assertThat(ConvertUtils.canBeConverted("timestamp", ParamType.class), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownEnum()
+    {
+        ConvertUtils.convertTo("timestamp", ParamType.class);
+    }
+
+    @Test
+    public void booleans()
+    {
+        assertThat(ConvertUtils.convertTo("yes", boolean.class), is(true));
+        assertThat(ConvertUtils.convertTo("False", Boolean.class), is(false));
+        assertThat(ConvertUtils.canBeConverted("n", boolean.class), is(true));
+        assertThat(ConvertUtils.canBeConverted("maybe", boolean.class), is(false));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void invalidBoolean()
+    {
+        ConvertUtils.convertTo("maybe", boolean.class);
+    }
+
+    @Test
+    public void numbersAndStrings()
+    {
+        assertThat(ConvertUtils.convertTo("12", Integer.class), is(12));
+        assertThat(ConvertUtils.convertTo("12", int.class), is(12));
+        assertThat(ConvertUtils.convertTo("1.50", BigDecimal.class), is(new BigDecimal("1.50")));
+        assertThat(ConvertUtils.convertTo("text", String.class), is("text"));
+        assertThat(ConvertUtils.canBeConverted("12", Integer.class), is(true));
+        assertThat(ConvertUtils.canBeConverted("text", Object.class), is(true));
+    }
+
+    @Test
+    public void stringConstructor()
+    {
+        assertThat(ConvertUtils.convertTo("a", StringBuilder.class).toString(), is("a"));
+    }
+}
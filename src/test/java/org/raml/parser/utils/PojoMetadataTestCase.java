@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.raml.model.MimeType;
+import org.raml.model.Resource;
+import org.raml.model.parameter.QueryParameter;
+import org.raml.model.parameter.UriParameter;
+
+public class PojoMetadataTestCase
+{
+
+    @Test
+    public void sharedPerClass()
+    {
+        assertThat(PojoMetadata.of(Resource.class), sameInstance(PojoMetadata.of(Resource.class)));
+    }
+
+    @Test
+    public void annotatedFields()
+    {
+        List<FieldMetadata> fields = PojoMetadata.of(Resource.class).getFields();
+        assertThat(fields.get(0).getName(), is("displayName"));
+        assertThat(fields.get(0).getScalar() != null, is(true));
+        assertThat(fields.get(1).getName(), is("description"));
+
+        FieldMetadata uriParameters = fields.get(2);
+        assertThat(uriParameters.getName(), is("uriParameters"));
+        assertThat(uriParameters.getMapping() != null, is(true));
+        assertThat(uriParameters.getKeyType(), is((Object) String.class));
+        assertThat(uriParameters.getValueType(), is((Object) UriParameter.class));
+    }
+
+    @Test
+    public void inheritedAliases()
+    {
+        PojoMetadata metadata = PojoMetadata.of(QueryParameter.class);
+        assertThat(metadata.unalias("enum"), is("enumeration"));
+        assertThat(metadata.unalias("default"), is("defaultValue"));
+        assertThat(metadata.unalias("example"), is("example"));
+
+        for (FieldMetadata field : metadata.getFields())
+        {
+            if (field.getName().equals("enumeration"))
+            {
+                assertThat(field.getSerializedName(), is("enum"));
+                assertThat(field.getKeyType(), nullValue());
+                assertThat(field.getValueType(), is((Object) String.class));
+            }
+        }
+    }
+
+    @Test
+    public void keyAndParentFields()
+    {
+        PojoMetadata metadata = PojoMetadata.of(Resource.class);
+        assertThat(metadata.getKeyFields().size(), is(1));
+        assertThat(metadata.getKeyFields().get(0).getName(), is("relativeUri"));
+        assertThat(metadata.getParentFields().size(), is(2));
+        assertThat(metadata.getParentFields().get(1).getParent().property(), is("uri"));
+
+        assertThat(PojoMetadata.of(MimeType.class).getKeyFields().get(0).getName(), is("type"));
+        assertThat(PojoMetadata.of(MimeType.class).getParentFields().isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.raml.model.Action;
+import org.raml.model.ActionType;
+import org.raml.model.Resource;
+
+public class ReflectionUtilsTestCase
+{
+
+    @Test
+    public void beanProperty()
+    {
+        Resource resource = new Resource();
+        ReflectionUtils.setProperty(resource, "displayName", "users");
+        assertThat(resource.getDisplayName(), is("users"));
+        assertThat((String) ReflectionUtils.getProperty(resource, "displayName"), is("users"));
+
+        Action action = new Action();
+        ReflectionUtils.setProperty(action, "type", ActionType.GET);
+        assertThat((ActionType) ReflectionUtils.getProperty(action, "type"), is(ActionType.GET));
+    }
+
+    @Test
+    public void mapAndListProperty()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        ReflectionUtils.setProperty(map, "key", "value");
+        assertThat((String) ReflectionUtils.getProperty(map, "key"), is("value"));
+        assertThat(ReflectionUtils.getProperty(map, "missing"), nullValue());
+
+        List<Object> list = new ArrayList<Object>();
+        ReflectionUtils.setProperty(list, "ignored", "item");
+        assertThat(list.size(), is(1));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unknownProperty()
+    {
+        ReflectionUtils.setProperty(new Resource(), "unknown", "value");
+    }
+}
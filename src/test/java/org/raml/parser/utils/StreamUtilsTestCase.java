@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class StreamUtilsTestCase
+{
+
+    private static final String CONTENT = "title: Ñandú API\ndescription: áéíóú\n";
+
+    @Test
+    public void utf8Bom() throws Exception
+    {
+        assertDecoded(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, "UTF-8");
+    }
+
+    @Test
+    public void utf16Bom() throws Exception
+    {
+        assertDecoded(new byte[] {(byte) 0xFE, (byte) 0xFF}, "UTF-16BE");
+        assertDecoded(new byte[] {(byte) 0xFF, (byte) 0xFE}, "UTF-16LE");
+    }
+
+    @Test
+    public void utf32Bom() throws Exception
+    {
+        assertDecoded(new byte[] {0x00, 0x00, (byte) 0xFE, (byte) 0xFF}, "UTF-32BE");
+        assertDecoded(new byte[] {(byte) 0xFF, (byte) 0xFE, 0x00, 0x00}, "UTF-32LE");
+    }
+
+    @Test
+    public void noBom() throws Exception
+    {
+        assertDecoded(new byte[0], "UTF-8");
+        assertThat(StreamUtils.toString(new ByteArrayInputStream(new byte[0])), is(""));
+    }
+
+    @Test
+    public void contentLongerThanSniffWindow() throws Exception
+    {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < StreamUtils.SNIFF_SIZE * 3)
+        {
+            content.append(CONTENT);
+        }
+        byte[] bytes = content.toString().getBytes("UTF-8");
+        assertThat(StreamUtils.toString(new ByteArrayInputStream(bytes)), is(content.toString()));
+        assertThat(IOUtils.toString(StreamUtils.reader(new ByteArrayInputStream(bytes))), is(content.toString()));
+    }
+
+    private void assertDecoded(byte[] bom, String encoding) throws Exception
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(bom);
+        output.write(CONTENT.getBytes(encoding));
+        byte[] bytes = output.toByteArray();
+        assertThat(StreamUtils.toString(new ByteArrayInputStream(bytes)), is(CONTENT));
+        assertThat(IOUtils.toString(StreamUtils.reader(new ByteArrayInputStream(bytes))), is(CONTENT));
+        if (bom.length > 0)
+        {
+            assertThat(StreamUtils.detectEncoding(bytes), is(encoding));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ContextStackTestCase
+{
+
+    @Test
+    public void stackAndDequeShareElements()
+    {
+        ContextStack<String> stack = new ContextStack<String>();
+        Deque<String> deque = stack.asDeque();
+        stack.push("root");
+        deque.push(null);
+        deque.push("leaf");
+
+        assertThat(stack.size(), is(3));
+        assertThat(stack.peek(), is("leaf"));
+        assertThat(toList(stack.iterator()), is(Arrays.asList("root", null, "leaf")));
+        assertThat(toList(deque.iterator()), is(Arrays.asList("leaf", null, "root")));
+        assertThat(toList(deque.descendingIterator()), is(Arrays.asList("root", null, "leaf")));
+        assertThat(deque.peekLast(), is("root"));
+
+        assertThat(stack.pop(), is("leaf"));
+        assertThat(deque.pop(), nullValue());
+        assertThat(deque.pop(), is("root"));
+        assertThat(stack.empty(), is(true));
+        assertThat(deque.peek(), nullValue());
+    }
+
+    private static List<String> toList(Iterator<String> iterator)
+    {
+        List<String> list = new ArrayList<String>();
+        while (iterator.hasNext())
+        {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+}
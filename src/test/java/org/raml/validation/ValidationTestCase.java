@@ -201,6 +201,15 @@ public class ValidationTestCase extends AbstractRamlTestCase
         assertThat(validationResults.get(0).getLine() + 1, is(3));
     }
 
+    @Test
+    public void circularResourceType()
+    {
+        List<ValidationResult> validationResults = validateRaml("org/raml/validation/circular-resource-type.yaml");
+        assertThat(validationResults.size(), is(1));
+        assertThat(validationResults.get(0).getMessage(), is("Circular resource type reference: collection -> member -> collection"));
+        assertThat(validationResults.get(0).getLine() + 1, is(5));
+    }
+
     @Test
     public void circularInclude()
     {